@@ -0,0 +1,85 @@
+package persistent.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import persistent.array.AggregateTreeList;
+import persistent.array.TreeList;
+import persistent.util.Monoid;
+
+/**
+ * Each operation creates a new version by one update, and then queries a range
+ * sum of the new version.
+ */
+@Warmup(iterations = 1, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 2, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class AggregateBenchmark {
+	private static final Monoid<Integer, Long> SUM = Monoid.of(0L, Integer::longValue, Long::sum);
+	private static final int QUERIES = 1024;
+
+	@Param({ "1000", "100000" })
+	int listSize;
+
+	private int[] indices;
+	private int[] from;
+	private int[] to;
+	private TreeList<Integer> treeList;
+	private AggregateTreeList<Integer, Long> aggList;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(7);
+		indices = new int[QUERIES];
+		from = new int[QUERIES];
+		to = new int[QUERIES];
+		for (int i = 0; i < QUERIES; i++) {
+			indices[i] = random.nextInt(listSize);
+			from[i] = random.nextInt(listSize);
+			to[i] = from[i] + random.nextInt(listSize - from[i] + 1);
+		}
+		Integer[] values = new Integer[listSize];
+		for (int i = 0; i < listSize; i++)
+			values[i] = random.nextInt(1000);
+		treeList = TreeList.ofAll(values);
+		aggList = AggregateTreeList.ofAll(SUM, values);
+	}
+
+	@Benchmark
+	public void testPrefixSumTreeList(Blackhole blackhole) {
+		TreeList<Integer> a = treeList;
+		long[] prefix = new long[listSize + 1];
+		for (int q = 0; q < QUERIES; q++) {
+			a = a.set(indices[q], q);
+			int i = 0;
+			for (Integer v : a) {
+				prefix[i + 1] = prefix[i] + v;
+				i++;
+			}
+			blackhole.consume(prefix[to[q]] - prefix[from[q]]);
+		}
+	}
+
+	@Benchmark
+	public void testAggregateTreeList(Blackhole blackhole) {
+		AggregateTreeList<Integer, Long> a = aggList;
+		for (int q = 0; q < QUERIES; q++) {
+			a = a.set(indices[q], q);
+			blackhole.consume(a.aggregate(from[q], to[q]));
+		}
+	}
+}
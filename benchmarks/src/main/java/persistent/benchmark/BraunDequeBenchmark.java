@@ -0,0 +1,111 @@
+package persistent.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import persistent.PFullyList;
+import persistent.array.BraunList;
+import persistent.array.fully.DeTreeList;
+
+/**
+ * Compares {@link BraunList} with {@link DeTreeList} as double-ended lists,
+ * BraunList allocates one node per element and DeTreeList allocates two.
+ */
+@Warmup(iterations = 1, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 2, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class BraunDequeBenchmark {
+	private static final int OPS = 1024;
+
+	@Param({ "1000000" })
+	int listSize;
+
+	private DeTreeList<Integer> deTreeList;
+	private BraunList<Integer> braunList;
+
+	@Setup
+	public void setup() {
+		Integer[] values = new Integer[listSize];
+		for (int i = 0; i < listSize; i++)
+			values[i] = i;
+		deTreeList = DeTreeList.ofAll(values);
+		braunList = BraunList.ofAll(values);
+	}
+
+	private static void pushFront(PFullyList<Integer> a, Blackhole blackhole) {
+		for (int i = 0; i < OPS; i++)
+			a = a.pushFront(i);
+		blackhole.consume(a);
+	}
+
+	private static void popFront(PFullyList<Integer> a, Blackhole blackhole) {
+		for (int i = 0; i < OPS; i++)
+			a = a.popFront();
+		blackhole.consume(a);
+	}
+
+	private static void slide(PFullyList<Integer> a, Blackhole blackhole) {
+		for (int i = 0; i < OPS; i++)
+			a = a.pushBack(i).popFront();
+		blackhole.consume(a);
+	}
+
+	private static void randomGet(PFullyList<Integer> a, Blackhole blackhole) {
+		int n = a.size();
+		for (int i = 0, j = 0; i < OPS; i++, j = (j + 7919) % n)
+			blackhole.consume(a.get(j));
+	}
+
+	@Benchmark
+	public void testPushFrontDeTreeList(Blackhole blackhole) {
+		pushFront(deTreeList, blackhole);
+	}
+
+	@Benchmark
+	public void testPushFrontBraunList(Blackhole blackhole) {
+		pushFront(braunList, blackhole);
+	}
+
+	@Benchmark
+	public void testPopFrontDeTreeList(Blackhole blackhole) {
+		popFront(deTreeList, blackhole);
+	}
+
+	@Benchmark
+	public void testPopFrontBraunList(Blackhole blackhole) {
+		popFront(braunList, blackhole);
+	}
+
+	@Benchmark
+	public void testSlideDeTreeList(Blackhole blackhole) {
+		slide(deTreeList, blackhole);
+	}
+
+	@Benchmark
+	public void testSlideBraunList(Blackhole blackhole) {
+		slide(braunList, blackhole);
+	}
+
+	@Benchmark
+	public void testGetDeTreeList(Blackhole blackhole) {
+		randomGet(deTreeList, blackhole);
+	}
+
+	@Benchmark
+	public void testGetBraunList(Blackhole blackhole) {
+		randomGet(braunList, blackhole);
+	}
+}
@@ -0,0 +1,59 @@
+package persistent.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import persistent.PPriorityQueue;
+import persistent.priority_queue.BraunPriorityQueue;
+
+/**
+ * Pushes into and pops from a large {@link BraunPriorityQueue}, run with
+ * <tt>-prof gc</tt> to see the bytes per operation.
+ */
+@Warmup(iterations = 1, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 2, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class BraunHeapBenchmark {
+	@Param({ "1000000" })
+	int heapSize;
+
+	private PPriorityQueue<Integer> full;
+	private Integer[] values;
+	private int index;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(7);
+		values = new Integer[1024];
+		for (int i = 0; i < values.length; i++)
+			values[i] = random.nextInt();
+		full = BraunPriorityQueue.create(Integer::compare);
+		for (int i = 0; i < heapSize; i++)
+			full = full.push(random.nextInt());
+	}
+
+	@Benchmark
+	public void testPush(Blackhole blackhole) {
+		index = (index + 1) & (values.length - 1);
+		blackhole.consume(full.push(values[index]));
+	}
+
+	@Benchmark
+	public void testPop(Blackhole blackhole) {
+		blackhole.consume(full.pop());
+	}
+}
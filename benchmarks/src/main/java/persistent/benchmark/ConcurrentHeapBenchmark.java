@@ -0,0 +1,100 @@
+package persistent.benchmark;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import persistent.PPriorityQueue;
+import persistent.priority_queue.BraunPriorityQueue;
+import persistent.priority_queue.ConcurrentPersistentPriorityQueue;
+
+/**
+ * Each thread pushes one random element and polls one element,
+ * {@link ConcurrentPersistentPriorityQueue} against a single CAS root of
+ * {@link BraunPriorityQueue} and {@link PriorityBlockingQueue}. The snapshot
+ * copies the whole heap for {@link PriorityBlockingQueue}.
+ */
+@Warmup(iterations = 1, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 2, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(4)
+public class ConcurrentHeapBenchmark {
+	@Param({ "Striped", "SingleCas", "Blocking" })
+	String heap;
+
+	@Param({ "100000" })
+	int heapSize;
+
+	private ConcurrentPersistentPriorityQueue<Integer> striped;
+	private AtomicReference<PPriorityQueue<Integer>> single;
+	private PriorityBlockingQueue<Integer> blocking;
+
+	@Setup
+	public void setup() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		striped = ConcurrentPersistentPriorityQueue.create(Integer::compare, 8);
+		PPriorityQueue<Integer> q = BraunPriorityQueue.create(Integer::compare);
+		blocking = new PriorityBlockingQueue<>(heapSize, Integer::compare);
+		for (int i = 0; i < heapSize; i++) {
+			int v = random.nextInt();
+			striped.offer(v);
+			q = q.push(v);
+			blocking.offer(v);
+		}
+		single = new AtomicReference<>(q);
+	}
+
+	@Benchmark
+	public void testPushPoll(Blackhole blackhole) {
+		Integer v = ThreadLocalRandom.current().nextInt();
+		switch (heap) {
+		case "Striped":
+			striped.offer(v);
+			blackhole.consume(striped.poll());
+			break;
+		case "SingleCas":
+			PPriorityQueue<Integer> q;
+			do {
+				q = single.get();
+			} while (!single.compareAndSet(q, q.push(v)));
+			do {
+				q = single.get();
+			} while (!single.compareAndSet(q, q.pop()));
+			blackhole.consume(q.top());
+			break;
+		default:
+			blocking.offer(v);
+			blackhole.consume(blocking.poll());
+		}
+	}
+
+	@Benchmark
+	public void testSnapshot(Blackhole blackhole) {
+		switch (heap) {
+		case "Striped":
+			blackhole.consume(striped.snapshot());
+			break;
+		case "SingleCas":
+			blackhole.consume(single.get());
+			break;
+		default:
+			blackhole.consume(blocking.toArray());
+		}
+	}
+}
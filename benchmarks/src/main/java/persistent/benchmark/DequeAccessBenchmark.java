@@ -0,0 +1,84 @@
+package persistent.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import persistent.array.fully.DeTreeList;
+
+/**
+ * Accesses a {@link DeTreeList} used as a sliding window, the elements near
+ * both ends are hot.
+ */
+@Warmup(iterations = 1, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 2, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class DequeAccessBenchmark {
+	private static final int OPS = 1024;
+
+	@Param({ "1000000" })
+	int listSize;
+
+	private DeTreeList<Integer> window;
+
+	@Setup
+	public void setup() {
+		DeTreeList<Integer> a = DeTreeList.create();
+		// slide once, so the trees are in both sides of the deque
+		for (int i = 0; i < listSize + (listSize >> 1); i++) {
+			a = a.pushBack(i);
+			if (i >= listSize)
+				a = a.popFront();
+		}
+		window = a;
+	}
+
+	@Benchmark
+	public void testFrontBack(Blackhole blackhole) {
+		for (int i = 0; i < OPS; i++) {
+			blackhole.consume(window.front());
+			blackhole.consume(window.back());
+		}
+	}
+
+	@Benchmark
+	public void testGetNearFront(Blackhole blackhole) {
+		for (int i = 0; i < OPS; i++)
+			blackhole.consume(window.get(i));
+	}
+
+	@Benchmark
+	public void testGetNearBack(Blackhole blackhole) {
+		int n = window.size();
+		for (int i = 0; i < OPS; i++)
+			blackhole.consume(window.get(n - 1 - i));
+	}
+
+	@Benchmark
+	public void testSetNearBack(Blackhole blackhole) {
+		int n = window.size();
+		for (int i = 0; i < OPS; i++)
+			blackhole.consume(window.set(n - 1 - i, i));
+	}
+
+	@Benchmark
+	public void testSlide(Blackhole blackhole) {
+		DeTreeList<Integer> a = window;
+		for (int i = 0; i < OPS; i++) {
+			a = a.pushBack(i).popFront();
+			blackhole.consume(a.get(a.size() - 2));
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package persistent.benchmark;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import persistent.array.TreeList;
+
+/**
+ * Finds the changes between two versions, the newer one is derived by a few
+ * updates and appends.
+ */
+@Warmup(iterations = 1, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 2, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class DiffBenchmark {
+	@Param({ "1000000" })
+	int listSize;
+
+	@Param({ "10" })
+	int edits;
+
+	private TreeList<Integer> older;
+	private TreeList<Integer> newer;
+
+	@Setup
+	public void setup() {
+		Integer[] values = new Integer[listSize];
+		for (int i = 0; i < listSize; i++)
+			values[i] = i;
+		older = TreeList.ofAll(values);
+		newer = older;
+		for (int i = 0; i < edits; i++)
+			newer = newer.set((int) ((long) i * listSize / edits), -1).pushBack(-i);
+	}
+
+	@Benchmark
+	public void testIterateCompare(Blackhole blackhole) {
+		Iterator<Integer> itr = older.iterator();
+		Iterator<Integer> jtr = newer.iterator();
+		int index = 0;
+		while (itr.hasNext() && jtr.hasNext()) {
+			Integer x = itr.next();
+			Integer y = jtr.next();
+			if (!Objects.equals(x, y))
+				blackhole.consume(index);
+			index++;
+		}
+		while (jtr.hasNext())
+			blackhole.consume(jtr.next());
+	}
+
+	@Benchmark
+	public void testDiff(Blackhole blackhole) {
+		older.diff(newer).forEachRemaining(blackhole::consume);
+	}
+}
@@ -0,0 +1,118 @@
+package persistent.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import persistent.PPriorityQueue;
+import persistent.priority_queue.BraunPriorityQueue;
+import persistent.priority_queue.IndexedPriorityQueue;
+
+/**
+ * Dijkstra on a random sparse graph, {@link IndexedPriorityQueue} with
+ * decrease-key against {@link BraunPriorityQueue} with duplicate pushes and
+ * stale entries skipped on pop. The peak heap sizes are printed on tear down.
+ */
+@Warmup(iterations = 1, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 2, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class DijkstraBenchmark {
+	@Param({ "100000" })
+	int nodes;
+
+	@Param({ "8" })
+	int degree;
+
+	private int[][] to;
+	private int[][] weight;
+	private int peak;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(7);
+		to = new int[nodes][degree];
+		weight = new int[nodes][degree];
+		for (int i = 0; i < nodes; i++) {
+			for (int j = 0; j < degree; j++) {
+				to[i][j] = random.nextInt(nodes);
+				weight[i][j] = 1 + random.nextInt(1000);
+			}
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		System.out.printf("%npeak heap size: %d%n", peak);
+	}
+
+	@Benchmark
+	public void testDuplicatePush(Blackhole blackhole) {
+		long[] dist = new long[nodes];
+		Arrays.fill(dist, Long.MAX_VALUE);
+		dist[0] = 0;
+		PPriorityQueue<long[]> q = BraunPriorityQueue.create((a, b) -> Long.compare(a[0], b[0]));
+		q = q.push(new long[] { 0, 0 });
+		int size = 1;
+		while (!q.isEmpty()) {
+			long[] e = q.top();
+			q = q.pop();
+			int u = (int) e[1];
+			if (e[0] > dist[u])
+				continue;
+			for (int j = 0; j < degree; j++) {
+				int v = to[u][j];
+				long d = e[0] + weight[u][j];
+				if (d < dist[v]) {
+					dist[v] = d;
+					q = q.push(new long[] { d, v });
+				}
+			}
+			size = Math.max(size, q.size());
+		}
+		peak = size;
+		blackhole.consume(dist);
+	}
+
+	@Benchmark
+	public void testDecreaseKey(Blackhole blackhole) {
+		long[] dist = new long[nodes];
+		Arrays.fill(dist, Long.MAX_VALUE);
+		dist[0] = 0;
+		boolean[] done = new boolean[nodes];
+		IndexedPriorityQueue<Integer, Long> q = IndexedPriorityQueue.create(Long::compare);
+		q = q.put(0, 0L);
+		int size = 1;
+		while (!q.isEmpty()) {
+			int u = q.topKey();
+			long du = q.topPriority();
+			q = q.pop();
+			done[u] = true;
+			for (int j = 0; j < degree; j++) {
+				int v = to[u][j];
+				long d = du + weight[u][j];
+				if (!done[v] && d < dist[v]) {
+					dist[v] = d;
+					q = q.decreaseKey(v, d);
+				}
+			}
+			size = Math.max(size, q.size());
+		}
+		peak = size;
+		blackhole.consume(dist);
+	}
+}
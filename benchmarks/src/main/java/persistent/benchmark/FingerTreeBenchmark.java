@@ -0,0 +1,118 @@
+package persistent.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import persistent.PFullyList;
+import persistent.PList;
+import persistent.array.fully.DeTreeList;
+import persistent.array.fully.FingerTreeList;
+
+/**
+ * Compares {@link FingerTreeList} with {@link DeTreeList} as a deque and as a
+ * random access list.
+ */
+@Warmup(iterations = 1, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 2, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class FingerTreeBenchmark {
+	private static final int OPS = 1024;
+
+	@Param({ "1000000" })
+	int listSize;
+
+	private DeTreeList<Integer> deTreeList;
+	private FingerTreeList<Integer> fingerList;
+
+	@Setup
+	public void setup() {
+		Integer[] values = new Integer[listSize];
+		for (int i = 0; i < listSize; i++)
+			values[i] = i;
+		deTreeList = DeTreeList.ofAll(values);
+		fingerList = FingerTreeList.ofAll(values);
+	}
+
+	private static void pushPop(PFullyList<Integer> a, Blackhole blackhole) {
+		for (int i = 0; i < OPS; i++)
+			a = a.pushFront(i).pushBack(i);
+		for (int i = 0; i < OPS; i++)
+			a = a.popFront().popBack();
+		blackhole.consume(a);
+	}
+
+	private static void randomGet(PFullyList<Integer> a, Blackhole blackhole) {
+		int n = a.size();
+		for (int i = 0, j = 0; i < OPS; i++, j = (j + 7919) % n)
+			blackhole.consume(a.get(j));
+	}
+
+	private static void randomSet(PList<Integer> a, Blackhole blackhole) {
+		int n = a.size();
+		for (int i = 0, j = 0; i < OPS; i++, j = (j + 7919) % n)
+			a = a.set(j, i);
+		blackhole.consume(a);
+	}
+
+	@Benchmark
+	public void testPushPopDeTreeList(Blackhole blackhole) {
+		pushPop(deTreeList, blackhole);
+	}
+
+	@Benchmark
+	public void testPushPopFingerTreeList(Blackhole blackhole) {
+		pushPop(fingerList, blackhole);
+	}
+
+	@Benchmark
+	public void testGetDeTreeList(Blackhole blackhole) {
+		randomGet(deTreeList, blackhole);
+	}
+
+	@Benchmark
+	public void testGetFingerTreeList(Blackhole blackhole) {
+		randomGet(fingerList, blackhole);
+	}
+
+	@Benchmark
+	public void testSetDeTreeList(Blackhole blackhole) {
+		randomSet(deTreeList, blackhole);
+	}
+
+	@Benchmark
+	public void testSetFingerTreeList(Blackhole blackhole) {
+		randomSet(fingerList, blackhole);
+	}
+
+	/**
+	 * Moves the first third to the end, DeTreeList re-inserts the elements one by
+	 * one.
+	 */
+	@Benchmark
+	public void testRotateDeTreeList(Blackhole blackhole) {
+		int mid = listSize / 3;
+		PFullyList<Integer> a = deTreeList;
+		for (int i = 0; i < mid; i++)
+			a = a.pushBack(a.front()).popFront();
+		blackhole.consume(a);
+	}
+
+	@Benchmark
+	public void testRotateFingerTreeList(Blackhole blackhole) {
+		FingerTreeList.Split<Integer> s = fingerList.splitAt(listSize / 3);
+		blackhole.consume(s.right.concat(s.left));
+	}
+}
@@ -0,0 +1,72 @@
+package persistent.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import persistent.array.BraunList;
+import persistent.array.TreeList;
+
+/**
+ * Hashes and compares a new version derived by one update, the original
+ * version has been hashed before.
+ */
+@Warmup(iterations = 1, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 2, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class HashBenchmark {
+	@Param({ "1000000" })
+	int listSize;
+
+	private TreeList<Integer> treeList;
+	private BraunList<Integer> braunList;
+	private int index;
+
+	@Setup
+	public void setup() {
+		Integer[] values = new Integer[listSize];
+		for (int i = 0; i < listSize; i++)
+			values[i] = i;
+		treeList = TreeList.ofAll(values);
+		braunList = BraunList.ofAll(values);
+		treeList.hashCode();
+		braunList.hashCode();
+	}
+
+	private int nextIndex() {
+		index = (index + 7919) % listSize;
+		return index;
+	}
+
+	@Benchmark
+	public void testHashCodeTreeList(Blackhole blackhole) {
+		blackhole.consume(treeList.set(nextIndex(), -1).hashCode());
+	}
+
+	@Benchmark
+	public void testHashCodeBraunList(Blackhole blackhole) {
+		blackhole.consume(braunList.set(nextIndex(), -1).hashCode());
+	}
+
+	@Benchmark
+	public void testEqualsTreeList(Blackhole blackhole) {
+		blackhole.consume(treeList.equals(treeList.set(nextIndex(), -1)));
+	}
+
+	@Benchmark
+	public void testEqualsBraunList(Blackhole blackhole) {
+		blackhole.consume(braunList.equals(braunList.set(nextIndex(), -1)));
+	}
+}
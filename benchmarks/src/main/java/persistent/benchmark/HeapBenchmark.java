@@ -0,0 +1,143 @@
+package persistent.benchmark;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import persistent.PPriorityQueue;
+import persistent.priority_queue.BraunPriorityQueue;
+import persistent.priority_queue.LeftistPriorityQueue;
+import persistent.priority_queue.PairingPriorityQueue;
+import persistent.priority_queue.SkewBinomialPriorityQueue;
+
+/**
+ * Compares the persistent heaps with {@link java.util.PriorityQueue} under
+ * push-heavy, pop-heavy and mixed workloads. Run {@link #main(String[])} to
+ * measure the allocation with {@link GCProfiler}.
+ */
+@Warmup(iterations = 1, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 2, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class HeapBenchmark {
+	@Param({ "Braun", "Leftist", "Pairing", "SkewBinomial", "JavaUtil" })
+	String heap;
+
+	@Param({ "10000" })
+	int heapSize;
+
+	private Integer[] values;
+	private PPriorityQueue<Integer> empty;
+	private PPriorityQueue<Integer> full;
+	private PriorityQueue<Integer> javaFull;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(7);
+		values = new Integer[heapSize];
+		for (int i = 0; i < heapSize; i++)
+			values[i] = random.nextInt();
+
+		switch (heap) {
+		case "Braun":
+			empty = BraunPriorityQueue.create(Integer::compare);
+			break;
+		case "Leftist":
+			empty = LeftistPriorityQueue.create(Integer::compare);
+			break;
+		case "Pairing":
+			empty = PairingPriorityQueue.create(Integer::compare);
+			break;
+		case "SkewBinomial":
+			empty = SkewBinomialPriorityQueue.create(Integer::compare);
+			break;
+		default:
+			empty = null;
+		}
+
+		javaFull = new PriorityQueue<>(Integer::compare);
+		for (Integer v : values)
+			javaFull.add(v);
+		if (empty != null) {
+			full = empty;
+			for (Integer v : values)
+				full = full.push(v);
+		}
+	}
+
+	@Benchmark
+	public void testPushHeavy(Blackhole blackhole) {
+		if (empty == null) {
+			PriorityQueue<Integer> q = new PriorityQueue<>(Integer::compare);
+			for (Integer v : values)
+				q.add(v);
+			blackhole.consume(q);
+			return;
+		}
+		PPriorityQueue<Integer> q = empty;
+		for (Integer v : values)
+			q = q.push(v);
+		blackhole.consume(q);
+	}
+
+	/**
+	 * Drains a full heap, java.util.PriorityQueue copies the heap first.
+	 */
+	@Benchmark
+	public void testPopHeavy(Blackhole blackhole) {
+		if (empty == null) {
+			PriorityQueue<Integer> q = new PriorityQueue<>(javaFull);
+			while (!q.isEmpty())
+				blackhole.consume(q.poll());
+			return;
+		}
+		for (PPriorityQueue<Integer> q = full; !q.isEmpty(); q = q.pop())
+			blackhole.consume(q.top());
+	}
+
+	/**
+	 * Pops one element and pushes one element on a full heap, like the frontier
+	 * of Dijkstra.
+	 */
+	@Benchmark
+	public void testMixed(Blackhole blackhole) {
+		if (empty == null) {
+			PriorityQueue<Integer> q = new PriorityQueue<>(javaFull);
+			for (Integer v : values) {
+				blackhole.consume(q.poll());
+				q.add(v);
+			}
+			return;
+		}
+		PPriorityQueue<Integer> q = full;
+		for (Integer v : values) {
+			blackhole.consume(q.top());
+			q = q.pop().push(v);
+		}
+		blackhole.consume(q);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder() //
+				.include(HeapBenchmark.class.getSimpleName()) //
+				.addProfiler(GCProfiler.class) //
+				.forks(1).build()).run();
+	}
+}
@@ -0,0 +1,55 @@
+package persistent.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import persistent.PPriorityQueue;
+import persistent.priority_queue.BraunPriorityQueue;
+
+/**
+ * Builds a {@link BraunPriorityQueue} from existing data.
+ */
+@Warmup(iterations = 1, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 2, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class HeapifyBenchmark {
+	@Param({ "1000000" })
+	int heapSize;
+
+	private Integer[] values;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(7);
+		values = new Integer[heapSize];
+		for (int i = 0; i < heapSize; i++)
+			values[i] = random.nextInt();
+	}
+
+	@Benchmark
+	public void testPushAll(Blackhole blackhole) {
+		PPriorityQueue<Integer> q = BraunPriorityQueue.create(Integer::compare);
+		for (Integer v : values)
+			q = q.push(v);
+		blackhole.consume(q);
+	}
+
+	@Benchmark
+	public void testOfAll(Blackhole blackhole) {
+		blackhole.consume(BraunPriorityQueue.ofAll(values, Integer::compare));
+	}
+}
@@ -0,0 +1,118 @@
+package persistent.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import persistent.PList;
+import persistent.array.BraunList;
+import persistent.array.TreeList;
+import persistent.array.fully.DeTreeList;
+
+@Warmup(iterations = 1, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 2, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ListBenchmark {
+	@Param({ "1000000" })
+	int listSize;
+
+	private Integer[] values;
+	private TreeList<Integer> treeList;
+	private BraunList<Integer> braunList;
+
+	@Setup
+	public void setup() {
+		values = new Integer[listSize];
+		for (int i = 0; i < listSize; i++)
+			values[i] = i;
+		treeList = TreeList.ofAll(values);
+		braunList = BraunList.ofAll(values);
+	}
+
+	@Benchmark
+	public void testPushBackTreeList(Blackhole blackhole) {
+		PList<Integer> a = TreeList.create();
+		for (int i = 0; i < listSize; i++)
+			a = a.pushBack(values[i]);
+		blackhole.consume(a);
+	}
+
+	@Benchmark
+	public void testBuilderTreeList(Blackhole blackhole) {
+		TreeList.Builder<Integer> builder = TreeList.builder();
+		for (int i = 0; i < listSize; i++)
+			builder.add(values[i]);
+		blackhole.consume(builder.build());
+	}
+
+	@Benchmark
+	public void testOfAllTreeList(Blackhole blackhole) {
+		blackhole.consume(TreeList.ofAll(values));
+	}
+
+	@Benchmark
+	public void testPushBackBraunList(Blackhole blackhole) {
+		PList<Integer> a = BraunList.create();
+		for (int i = 0; i < listSize; i++)
+			a = a.pushBack(values[i]);
+		blackhole.consume(a);
+	}
+
+	@Benchmark
+	public void testOfAllBraunList(Blackhole blackhole) {
+		blackhole.consume(BraunList.ofAll(values));
+	}
+
+	@Benchmark
+	public void testPushBackDeTreeList(Blackhole blackhole) {
+		PList<Integer> a = DeTreeList.create();
+		for (int i = 0; i < listSize; i++)
+			a = a.pushBack(values[i]);
+		blackhole.consume(a);
+	}
+
+	@Benchmark
+	public void testOfAllDeTreeList(Blackhole blackhole) {
+		blackhole.consume(DeTreeList.ofAll(values));
+	}
+
+	@Benchmark
+	public void testIterateTreeList(Blackhole blackhole) {
+		for (Integer v : treeList)
+			blackhole.consume(v);
+	}
+
+	@Benchmark
+	public void testGetBraunList(Blackhole blackhole) {
+		for (int i = 0; i < listSize; i++)
+			blackhole.consume(braunList.get(i));
+	}
+
+	@Benchmark
+	public void testIterateBraunList(Blackhole blackhole) {
+		for (Integer v : braunList)
+			blackhole.consume(v);
+	}
+
+	@Benchmark
+	public void testForEachBraunList(Blackhole blackhole) {
+		braunList.forEach(blackhole::consume);
+	}
+
+	@Benchmark
+	public void testToArrayBraunList(Blackhole blackhole) {
+		blackhole.consume(braunList.toArray());
+	}
+}
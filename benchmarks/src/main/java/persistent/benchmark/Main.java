@@ -17,6 +17,25 @@ public class Main {
 
 //		options.include(QueueBenchmark.class.getSimpleName());
 		options.include(CopyBenchmark.class.getSimpleName());
+//		options.include(ListBenchmark.class.getSimpleName());
+//		options.include(PrimitiveListBenchmark.class.getSimpleName());
+//		options.include(SplitBenchmark.class.getSimpleName());
+//		options.include(AggregateBenchmark.class.getSimpleName());
+//		options.include(HashBenchmark.class.getSimpleName());
+//		options.include(DiffBenchmark.class.getSimpleName());
+//		options.include(DequeAccessBenchmark.class.getSimpleName());
+//		options.include(FingerTreeBenchmark.class.getSimpleName());
+//		options.include(BraunDequeBenchmark.class.getSimpleName());
+//		options.include(MeldBenchmark.class.getSimpleName());
+//		options.include(HeapBenchmark.class.getSimpleName());
+//		options.include(HeapifyBenchmark.class.getSimpleName());
+//		options.include(TopKBenchmark.class.getSimpleName());
+//		options.include(BraunHeapBenchmark.class.getSimpleName());
+//		options.include(MinMaxHeapBenchmark.class.getSimpleName());
+//		options.include(DijkstraBenchmark.class.getSimpleName());
+//		options.include(TimerBenchmark.class.getSimpleName());
+//		options.include(ConcurrentHeapBenchmark.class.getSimpleName());
+//		options.include(StackBenchmark.class.getSimpleName());
 
 		options.warmupTime(TimeValue.milliseconds(100)) //
 				.measurementTime(TimeValue.seconds(1)) //
@@ -0,0 +1,92 @@
+package persistent.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import persistent.PPriorityQueue;
+import persistent.priority_queue.BraunPriorityQueue;
+import persistent.priority_queue.SkewBinomialPriorityQueue;
+
+/**
+ * Merges the per-worker heaps at a barrier, and pushes into a heap.
+ */
+@Warmup(iterations = 1, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 2, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class MeldBenchmark {
+	private static final int SHARDS = 16;
+
+	@Param({ "10000" })
+	int shardSize;
+
+	private Integer[] values;
+	private PPriorityQueue<Integer>[] braunShards;
+	private PPriorityQueue<Integer>[] skewShards;
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@Setup
+	public void setup() {
+		Random random = new Random(7);
+		values = new Integer[shardSize];
+		for (int i = 0; i < shardSize; i++)
+			values[i] = random.nextInt();
+		braunShards = new PPriorityQueue[SHARDS];
+		skewShards = new PPriorityQueue[SHARDS];
+		for (int i = 0; i < SHARDS; i++) {
+			braunShards[i] = BraunPriorityQueue.<Integer>create(Integer::compare);
+			skewShards[i] = SkewBinomialPriorityQueue.<Integer>create(Integer::compare);
+			for (int j = 0; j < shardSize; j++) {
+				Integer v = random.nextInt();
+				braunShards[i] = braunShards[i].push(v);
+				skewShards[i] = skewShards[i].push(v);
+			}
+		}
+	}
+
+	private static void meldAll(PPriorityQueue<Integer>[] shards, Blackhole blackhole) {
+		PPriorityQueue<Integer> u = shards[0];
+		for (int i = 1; i < shards.length; i++)
+			u = u.meld(shards[i]);
+		blackhole.consume(u.top());
+	}
+
+	private static void pushAll(PPriorityQueue<Integer> u, Integer[] values, Blackhole blackhole) {
+		for (Integer v : values)
+			u = u.push(v);
+		blackhole.consume(u);
+	}
+
+	@Benchmark
+	public void testMeldBraunPriorityQueue(Blackhole blackhole) {
+		meldAll(braunShards, blackhole);
+	}
+
+	@Benchmark
+	public void testMeldSkewBinomialPriorityQueue(Blackhole blackhole) {
+		meldAll(skewShards, blackhole);
+	}
+
+	@Benchmark
+	public void testPushBraunPriorityQueue(Blackhole blackhole) {
+		pushAll(BraunPriorityQueue.<Integer>create(Integer::compare), values, blackhole);
+	}
+
+	@Benchmark
+	public void testPushSkewBinomialPriorityQueue(Blackhole blackhole) {
+		pushAll(SkewBinomialPriorityQueue.<Integer>create(Integer::compare), values, blackhole);
+	}
+}
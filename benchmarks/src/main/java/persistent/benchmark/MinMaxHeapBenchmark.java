@@ -0,0 +1,95 @@
+package persistent.benchmark;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import persistent.PMinMaxPriorityQueue;
+import persistent.PPriorityQueue;
+import persistent.priority_queue.BraunPriorityQueue;
+import persistent.priority_queue.IntervalPriorityQueue;
+
+/**
+ * Double-ended operations of {@link IntervalPriorityQueue} against a pair of
+ * {@link BraunPriorityQueue}, a min-heap and a max-heap, which both get every
+ * element. The interval heap pushes into the spare slot for even sizes, and
+ * inserts a pair along the right spine for odd sizes. Run with
+ * <tt>-prof gc</tt> to see the bytes per operation.
+ */
+@Warmup(iterations = 1, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 2, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class MinMaxHeapBenchmark {
+	@Param({ "1000000", "1000001" })
+	int heapSize;
+
+	private PMinMaxPriorityQueue<Integer> interval;
+	private PPriorityQueue<Integer> minHeap;
+	private PPriorityQueue<Integer> maxHeap;
+	private Integer[] values;
+	private int index;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(7);
+		values = new Integer[1024];
+		for (int i = 0; i < values.length; i++)
+			values[i] = random.nextInt();
+		interval = IntervalPriorityQueue.create(Integer::compare);
+		minHeap = BraunPriorityQueue.create(Integer::compare);
+		maxHeap = BraunPriorityQueue.create(Comparator.reverseOrder());
+		for (int i = 0; i < heapSize; i++) {
+			Integer v = random.nextInt();
+			interval = interval.push(v);
+			minHeap = minHeap.push(v);
+			maxHeap = maxHeap.push(v);
+		}
+	}
+
+	@Benchmark
+	public void testIntervalPush(Blackhole blackhole) {
+		index = (index + 1) & (values.length - 1);
+		blackhole.consume(interval.push(values[index]));
+	}
+
+	@Benchmark
+	public void testIntervalPopMin(Blackhole blackhole) {
+		blackhole.consume(interval.popMin());
+	}
+
+	@Benchmark
+	public void testIntervalPopMax(Blackhole blackhole) {
+		blackhole.consume(interval.popMax());
+	}
+
+	@Benchmark
+	public void testTwoHeapPush(Blackhole blackhole) {
+		index = (index + 1) & (values.length - 1);
+		blackhole.consume(minHeap.push(values[index]));
+		blackhole.consume(maxHeap.push(values[index]));
+	}
+
+	@Benchmark
+	public void testTwoHeapPopMin(Blackhole blackhole) {
+		blackhole.consume(minHeap.pop());
+	}
+
+	@Benchmark
+	public void testTwoHeapPopMax(Blackhole blackhole) {
+		blackhole.consume(maxHeap.pop());
+	}
+}
@@ -0,0 +1,113 @@
+package persistent.benchmark;
+
+import java.util.PrimitiveIterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import persistent.PList;
+import persistent.array.ChunkedTreeList;
+import persistent.array.IntTreeList;
+import persistent.array.TreeList;
+
+/**
+ * Boxed {@link TreeList} against the primitive {@link IntTreeList}. Run with
+ * {@link org.openjdk.jmh.profile.GCProfiler} to compare the allocation, the
+ * retained heap of n elements is about n * 40 bytes for <tt>TreeList</tt> plus
+ * the boxes, and n * 4 bytes for <tt>IntTreeList</tt>.
+ */
+@Warmup(iterations = 1, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 2, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class PrimitiveListBenchmark {
+	@Param({ "1000000" })
+	int listSize;
+
+	private PList<Integer> boxedList;
+	private PList<Integer> chunkedList;
+	private IntTreeList intList;
+
+	@Setup
+	public void setup() {
+		TreeList.Builder<Integer> builder = TreeList.builder();
+		PList<Integer> chunked = ChunkedTreeList.create();
+		IntTreeList ints = IntTreeList.create();
+		for (int i = 0; i < listSize; i++) {
+			builder.add(i);
+			chunked = chunked.pushBack(i);
+			ints = ints.pushBack(i);
+		}
+		boxedList = builder.build();
+		chunkedList = chunked;
+		intList = ints;
+	}
+
+	@Benchmark
+	public void testPushBackBoxed(Blackhole blackhole) {
+		PList<Integer> a = TreeList.create();
+		for (int i = 0; i < listSize; i++)
+			a = a.pushBack(i);
+		blackhole.consume(a);
+	}
+
+	@Benchmark
+	public void testPushBackPrimitive(Blackhole blackhole) {
+		IntTreeList a = IntTreeList.create();
+		for (int i = 0; i < listSize; i++)
+			a = a.pushBack(i);
+		blackhole.consume(a);
+	}
+
+	@Benchmark
+	public long testSumBoxed() {
+		long sum = 0;
+		for (Integer v : boxedList)
+			sum += v;
+		return sum;
+	}
+
+	@Benchmark
+	public long testSumChunked() {
+		long sum = 0;
+		for (Integer v : chunkedList)
+			sum += v;
+		return sum;
+	}
+
+	@Benchmark
+	public long testSumPrimitive() {
+		long sum = 0;
+		PrimitiveIterator.OfInt itr = intList.iterator();
+		while (itr.hasNext())
+			sum += itr.nextInt();
+		return sum;
+	}
+
+	@Benchmark
+	public long testGetBoxed() {
+		long sum = 0;
+		for (int i = 0; i < listSize; i++)
+			sum += boxedList.get(i);
+		return sum;
+	}
+
+	@Benchmark
+	public long testGetPrimitive() {
+		long sum = 0;
+		for (int i = 0; i < listSize; i++)
+			sum += intList.getInt(i);
+		return sum;
+	}
+}
@@ -0,0 +1,71 @@
+package persistent.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import persistent.PList;
+import persistent.array.TreeList;
+import persistent.array.fully.AVLTreeList;
+
+@Warmup(iterations = 1, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 2, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SplitBenchmark {
+	@Param({ "1000000" })
+	int listSize;
+
+	private TreeList<Integer> treeList;
+	private AVLTreeList<Integer> avlList;
+
+	@Setup
+	public void setup() {
+		Integer[] values = new Integer[listSize];
+		for (int i = 0; i < listSize; i++)
+			values[i] = i;
+		treeList = TreeList.ofAll(values);
+		avlList = AVLTreeList.ofAll(values);
+	}
+
+	/**
+	 * Moves the first third to the end, re-inserting the elements one by one.
+	 */
+	@Benchmark
+	public void testRotateTreeList(Blackhole blackhole) {
+		int mid = listSize / 3;
+		PList<Integer> a = TreeList.create();
+		for (int i = mid; i < listSize; i++)
+			a = a.pushBack(treeList.get(i));
+		for (int i = 0; i < mid; i++)
+			a = a.pushBack(treeList.get(i));
+		blackhole.consume(a);
+	}
+
+	@Benchmark
+	public void testRotateAVLTreeList(Blackhole blackhole) {
+		AVLTreeList.Split<Integer> s = avlList.splitAt(listSize / 3);
+		blackhole.consume(s.right.concat(s.left));
+	}
+
+	@Benchmark
+	public void testSubListAVLTreeList(Blackhole blackhole) {
+		blackhole.consume(avlList.subList(listSize / 3, listSize - listSize / 5));
+	}
+
+	@Benchmark
+	public void testInsertAVLTreeList(Blackhole blackhole) {
+		blackhole.consume(avlList.insert(listSize >>> 1, -1));
+	}
+}
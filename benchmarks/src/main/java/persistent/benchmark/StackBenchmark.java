@@ -0,0 +1,88 @@
+package persistent.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import persistent.PStack;
+import persistent.stack.PersistStack;
+import persistent.stack.UnrolledStack;
+
+/**
+ * Builds, iterates and drains a large stack, and replaces its top,
+ * {@link UnrolledStack} against {@link PersistStack}. Run with
+ * <tt>-prof gc</tt> to see the bytes per operation.
+ */
+@Warmup(iterations = 1, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 2, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class StackBenchmark {
+	@Param({ "Persist", "Unrolled" })
+	String stack;
+
+	@Param({ "1000000" })
+	int stackSize;
+
+	private PStack<Integer> empty;
+	private PStack<Integer> full;
+	private Integer[] values;
+
+	@Setup
+	public void setup() {
+		values = new Integer[stackSize];
+		for (int i = 0; i < stackSize; i++)
+			values[i] = i;
+		empty = "Unrolled".equals(stack) ? UnrolledStack.create() : PersistStack.create();
+		full = empty;
+		for (Integer v : values)
+			full = full.push(v);
+	}
+
+	@Benchmark
+	public void testPush(Blackhole blackhole) {
+		PStack<Integer> stk = empty;
+		for (Integer v : values)
+			stk = stk.push(v);
+		blackhole.consume(stk);
+	}
+
+	@Benchmark
+	public void testIterate(Blackhole blackhole) {
+		for (Integer v : full)
+			blackhole.consume(v);
+	}
+
+	@Benchmark
+	public void testPop(Blackhole blackhole) {
+		for (PStack<Integer> stk = full; !stk.isEmpty(); stk = stk.pop())
+			blackhole.consume(stk.top());
+	}
+
+	@Benchmark
+	public void testReplaceTop(Blackhole blackhole) {
+		PStack<Integer> stk = full;
+		for (Integer v : values)
+			stk = stk.pop().push(v);
+		blackhole.consume(stk);
+	}
+
+	@Benchmark
+	public void testPopPushSame(Blackhole blackhole) {
+		PStack<Integer> stk = full;
+		for (int i = 0; i < stackSize; i++)
+			stk = stk.pop().push(stk.top());
+		blackhole.consume(stk);
+	}
+}
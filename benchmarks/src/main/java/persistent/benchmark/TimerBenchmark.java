@@ -0,0 +1,95 @@
+package persistent.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import persistent.PPriorityQueue;
+import persistent.priority_queue.BraunPriorityQueue;
+import persistent.priority_queue.LongPriorityQueue;
+
+/**
+ * Timer deadlines in {@link LongPriorityQueue} against
+ * {@link BraunPriorityQueue} of boxed {@link Long}. The expiry removes the
+ * deadlines of the earliest 1% timers. Run with <tt>-prof gc</tt> to see the
+ * bytes per operation.
+ */
+@Warmup(iterations = 1, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 2, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class TimerBenchmark {
+	@Param({ "1000000" })
+	int heapSize;
+
+	private LongPriorityQueue<Object> timers;
+	private PPriorityQueue<Long> boxed;
+	private long[] deadlines;
+	private long expiry;
+	private int index;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(7);
+		deadlines = new long[1024];
+		for (int i = 0; i < deadlines.length; i++)
+			deadlines[i] = random.nextInt(1 << 30);
+		timers = LongPriorityQueue.create();
+		boxed = BraunPriorityQueue.create(Long::compare);
+		for (int i = 0; i < heapSize; i++) {
+			long d = random.nextInt(1 << 30);
+			timers = timers.push(d);
+			boxed = boxed.push(d);
+		}
+		expiry = (1 << 30) / 100;
+	}
+
+	@Benchmark
+	public void testLongPush(Blackhole blackhole) {
+		index = (index + 1) & (deadlines.length - 1);
+		blackhole.consume(timers.push(deadlines[index]));
+	}
+
+	@Benchmark
+	public void testLongPop(Blackhole blackhole) {
+		blackhole.consume(timers.pop());
+	}
+
+	@Benchmark
+	public void testLongExpire(Blackhole blackhole) {
+		blackhole.consume(timers.popUntil(expiry, (v, k) -> blackhole.consume(k)));
+	}
+
+	@Benchmark
+	public void testBoxedPush(Blackhole blackhole) {
+		index = (index + 1) & (deadlines.length - 1);
+		blackhole.consume(boxed.push(deadlines[index]));
+	}
+
+	@Benchmark
+	public void testBoxedPop(Blackhole blackhole) {
+		blackhole.consume(boxed.pop());
+	}
+
+	@Benchmark
+	public void testBoxedExpire(Blackhole blackhole) {
+		PPriorityQueue<Long> q = boxed;
+		while (!q.isEmpty() && q.top() <= expiry) {
+			blackhole.consume(q.top());
+			q = q.pop();
+		}
+		blackhole.consume(q);
+	}
+}
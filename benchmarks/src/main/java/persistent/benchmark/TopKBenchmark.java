@@ -0,0 +1,80 @@
+package persistent.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import persistent.PPriorityQueue;
+import persistent.priority_queue.BraunPriorityQueue;
+import persistent.priority_queue.LeftistPriorityQueue;
+import persistent.priority_queue.PairingPriorityQueue;
+import persistent.priority_queue.SkewBinomialPriorityQueue;
+
+/**
+ * Reads the top k elements of a large heap, by k pops or by
+ * {@link PPriorityQueue#topK(int)}.
+ */
+@Warmup(iterations = 1, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 2, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class TopKBenchmark {
+	@Param({ "Braun", "Leftist", "Pairing", "SkewBinomial" })
+	String heap;
+
+	@Param({ "1000000" })
+	int heapSize;
+
+	@Param({ "100" })
+	int k;
+
+	private PPriorityQueue<Integer> full;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(7);
+		switch (heap) {
+		case "Braun":
+			full = BraunPriorityQueue.create(Integer::compare);
+			break;
+		case "Leftist":
+			full = LeftistPriorityQueue.create(Integer::compare);
+			break;
+		case "Pairing":
+			full = PairingPriorityQueue.create(Integer::compare);
+			break;
+		default:
+			full = SkewBinomialPriorityQueue.create(Integer::compare);
+		}
+		for (int i = 0; i < heapSize; i++)
+			full = full.push(random.nextInt());
+		// settles the lazy structure of pairing heaps, as a long-lived heap does
+		full = full.pop();
+	}
+
+	@Benchmark
+	public void testPop(Blackhole blackhole) {
+		PPriorityQueue<Integer> q = full;
+		for (int i = 0; i < k; i++) {
+			blackhole.consume(q.top());
+			q = q.pop();
+		}
+	}
+
+	@Benchmark
+	public void testTopK(Blackhole blackhole) {
+		blackhole.consume(full.topK(k));
+	}
+}
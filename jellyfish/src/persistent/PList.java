@@ -3,6 +3,7 @@ package persistent;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.function.IntFunction;
 
 import persistent.array.TreeList;
 
@@ -52,6 +53,58 @@ public abstract class PList<T> implements Iterable<T> {
 	 */
 	public abstract PList<T> set(int index, T value);
 
+	/**
+	 * Replaces the elements at the specified positions in this list with the
+	 * specified elements in one step. If an index appears more than once, the
+	 * last value wins.
+	 * 
+	 * <p>
+	 * By default, it calls {@link #set(int, Object)} for each update.
+	 * </p>
+	 * 
+	 * @param indices indices of the elements to replace
+	 * @param values  elements to be stored at the specified positions
+	 * @return the new array contains the specified elements and remaining
+	 *         elements.
+	 * @throws IllegalArgumentException  if the lengths of the arrays are
+	 *                                   different
+	 * @throws IndexOutOfBoundsException if any index is out of range
+	 *                                   (<tt>index &lt; 0 || index &gt;= size()</tt>)
+	 */
+	public PList<T> setAll(int[] indices, T[] values) {
+		if (indices.length != values.length)
+			throw new IllegalArgumentException();
+		PList<T> u = this;
+		for (int i = 0; i < indices.length; i++)
+			u = u.set(indices[i], values[i]);
+		return u;
+	}
+
+	/**
+	 * Replaces each element in the range <tt>[from, to)</tt> with the result of
+	 * the generator applied to its index, see {@link #setAll(int[], Object[])}.
+	 * 
+	 * @param from      the first index to replace, inclusive
+	 * @param to        the last index to replace, exclusive
+	 * @param generator a function produces the new element of an index
+	 * @return the new array contains the generated elements and remaining
+	 *         elements.
+	 * @throws IndexOutOfBoundsException if the range is out of range
+	 *                                   (<tt>from &lt; 0 || to &gt; size() || from &gt; to</tt>)
+	 */
+	public PList<T> setAll(int from, int to, IntFunction<? extends T> generator) {
+		if (from < 0 || to > size() || from > to)
+			throw new IndexOutOfBoundsException();
+		int[] indices = new int[to - from];
+		@SuppressWarnings("unchecked")
+		T[] values = (T[]) new Object[to - from];
+		for (int i = from; i < to; i++) {
+			indices[i - from] = i;
+			values[i - from] = generator.apply(i);
+		}
+		return setAll(indices, values);
+	}
+
 	/**
 	 * Appends the specified element to the end of this list.
 	 * 
@@ -78,6 +131,38 @@ public abstract class PList<T> implements Iterable<T> {
 		return new ListIterator<>(this);
 	}
 
+	/**
+	 * Returns an array containing all of the elements in this list from index 0
+	 * to size.
+	 * 
+	 * @return an array containing all of the elements in this list.
+	 */
+	@SuppressWarnings("unchecked")
+	public Object[] toArray() {
+		return copyInto((T[]) new Object[size()]);
+	}
+
+	/**
+	 * Copies all of the elements in this list into the beginning of the specified
+	 * array, in order from index 0 to size.
+	 * 
+	 * <p>
+	 * By default, it iterates this list.
+	 * </p>
+	 * 
+	 * @param dest the array into which the elements are to be stored
+	 * @return the specified array.
+	 * @throws IndexOutOfBoundsException if the array is shorter than this list
+	 */
+	public T[] copyInto(T[] dest) {
+		if (dest.length < size())
+			throw new IndexOutOfBoundsException();
+		int i = 0;
+		for (T e : this)
+			dest[i++] = e;
+		return dest;
+	}
+
 	/**
 	 * For example, <tt>{size=4, [3, 1, 4, 1]}</tt>
 	 * 
@@ -118,13 +203,20 @@ public abstract class PList<T> implements Iterable<T> {
 	}
 
 	/**
-	 * {@inheritDoc}
+	 * Returns the hash code of this list, the same as
+	 * {@link java.util.List#hashCode()}.
+	 * 
+	 * <pre>
+	 * int hash = 1;
+	 * for (T e : list)
+	 * 	hash = 31 * hash + (e == null ? 0 : e.hashCode());
+	 * </pre>
 	 */
 	@Override
 	public int hashCode() {
-		int hash = 0;
+		int hash = 1;
 		for (T e : this)
-			hash = Objects.hash(hash, e);
+			hash = 31 * hash + Objects.hashCode(e);
 		return hash;
 	}
 
@@ -0,0 +1,56 @@
+package persistent;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Double-ended priority queue, different from {@link PPriorityQueue} which
+ * gives the minimum only. The top of priority queue is the minimum.
+ * 
+ * @author morrisy
+ *
+ * @param <T> the type of elements held in this collection
+ */
+public abstract class PMinMaxPriorityQueue<T> extends PPriorityQueue<T> {
+	/**
+	 * Returns the minimum element.
+	 * 
+	 * @return the minimum element, or null if this priority queue is empty.
+	 */
+	public abstract T min();
+
+	/**
+	 * Returns the maximum element.
+	 * 
+	 * @return the maximum element, or null if this priority queue is empty.
+	 */
+	public abstract T max();
+
+	/**
+	 * Removes the minimum element.
+	 * 
+	 * @return the new priority queue, which removes the minimum element.
+	 * @throws NoSuchElementException if this priority queue is empty.
+	 */
+	public abstract PMinMaxPriorityQueue<T> popMin();
+
+	/**
+	 * Removes the maximum element.
+	 * 
+	 * @return the new priority queue, which removes the maximum element.
+	 * @throws NoSuchElementException if this priority queue is empty.
+	 */
+	public abstract PMinMaxPriorityQueue<T> popMax();
+
+	@Override
+	public abstract PMinMaxPriorityQueue<T> push(T value);
+
+	@Override
+	public T top() {
+		return min();
+	}
+
+	@Override
+	public PMinMaxPriorityQueue<T> pop() {
+		return popMin();
+	}
+}
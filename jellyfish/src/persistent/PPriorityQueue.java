@@ -1,13 +1,155 @@
 package persistent;
 
-public abstract class PPriorityQueue<T> {
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import persistent.util.PCollections;
+
+public abstract class PPriorityQueue<T> implements Iterable<T> {
 	public abstract boolean isEmpty();
 
 	public abstract int size();
 
+	/**
+	 * Returns the minimum element.
+	 * 
+	 * @return the minimum element, or null if this priority queue is empty.
+	 */
 	public abstract T top();
 
 	public abstract PPriorityQueue<T> push(T value);
 
+	/**
+	 * Removes the minimum element.
+	 * 
+	 * @return the new priority queue, which removes the minimum element.
+	 * @throws NoSuchElementException if this priority queue is empty.
+	 */
 	public abstract PPriorityQueue<T> pop();
+
+	/**
+	 * Returns the union of this priority queue and the specified priority queue.
+	 * Both priority queues must be ordered by the same comparator, the result
+	 * uses the comparator of this priority queue.
+	 * 
+	 * <p>
+	 * The default implementation pops the elements of the specified priority
+	 * queue and pushes them into this one, O(m log m + m log (n + m)) time.
+	 * Implementations with a faster merge override it.
+	 * </p>
+	 * 
+	 * @param other the priority queue to be merged
+	 * @return the new priority queue, which contains the elements of both.
+	 */
+	public PPriorityQueue<T> meld(PPriorityQueue<? extends T> other) {
+		PPriorityQueue<T> u = this;
+		for (PPriorityQueue<? extends T> v = other; !v.isEmpty(); v = v.pop())
+			u = u.push(v.top());
+		return u;
+	}
+
+	/**
+	 * Returns an iterator over the elements in this priority queue in
+	 * unspecified order.
+	 * 
+	 * <p>
+	 * The default implementation is {@link #sortedIterator()}, implementations
+	 * override it with an O(n) traversal.
+	 * </p>
+	 * 
+	 * @return an iterator over the elements in this priority queue.
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return sortedIterator();
+	}
+
+	/**
+	 * Returns an iterator over the elements in this priority queue from top to
+	 * bottom, the elements are extracted lazily.
+	 * 
+	 * <p>
+	 * The default implementation pops the elements one by one. Heap-ordered
+	 * implementations override it with a frontier of the subheaps whose roots
+	 * are not visited yet, so the first k elements take O(k log k) time and
+	 * nothing is rebuilt.
+	 * </p>
+	 * 
+	 * @return an iterator over the elements in this priority queue from top to
+	 *         bottom.
+	 */
+	public Iterator<T> sortedIterator() {
+		return new PriorityQueueIterator<>(this);
+	}
+
+	static class PriorityQueueIterator<T> implements Iterator<T> {
+		private PPriorityQueue<T> current;
+
+		public PriorityQueueIterator(PPriorityQueue<T> topmost) {
+			current = topmost;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !current.isEmpty();
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			T val = current.top();
+			current = current.pop();
+			return val;
+		}
+	}
+
+	/**
+	 * Returns the first k elements from top to bottom, see
+	 * {@link #sortedIterator()}.
+	 * 
+	 * @param k the number of elements
+	 * @return the list of the first <tt>min(k, size())</tt> elements from top to
+	 *         bottom.
+	 * @throws IllegalArgumentException if k is negative
+	 */
+	public PList<T> topK(int k) {
+		if (k < 0)
+			throw new IllegalArgumentException();
+		PList<T> list = PCollections.emptyList();
+		Iterator<T> itr = sortedIterator();
+		for (int i = Math.min(k, size()); i > 0; i--)
+			list = list.pushBack(itr.next());
+		return list;
+	}
+
+	/**
+	 * Returns all elements from top to bottom, see {@link #sortedIterator()}.
+	 * 
+	 * @return the list of the elements from top to bottom.
+	 */
+	public PList<T> drainSorted() {
+		return topK(size());
+	}
+
+	/**
+	 * For example, <tt>{size=4, [1, 1, 3, 4]}</tt>, the order of elements is the
+	 * order of {@link #iterator()}.
+	 * 
+	 * @return The content representation.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		sb.append("size=" + size() + ", [");
+		boolean first = true;
+		for (T e : this) {
+			if (!first)
+				sb.append(", ");
+			sb.append(e);
+			first = false;
+		}
+		sb.append("]}");
+		return sb.toString();
+	}
 }
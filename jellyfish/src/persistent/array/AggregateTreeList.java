@@ -0,0 +1,358 @@
+package persistent.array;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import persistent.PList;
+import persistent.PStack;
+import persistent.array.TreeList.DataNode;
+import persistent.array.TreeList.Node;
+import persistent.util.Monoid;
+import persistent.util.PCollections;
+
+/**
+ * {@link TreeList} annotated with a {@link Monoid}.
+ *
+ * <p>
+ * Each internal node caches the aggregate of its leaves, so the aggregate of
+ * any range is combined from O(log n) cached values, like a segment tree. The
+ * perfect trees of the leftist leaf tree are exactly the aligned blocks of the
+ * binary decomposition, and the aggregates are maintained on the copied paths
+ * of {@link #pushBack(Object)}, {@link #popBack()} and
+ * {@link #set(int, Object)}. All versions keep their own aggregates.
+ * </p>
+ *
+ * <p>
+ * The time complexity of each operation is O(log n) combines.
+ * </p>
+ *
+ * @author morrisy
+ *
+ * @param <T> The type of elements held in this collection
+ * @param <A> The type of aggregate
+ */
+public class AggregateTreeList<T, A> extends PList<T> {
+	/**
+	 * Returns an empty list.
+	 *
+	 * @param <T>    The type of elements held in this collection
+	 * @param <A>    The type of aggregate
+	 * @param monoid the aggregate of elements
+	 * @return An empty list.
+	 */
+	public static <T, A> AggregateTreeList<T, A> create(Monoid<T, A> monoid) {
+		return new AggregateTreeList<>(monoid, PCollections.emptyStack(), 0);
+	}
+
+	/**
+	 * Returns a list contains the specified elements in O(n) time.
+	 *
+	 * @param <T>    The type of elements held in this collection
+	 * @param <A>    The type of aggregate
+	 * @param monoid the aggregate of elements
+	 * @param values the elements of the list
+	 * @return A list contains the specified elements.
+	 */
+	public static <T, A> AggregateTreeList<T, A> ofAll(Monoid<T, A> monoid, T[] values) {
+		return ofAll(monoid, Arrays.asList(values).iterator(), values.length);
+	}
+
+	/**
+	 * Returns a list contains the first <tt>size</tt> elements of the specified
+	 * iterator in O(n) time, see {@link TreeList#ofAll(Iterator, int)}.
+	 *
+	 * @param <T>    The type of elements held in this collection
+	 * @param <A>    The type of aggregate
+	 * @param monoid the aggregate of elements
+	 * @param itr    the elements of the list
+	 * @param size   the number of elements to be taken
+	 * @return A list contains the specified elements.
+	 * @throws IllegalArgumentException if the size is negative
+	 * @throws NoSuchElementException   if the iterator has less than
+	 *                                  <tt>size</tt> elements
+	 */
+	public static <T, A> AggregateTreeList<T, A> ofAll(Monoid<T, A> monoid, Iterator<? extends T> itr, int size) {
+		if (size < 0)
+			throw new IllegalArgumentException();
+
+		AggregateTreeList<T, A> list = create(monoid);
+		PStack<Node<T>> u = list.rNodes;
+		for (int i = 31; i >= 0; i--) {
+			if (((size >>> i) & 1) != 0)
+				u = u.push(list.buildTree(itr, 1 << i));
+		}
+		return new AggregateTreeList<>(monoid, u, size);
+	}
+
+	/**
+	 * Helper function: builds a perfect tree from the specified iterator.
+	 */
+	private Node<T> buildTree(Iterator<? extends T> itr, int size) {
+		if (size == 1)
+			return new DataNode<>(itr.next());
+		Node<T> l = buildTree(itr, size >> 1);
+		Node<T> r = buildTree(itr, size >> 1);
+		return node(l, r);
+	}
+
+	/** The aggregate of elements. */
+	private final Monoid<T, A> monoid;
+	/** Pointer to tree root node, the smallest (last) tree is at the top. */
+	private final PStack<Node<T>> rNodes;
+	/** The number of elements in this list, leftist leaf tree */
+	private final int size;
+
+	private AggregateTreeList(Monoid<T, A> monoid, PStack<Node<T>> rNodes, int size) {
+		this.monoid = monoid;
+		this.rNodes = rNodes;
+		this.size = size;
+		assert rNodes.size() < 32;
+	}
+
+	/**
+	 * Internal node with the cached aggregate of its leaves, the leaves are
+	 * {@link DataNode}s.
+	 */
+	static final class AggregateNode<T, A> implements Node<T> {
+		final Node<T> lson;
+		final Node<T> rson;
+		final A agg;
+
+		AggregateNode(Node<T> l, Node<T> r, A agg) {
+			this.lson = l;
+			this.rson = r;
+			this.agg = agg;
+		}
+	}
+
+	private AggregateNode<T, A> node(Node<T> l, Node<T> r) {
+		return new AggregateNode<>(l, r, monoid.combine(agg(l), agg(r)));
+	}
+
+	@SuppressWarnings("unchecked")
+	private A agg(Node<T> u) {
+		if (u instanceof DataNode)
+			return monoid.lift(((DataNode<T>) u).val);
+		return ((AggregateNode<T, A>) u).agg;
+	}
+
+	/**
+	 * Returns the monoid of this list.
+	 *
+	 * @return the aggregate of elements.
+	 */
+	public Monoid<T, A> monoid() {
+		return monoid;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the aggregate of all elements in O(log n) time.
+	 *
+	 * @return the aggregate of all elements, or the identity if empty.
+	 */
+	public A aggregate() {
+		return aggregate(0, size);
+	}
+
+	/**
+	 * Returns the aggregate of the elements in the range <tt>[from, to)</tt> in
+	 * O(log n) time.
+	 *
+	 * @param from low endpoint (inclusive) of the range
+	 * @param to   high endpoint (exclusive) of the range
+	 * @return the aggregate of the elements in range, or the identity if the
+	 *         range is empty.
+	 * @throws IndexOutOfBoundsException if the range is out of range
+	 *                                   (<tt>from &lt; 0 || to &gt; size() || from &gt; to</tt>)
+	 */
+	public A aggregate(int from, int to) {
+		if (from < 0 || to > size || from > to)
+			throw new IndexOutOfBoundsException();
+
+		A res = monoid.identity();
+		if (from == to)
+			return res;
+
+		// the trees are visited from right to left
+		PStack<Node<T>> u = rNodes;
+		int tail = size;
+		while (tail > from) {
+			int b = tail & (-tail);
+			int start = tail - b;
+			if (start < to) {
+				A part = aggregate(u.top(), b, Math.max(from, start) - start, Math.min(to, tail) - start);
+				res = to <= tail ? part : monoid.combine(part, res);
+			}
+			tail = start;
+			u = u.pop();
+		}
+		return res;
+	}
+
+	/**
+	 * Helper function: the aggregate of the range <tt>[lo, hi)</tt> in the tree,
+	 * the range must not be empty.
+	 *
+	 * @param u    tree root
+	 * @param size tree size
+	 * @param lo   low endpoint (inclusive) of the range
+	 * @param hi   high endpoint (exclusive) of the range
+	 * @return the aggregate of range
+	 */
+	@SuppressWarnings("unchecked")
+	private A aggregate(Node<T> u, int size, int lo, int hi) {
+		if (lo == 0 && hi == size)
+			return agg(u);
+
+		AggregateNode<T, A> an = (AggregateNode<T, A>) u;
+		int half = size >> 1;
+		if (hi <= half)
+			return aggregate(an.lson, half, lo, hi);
+		if (lo >= half)
+			return aggregate(an.rson, half, lo - half, hi - half);
+		return monoid.combine(aggregate(an.lson, half, lo, half), aggregate(an.rson, half, 0, hi - half));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T get(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException();
+
+		PStack<Node<T>> u = rNodes;
+		int tail = size;
+		while (index < tail - (tail & (-tail))) {
+			tail &= tail - 1;
+			u = u.pop();
+		}
+
+		Node<T> v = u.top();
+		int b = tail & (-tail);
+		index -= tail - b;
+		for (int half = b >> 1; half > 0; half >>= 1) {
+			AggregateNode<T, A> an = (AggregateNode<T, A>) v;
+			if (index < half) {
+				v = an.lson;
+			} else {
+				v = an.rson;
+				index -= half;
+			}
+		}
+		return ((DataNode<T>) v).val;
+	}
+
+	@Override
+	public AggregateTreeList<T, A> set(int index, T value) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException();
+
+		return new AggregateTreeList<>(monoid, setValue(rNodes, size, index, value), size);
+	}
+
+	/**
+	 * Helper function: replaces the element at the tree stack.
+	 */
+	private PStack<Node<T>> setValue(PStack<Node<T>> u, int size, int index, T value) {
+		Node<T> v = u.top();
+		int b = size & (-size);
+		if (index >= size - b)
+			return u.pop().push(setValue(v, b >> 1, b - (size - index), value));
+		return setValue(u.pop(), size - b, index, value).push(v);
+	}
+
+	/**
+	 * Helper function: replaces the element in the tree, and recomputes the
+	 * aggregates on the path.
+	 */
+	@SuppressWarnings("unchecked")
+	private Node<T> setValue(Node<T> u, int half, int index, T value) {
+		if (u instanceof DataNode)
+			return new DataNode<>(value);
+
+		AggregateNode<T, A> an = (AggregateNode<T, A>) u;
+		if (index < half)
+			return node(setValue(an.lson, half >> 1, index, value), an.rson);
+		return node(an.lson, setValue(an.rson, half >> 1, index - half, value));
+	}
+
+	@Override
+	public AggregateTreeList<T, A> pushBack(T value) {
+		Node<T> data = new DataNode<>(value);
+		PStack<Node<T>> u = rNodes;
+		for (int i = 0; ((size >> i) & 1) != 0; i++) {
+			data = node(u.top(), data);
+			u = u.pop();
+		}
+		return new AggregateTreeList<>(monoid, u.push(data), size + 1);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public AggregateTreeList<T, A> popBack() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+
+		PStack<Node<T>> v = rNodes.pop();
+		Node<T> r = rNodes.top();
+		for (int i = 0; ((size >> i) & 1) == 0; i++) {
+			AggregateNode<T, A> an = (AggregateNode<T, A>) r;
+			v = v.push(an.lson);
+			r = an.rson;
+		}
+		return new AggregateTreeList<>(monoid, v, size - 1);
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new AggregateNodeIterator<>(rNodes);
+	}
+
+	/**
+	 * Iterates the leaves from left to right with a preallocated stack, see
+	 * {@link TreeList.NodeIterator}.
+	 */
+	private static class AggregateNodeIterator<T> implements Iterator<T> {
+		/** The maximum height of a tree */
+		private static final int MAX_DEPTH = 32;
+
+		private final Node<T>[] stk;
+		private int top;
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		AggregateNodeIterator(PStack<Node<T>> rNodes) {
+			stk = new Node[rNodes.size() + MAX_DEPTH];
+			for (Node<T> u : rNodes)
+				stk[top++] = u;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return top > 0;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public T next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			Node<T> u = stk[--top];
+			while (u instanceof AggregateNode) {
+				AggregateNode<T, ?> an = (AggregateNode<T, ?>) u;
+				stk[top++] = an.rson;
+				u = an.lson;
+			}
+			return ((DataNode<T>) u).val;
+		}
+	}
+}
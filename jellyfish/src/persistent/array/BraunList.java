@@ -1,6 +1,13 @@
 package persistent.array;
 
-import persistent.PList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import persistent.PFullyList;
+import persistent.util.SortedUpdates;
 
 /**
  * Braun tree
@@ -9,7 +16,7 @@ import persistent.PList;
  *
  * @param <T> The type of elements held in this collection
  */
-public class BraunList<T> extends PList<T> {
+public class BraunList<T> extends PFullyList<T> {
 	@SuppressWarnings("rawtypes")
 	/** The empty list. */
 	private static final BraunList<?> EMPTY = new BraunList();
@@ -25,6 +32,70 @@ public class BraunList<T> extends PList<T> {
 		return (BraunList<T>) EMPTY;
 	}
 
+	/**
+	 * Returns a list contains the specified elements in O(n) time.
+	 * 
+	 * @param <T>    The type of elements held in this collection
+	 * @param values the elements of the list
+	 * @return A list contains the specified elements.
+	 */
+	public static <T> BraunList<T> ofAll(T[] values) {
+		if (values.length == 0)
+			return create();
+		return new BraunList<>(build(values, values.length, 1, 0), values.length);
+	}
+
+	/**
+	 * Returns a list contains the elements of the specified collection in
+	 * iteration order in O(n) time.
+	 * 
+	 * @param <T>    The type of elements held in this collection
+	 * @param values the elements of the list
+	 * @return A list contains the specified elements.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> BraunList<T> ofAll(Collection<? extends T> values) {
+		return ofAll((T[]) values.toArray());
+	}
+
+	/**
+	 * Returns a list contains the first <tt>size</tt> elements of the specified
+	 * iterator in O(n) time.
+	 * 
+	 * @param <T>  The type of elements held in this collection
+	 * @param itr  the elements of the list
+	 * @param size the number of elements to be taken
+	 * @return A list contains the specified elements.
+	 * @throws IllegalArgumentException if the size is negative
+	 * @throws NoSuchElementException   if the iterator has less than
+	 *                                  <tt>size</tt> elements
+	 */
+	public static <T> BraunList<T> ofAll(Iterator<? extends T> itr, int size) {
+		if (size < 0)
+			throw new IllegalArgumentException();
+		@SuppressWarnings("unchecked")
+		T[] values = (T[]) new Object[size];
+		for (int i = 0; i < size; i++)
+			values[i] = itr.next();
+		return ofAll(values);
+	}
+
+	/**
+	 * Helper function: builds the subtree whose i-th node (1-indexed) holds
+	 * <tt>values[a * i + b - 1]</tt>.
+	 * 
+	 * <p>
+	 * The left subtree keeps the even positions and the right subtree keeps the
+	 * odd positions, so the children are <tt>(2a, b)</tt> and
+	 * <tt>(2a, a + b)</tt>.
+	 * </p>
+	 */
+	private static <T> Node<T> build(T[] values, int n, long a, long b) {
+		if (a + b > n)
+			return null;
+		return new Node<>(build(values, n, a << 1, b), build(values, n, a << 1, a + b), values[(int) (a + b - 1)]);
+	}
+
 	private final int size;
 	private final Node<T> root;
 
@@ -68,58 +139,362 @@ public class BraunList<T> extends PList<T> {
 	}
 
 	@Override
-	public PList<T> set(int index, T value) {
+	public BraunList<T> set(int index, T value) {
 		if (index < 0 || index >= size)
 			throw new IndexOutOfBoundsException();
-		return new BraunList<>(set(index + 1, value, root), size);
+		final int pos = index + 1;
+		Node<T>[] path = path(root, pos);
+		Node<T> u = child(path, pos, root);
+		return new BraunList<>(rebuild(path, pos, new Node<>(u.lson, u.rson, value)), size);
 	}
 
-	private Node<T> set(int index, T value, Node<T> u) {
-		if (index == 1) {
-			if (u != null)
-				return new Node<>(u.lson, u.rson, value);
-			else
-				return new Node<>(null, null, value);
+	/**
+	 * Helper function: returns the ancestors of the specified position
+	 * (1-indexed) from the root, the depth of position is the length of path.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static <T> Node<T>[] path(Node<T> u, int pos) {
+		Node<T>[] path = new Node[31 - Integer.numberOfLeadingZeros(pos)];
+		for (int i = 0; i < path.length; i++) {
+			path[i] = u;
+			u = ((pos >>> i) & 1) == 0 ? u.lson : u.rson;
 		}
+		return path;
+	}
+
+	/**
+	 * Helper function: returns the node at the specified position, or null if
+	 * the position is the next free slot.
+	 */
+	private static <T> Node<T> child(Node<T>[] path, int pos, Node<T> root) {
+		final int d = path.length;
+		if (d == 0)
+			return root;
+		Node<T> u = path[d - 1];
+		return ((pos >>> (d - 1)) & 1) == 0 ? u.lson : u.rson;
+	}
 
-		if ((index & 1) == 0) {
-			return new Node<>(set(index >> 1, value, u.lson), u.rson, u.value);
-		} else {
-			return new Node<>(u.lson, set(index >> 1, value, u.rson), u.value);
+	/**
+	 * Helper function: copies the path bottom-up with the replaced node at the
+	 * specified position, and returns the new root.
+	 */
+	private static <T> Node<T> rebuild(Node<T>[] path, int pos, Node<T> v) {
+		for (int i = path.length - 1; i >= 0; i--) {
+			Node<T> u = path[i];
+			if (((pos >>> i) & 1) == 0)
+				v = new Node<>(v, u.rson, u.value);
+			else
+				v = new Node<>(u.lson, v, u.value);
 		}
+		return v;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * O(k log k + k log n) time, each node on the updated paths is copied once.
+	 * </p>
+	 * 
+	 * @param indices {@inheritDoc}
+	 * @param values  {@inheritDoc}
+	 * @throws IllegalArgumentException  {@inheritDoc}
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
 	@Override
-	public PList<T> pushBack(T value) {
-		if (size == 0)
-			return new BraunList<>(new Node<>(null, null, value), 1);
-		return new BraunList<>(insert(size + 1, value, root), size + 1);
-	}
-
-	private Node<T> insert(int index, T value, Node<T> u) {
-		if (index == 1)
-			return new Node<>(null, null, value);
-		if ((index & 1) == 0) {
-			return new Node<>(insert(index >> 1, value, u.lson), u.rson, u.value);
-		} else {
-			return new Node<>(u.lson, insert(index >> 1, value, u.rson), u.value);
+	public BraunList<T> setAll(int[] indices, T[] values) {
+		SortedUpdates<T> up = SortedUpdates.of(indices, values, size);
+		final int k = up.length();
+		if (k == 0)
+			return this;
+
+		int[] pos = new int[k];
+		Object[] val = new Object[k];
+		for (int i = 0; i < k; i++) {
+			pos[i] = up.index(i) + 1;
+			val[i] = up.value(i);
+		}
+		return new BraunList<>(setAll(root, pos, val, 0, k), size);
+	}
+
+	/**
+	 * Helper function: replaces the elements in the subtree, the updates
+	 * <tt>[lo, hi)</tt> are given by the positions (1-indexed) in the subtree.
+	 * The updates are partitioned in place.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> Node<T> setAll(Node<T> u, int[] pos, Object[] val, int lo, int hi) {
+		if (lo == hi)
+			return u;
+
+		T value = u.value;
+		int mid = lo;
+		for (int i = lo; i < hi; i++) {
+			if (pos[i] == 1) {
+				// positions are distinct, move the only root update to the end
+				value = (T) val[i];
+				swap(pos, val, i--, --hi);
+			} else if ((pos[i] & 1) == 0) {
+				swap(pos, val, i, mid++);
+			}
 		}
+		for (int i = lo; i < hi; i++)
+			pos[i] >>= 1;
+		return new Node<>(setAll(u.lson, pos, val, lo, mid), setAll(u.rson, pos, val, mid, hi), value);
 	}
 
+	private static void swap(int[] pos, Object[] val, int i, int j) {
+		int p = pos[i];
+		pos[i] = pos[j];
+		pos[j] = p;
+		Object v = val[i];
+		val[i] = val[j];
+		val[j] = v;
+	}
+
+	@Override
+	public T front() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		return root.value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * O(log n) time, the last element is the deepest node on the path of its
+	 * index, and it is not cached.
+	 * </p>
+	 */
 	@Override
-	public PList<T> popBack() {
+	public T back() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		return get(size - 1);
+	}
+
+	@Override
+	public BraunList<T> pushBack(T value) {
+		final int pos = size + 1;
+		return new BraunList<>(rebuild(path(root, pos), pos, new Node<>(null, null, value)), size + 1);
+	}
+
+	@Override
+	public BraunList<T> popBack() {
+		if (isEmpty())
+			throw new NoSuchElementException();
 		if (size == 1)
 			return create();
-		return new BraunList<>(remove(size + 1, root), size - 1);
+		return new BraunList<>(rebuild(path(root, size), size, null), size - 1);
 	}
 
-	private Node<T> remove(int index, Node<T> u) {
-		if (index == 1)
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * O(log n) time, <tt>cons(x, Node(y, l, r)) = Node(x, cons(y, r), l)</tt>.
+	 * The new element takes the root, and the old root moves to the right spine.
+	 * </p>
+	 */
+	@Override
+	public BraunList<T> pushFront(T value) {
+		// the right spine, each node becomes the parent of its left subtree
+		Node<T>[] spine = spine(root, false);
+		final int n = spine.length;
+		Node<T> v = null;
+		for (int i = n; i >= 0; i--)
+			v = new Node<>(v, i < n ? spine[i].lson : null, i == 0 ? value : spine[i - 1].value);
+		return new BraunList<>(v, size + 1);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * O(log n) time, the left and right subtrees of root are merged by
+	 * <tt>merge(Node(y, l, r), t) = Node(y, t, merge(l, r))</tt>.
+	 * </p>
+	 */
+	@Override
+	public BraunList<T> popFront() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		if (size == 1)
+			return create();
+		// the left spine, each node takes the right subtree of its parent
+		Node<T>[] spine = spine(root, true);
+		Node<T> v = null;
+		for (int i = spine.length - 1; i >= 1; i--)
+			v = new Node<>(spine[i - 1].rson, v, spine[i].value);
+		return new BraunList<>(v, size - 1);
+	}
+
+	/**
+	 * Helper function: returns the nodes from the root along the left or right
+	 * children.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static <T> Node<T>[] spine(Node<T> u, boolean left) {
+		int n = 0;
+		for (Node<T> v = u; v != null; v = left ? v.lson : v.rson)
+			n++;
+		Node<T>[] spine = new Node[n];
+		for (int i = 0; i < n; i++, u = left ? u.lson : u.rson)
+			spine[i] = u;
+		return spine;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * Each node is visited once by a recursive fill, O(n) time.
+	 * </p>
+	 * 
+	 * @param dest {@inheritDoc}
+	 * @return {@inheritDoc}
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	@Override
+	public T[] copyInto(T[] dest) {
+		if (dest.length < size)
+			throw new IndexOutOfBoundsException();
+		copyInto(root, dest, 0, 1);
+		return dest;
+	}
+
+	/**
+	 * Helper function: copies the subtree whose root is at the specified index,
+	 * and the indices of its level are <tt>step</tt> apart. The left child is at
+	 * <tt>index + step</tt>, and the right child is at <tt>index + 2 step</tt>.
+	 */
+	private static <T> void copyInto(Node<T> u, T[] dest, int index, int step) {
+		while (u != null) {
+			dest[index] = u.value;
+			copyInto(u.lson, dest, index + step, step << 1);
+			u = u.rson;
+			index += step << 1;
+			step <<= 1;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * Level-order traversal, see {@link BraunIterator}.
+	 * </p>
+	 * 
+	 * @param action {@inheritDoc}
+	 */
+	@Override
+	public void forEach(Consumer<? super T> action) {
+		Objects.requireNonNull(action);
+		for (BraunIterator<T> it = new BraunIterator<>(this); it.hasNext();)
+			action.accept(it.next());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * O(n) time in total for the levels up to {@value #LEVEL_CAP}, and
+	 * O(log n) time per element of deeper levels, see {@link BraunIterator}.
+	 * </p>
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new BraunIterator<>(this);
+	}
+
+	/**
+	 * The deepest level kept by {@link BraunIterator}, at most
+	 * <tt>2^LEVEL_CAP</tt> nodes, i.e. 64 KB of references per iterator. Each
+	 * node of a deeper level d takes <tt>d - LEVEL_CAP</tt> more steps.
+	 */
+	private static final int LEVEL_CAP = 13;
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Node<T>[] rootLevel() {
+		return isEmpty() ? null : new Node[] { root };
+	}
+
+	/**
+	 * Helper function: returns the nodes of the next level in index order, or
+	 * null if there is none. The length of array is the width of level, and only
+	 * the slots of existing nodes are filled.
+	 * 
+	 * <p>
+	 * The indices of level d are <tt>[2^d - 1, 2^(d+1) - 1)</tt>. The left child
+	 * of index i is <tt>i + 2^d</tt> and the right child is
+	 * <tt>i + 2^(d+1)</tt>, so the next level is all left children followed by
+	 * all right children.
+	 * </p>
+	 */
+	private static <T> Node<T>[] nextLevel(Node<T>[] level, int size) {
+		int width = level.length;
+		int first = (width << 1) - 1;
+		if (first >= size)
 			return null;
-		if ((index & 1) == 0) {
-			return new Node<>(remove(index >> 1, u.lson), u.rson, u.value);
-		} else {
-			return new Node<>(u.lson, remove(index >> 1, u.rson), u.value);
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		Node<T>[] next = new Node[width << 1];
+		int n = Math.min(size - first, width << 1);
+		for (int i = 0; i < n; i++)
+			next[i] = i < width ? level[i].lson : level[i - width].rson;
+		return next;
+	}
+
+	/**
+	 * Iterates the nodes level by level, each level is in index order and the
+	 * levels are consecutive in index. The levels up to {@link #LEVEL_CAP} are
+	 * kept as arrays, each node is visited once.
+	 * 
+	 * <p>
+	 * A deeper level is read from the kept level of depth c. The node with index
+	 * j of level d is below the node <tt>j mod 2^c</tt> of the kept level, and
+	 * the bits of <tt>j / 2^c</tt> choose the path of d - c steps, so the
+	 * iterator holds at most <tt>2^LEVEL_CAP</tt> nodes.
+	 * </p>
+	 */
+	private static class BraunIterator<T> implements Iterator<T> {
+		private final int size;
+		private Node<T>[] level;
+		/** The depth of the kept level. */
+		private int levelDepth;
+		/** The depth of the current level. */
+		private int depth;
+		private int index;
+		private int remaining;
+
+		BraunIterator(BraunList<T> list) {
+			size = list.size;
+			level = list.rootLevel();
+			remaining = size;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return remaining > 0;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			Node<T> u = level[index & (level.length - 1)];
+			for (int path = index >>> levelDepth, k = levelDepth; k < depth; k++, path >>>= 1)
+				u = (path & 1) == 0 ? u.lson : u.rson;
+			remaining--;
+			if (++index == 1 << depth && remaining > 0) {
+				if (levelDepth < LEVEL_CAP) {
+					level = nextLevel(level, size);
+					levelDepth++;
+				}
+				depth++;
+				index = 0;
+			}
+			return u.value;
 		}
 	}
 
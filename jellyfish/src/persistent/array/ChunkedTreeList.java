@@ -0,0 +1,328 @@
+package persistent.array;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import persistent.PList;
+import persistent.util.SortedUpdates;
+
+/**
+ * Chunked-leaf variant of {@link TreeList}.
+ *
+ * <p>
+ * Elements are packed into fixed-size blocks of {@value #CHUNK_SIZE} slots.
+ * Full blocks are kept in a leftist leaf tree ({@link TreeList}), and the last
+ * partial block stays outside as a tail, like Clojure's
+ * <tt>PersistentVector</tt>. Blocks are never modified after publication, so
+ * every version is still persistent.
+ * </p>
+ *
+ * <p>
+ * Compared to {@link TreeList}, the tree holds n/{@value #CHUNK_SIZE} leaves,
+ * so the node overhead per element drops to about one reference and the
+ * lookup path is {@value #CHUNK_SHIFT} levels shorter. The time complexity of
+ * each operation is O(log n), where updates also copy one block.
+ * </p>
+ *
+ * <p>
+ * The tail is filled in place. It has {@value #CHUNK_SIZE} slots and a fill
+ * count claimed by CAS, as in {@link persistent.stack.UnrolledStack}, so
+ * {@link #pushBack(Object)} on the newest version writes the next slot and
+ * allocates only the version, and a full tail becomes a block without a copy.
+ * A push on an older or popped version copies the tail.
+ * </p>
+ *
+ * @author morrisy
+ *
+ * @param <T> The type of elements held in this collection
+ */
+public class ChunkedTreeList<T> extends PList<T> {
+	/** log2 of {@link #CHUNK_SIZE}. */
+	static final int CHUNK_SHIFT = 5;
+	/** The number of elements in each full block. */
+	static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	@SuppressWarnings("rawtypes")
+	/** The empty list. */
+	private static final ChunkedTreeList<?> EMPTY = new ChunkedTreeList();
+
+	/**
+	 * Returns an empty list.
+	 *
+	 * @param <T> The type of elements held in this collection
+	 * @return An empty list.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> ChunkedTreeList<T> create() {
+		return (ChunkedTreeList<T>) EMPTY;
+	}
+
+	/** Full blocks, each of them has exactly {@link #CHUNK_SIZE} elements. */
+	private final TreeList<Object[]> chunks;
+	/**
+	 * The last block, this version has 1 to {@link #CHUNK_SIZE} elements in it if
+	 * not empty.
+	 */
+	private final Tail tail;
+	/** The number of elements in this list. */
+	private final int size;
+
+	private ChunkedTreeList() {
+		this(TreeList.create(), new Tail(new Object[0], 0), 0);
+	}
+
+	private ChunkedTreeList(TreeList<Object[]> chunks, Tail tail, int size) {
+		this.chunks = chunks;
+		this.tail = tail;
+		this.size = size;
+		assert size == 0 || (tailSize() > 0 && tailSize() <= tail.items.length);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * The number of elements stored in full blocks.
+	 */
+	private int tailOffset() {
+		return chunks.size() << CHUNK_SHIFT;
+	}
+
+	/**
+	 * The number of elements in the tail of this version.
+	 */
+	private int tailSize() {
+		return size - tailOffset();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * O(log n) time, O(1) for elements in the tail.
+	 * </p>
+	 *
+	 * @param index {@inheritDoc}}
+	 *
+	 * @return {@inheritDoc}}
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public T get(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException();
+
+		int offset = tailOffset();
+		if (index >= offset)
+			return (T) tail.items[index - offset];
+		return (T) chunks.get(index >>> CHUNK_SHIFT)[index & CHUNK_MASK];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * O(log n) time, and copy one block of {@value #CHUNK_SIZE} elements.
+	 * </p>
+	 *
+	 * @param index {@inheritDoc}
+	 * @param value {@inheritDoc}
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	@Override
+	public ChunkedTreeList<T> set(int index, T value) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException();
+
+		int offset = tailOffset();
+		if (index >= offset) {
+			Tail t = tail.copy(size - offset, size - offset);
+			t.items[index - offset] = value;
+			return new ChunkedTreeList<>(chunks, t, size);
+		}
+
+		int c = index >>> CHUNK_SHIFT;
+		Object[] chunk = chunks.get(c).clone();
+		chunk[index & CHUNK_MASK] = value;
+		return new ChunkedTreeList<>(chunks.set(c, chunk), tail, size);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * O(k log k + k log n) time, each touched block is copied once.
+	 * </p>
+	 * 
+	 * @param indices {@inheritDoc}
+	 * @param values  {@inheritDoc}
+	 * @throws IllegalArgumentException  {@inheritDoc}
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	@Override
+	public ChunkedTreeList<T> setAll(int[] indices, T[] values) {
+		SortedUpdates<T> up = SortedUpdates.of(indices, values, size);
+		final int k = up.length();
+		if (k == 0)
+			return this;
+
+		int offset = tailOffset();
+		int m = up.lowerBound(0, k, offset);
+		Tail t = tail;
+		if (m < k) {
+			t = tail.copy(size - offset, size - offset);
+			for (int i = m; i < k; i++)
+				t.items[up.index(i) - offset] = up.value(i);
+		}
+
+		TreeList<Object[]> c = chunks;
+		if (m > 0) {
+			int[] cIndices = new int[m];
+			Object[][] cValues = new Object[m][];
+			int n = 0;
+			for (int i = 0; i < m; n++) {
+				int ci = up.index(i) >>> CHUNK_SHIFT;
+				Object[] chunk = chunks.get(ci).clone();
+				for (; i < m && (up.index(i) >>> CHUNK_SHIFT) == ci; i++)
+					chunk[up.index(i) & CHUNK_MASK] = up.value(i);
+				cIndices[n] = ci;
+				cValues[n] = chunk;
+			}
+			c = chunks.setAll(Arrays.copyOf(cIndices, n), Arrays.copyOf(cValues, n));
+		}
+		return new ChunkedTreeList<>(c, t, size);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * O(1) time if the tail is not full, the value is written in place if this
+	 * version owns all claimed slots of the tail, otherwise the tail is copied.
+	 * A full tail becomes a block in O(log n) time.
+	 * </p>
+	 *
+	 * @param value {@inheritDoc}
+	 */
+	@Override
+	public ChunkedTreeList<T> pushBack(T value) {
+		final int n = tailSize();
+		if (n == CHUNK_SIZE) {
+			Tail t = new Tail(new Object[CHUNK_SIZE], 1);
+			t.items[0] = value;
+			return new ChunkedTreeList<>(chunks.pushBack(tail.items), t, size + 1);
+		}
+		Tail t = tail.claim(n) ? tail : tail.copy(n, n + 1);
+		t.items[n] = value;
+		return new ChunkedTreeList<>(chunks, t, size + 1);
+	}
+
+	@Override
+	public ChunkedTreeList<T> popBack() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		if (size == 1)
+			return create();
+
+		if (tailSize() > 1)
+			return new ChunkedTreeList<>(chunks, tail, size - 1);
+		// the tail becomes empty, borrow the last full block, no slot is free
+		Object[] t = chunks.get(chunks.size() - 1);
+		return new ChunkedTreeList<>(chunks.popBack(), new Tail(t, CHUNK_SIZE), size - 1);
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new ChunkIterator<>(this);
+	}
+
+	static class ChunkIterator<T> implements Iterator<T> {
+		private final Iterator<Object[]> chunkItr;
+		private Object[] tail;
+		private final int tailSize;
+		private Object[] current;
+		private int limit;
+		private int index;
+
+		public ChunkIterator(ChunkedTreeList<T> array) {
+			chunkItr = array.chunks.iterator();
+			tail = array.tail.items;
+			tailSize = array.tailSize();
+			nextChunk();
+		}
+
+		private void nextChunk() {
+			if (chunkItr.hasNext()) {
+				current = chunkItr.next();
+				limit = CHUNK_SIZE;
+			} else {
+				current = tail;
+				limit = tailSize;
+				tail = null;
+			}
+			index = 0;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return current != null && index < limit;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public T next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			T val = (T) current[index++];
+			if (index == limit)
+				nextChunk();
+			return val;
+		}
+	}
+
+	/**
+	 * The tail block shared by versions. The slots below the fill count are
+	 * written once before they are published through the final fields of a
+	 * version.
+	 */
+	private static final class Tail {
+		private static final AtomicIntegerFieldUpdater<Tail> FILL = AtomicIntegerFieldUpdater
+				.newUpdater(Tail.class, "fill");
+
+		private final Object[] items;
+		private volatile int fill;
+
+		Tail(Object[] items, int fill) {
+			this.items = items;
+			this.fill = fill;
+		}
+
+		/**
+		 * Claims the slot of the index if it is the next free slot.
+		 */
+		boolean claim(int index) {
+			return index < items.length && fill == index && FILL.compareAndSet(this, index, index + 1);
+		}
+
+		/**
+		 * Returns a new tail with the first n elements, where the first
+		 * <tt>fill</tt> slots are claimed.
+		 */
+		Tail copy(int n, int fill) {
+			Object[] t = new Object[CHUNK_SIZE];
+			System.arraycopy(items, 0, t, 0, n);
+			return new Tail(t, fill);
+		}
+	}
+}
@@ -0,0 +1,150 @@
+package persistent.array;
+
+import java.util.PrimitiveIterator;
+
+import persistent.PList;
+
+/**
+ * Primitive specialization of {@link ChunkedTreeList} for <tt>double</tt>.
+ *
+ * <p>
+ * The values are stored unboxed in blocks of {@value ChunkedTreeList#CHUNK_SIZE}
+ * slots, so there is no wrapper object per element. The methods taking or
+ * returning <tt>double</tt> never box, the methods of {@link PList} box as usual.
+ * <tt>null</tt> is not allowed.
+ * </p>
+ *
+ * @author morrisy
+ */
+public class DoubleTreeList extends PrimitiveTreeList<Double, double[], DoubleTreeList> {
+	/** The empty list. */
+	private static final DoubleTreeList EMPTY = new DoubleTreeList(TreeList.create(), new double[0], 0);
+
+	/**
+	 * Returns an empty list.
+	 *
+	 * @return An empty list.
+	 */
+	public static DoubleTreeList create() {
+		return EMPTY;
+	}
+
+	/**
+	 * Returns a list contains the specified values in O(n) time.
+	 *
+	 * @param values the values of the list
+	 * @return A list contains the specified values.
+	 */
+	public static DoubleTreeList ofAll(double[] values) {
+		return EMPTY.build(values);
+	}
+
+	private DoubleTreeList(TreeList<double[]> chunks, double[] tail, int size) {
+		super(chunks, tail, size);
+	}
+
+	@Override
+	int length(double[] values) {
+		return values.length;
+	}
+
+	@Override
+	double[] newArray(int length) {
+		return new double[length];
+	}
+
+	@Override
+	void store(double[] values, int slot, Double value) {
+		values[slot] = value;
+	}
+
+	@Override
+	DoubleTreeList create(TreeList<double[]> chunks, double[] tail, int size) {
+		return new DoubleTreeList(chunks, tail, size);
+	}
+
+	@Override
+	DoubleTreeList empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * Returns the value at the specified position in this list without boxing.
+	 *
+	 * @param index index of the value to return
+	 * @return the value at the specified position in this list.
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *                                   (<tt>index &lt; 0 || index &gt;= size()</tt>)
+	 */
+	public double getDouble(int index) {
+		return block(index)[index & CHUNK_MASK];
+	}
+
+	@Override
+	public Double get(int index) {
+		return getDouble(index);
+	}
+
+	/**
+	 * Replaces the value at the specified position in this list without boxing.
+	 *
+	 * @param index index of the value to replace
+	 * @param value value to be stored at the specified position
+	 * @return the new array contains current specified value and remaining
+	 *         values.
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *                                   (<tt>index &lt; 0 || index &gt;= size()</tt>)
+	 */
+	public DoubleTreeList set(int index, double value) {
+		double[] b = copyBlock(index);
+		b[index & CHUNK_MASK] = value;
+		return replace(index, b);
+	}
+
+	@Override
+	public DoubleTreeList set(int index, Double value) {
+		return set(index, value.doubleValue());
+	}
+
+	/**
+	 * Appends the specified value to the end of this list without boxing.
+	 *
+	 * @param value value to be append to this list
+	 * @return the new array, which appends the specified value.
+	 */
+	public DoubleTreeList pushBack(double value) {
+		double[] t = growTail();
+		t[t.length - 1] = value;
+		return append(t);
+	}
+
+	@Override
+	public DoubleTreeList pushBack(Double value) {
+		return pushBack(value.doubleValue());
+	}
+
+	/**
+	 * Returns a primitive iterator over the values in this array from index 0 to
+	 * size.
+	 *
+	 * @return a primitive iterator over the values in this array.
+	 */
+	@Override
+	public PrimitiveIterator.OfDouble iterator() {
+		return new DoubleChunkIterator(this);
+	}
+
+	static class DoubleChunkIterator extends BlockIterator<double[]> implements PrimitiveIterator.OfDouble {
+		DoubleChunkIterator(DoubleTreeList array) {
+			super(array);
+		}
+
+		@Override
+		public double nextDouble() {
+			check();
+			double val = current[index];
+			advance();
+			return val;
+		}
+	}
+}
@@ -0,0 +1,150 @@
+package persistent.array;
+
+import java.util.PrimitiveIterator;
+
+import persistent.PList;
+
+/**
+ * Primitive specialization of {@link ChunkedTreeList} for <tt>int</tt>.
+ *
+ * <p>
+ * The values are stored unboxed in blocks of {@value ChunkedTreeList#CHUNK_SIZE}
+ * slots, so there is no wrapper object per element. The methods taking or
+ * returning <tt>int</tt> never box, the methods of {@link PList} box as usual.
+ * <tt>null</tt> is not allowed.
+ * </p>
+ *
+ * @author morrisy
+ */
+public class IntTreeList extends PrimitiveTreeList<Integer, int[], IntTreeList> {
+	/** The empty list. */
+	private static final IntTreeList EMPTY = new IntTreeList(TreeList.create(), new int[0], 0);
+
+	/**
+	 * Returns an empty list.
+	 *
+	 * @return An empty list.
+	 */
+	public static IntTreeList create() {
+		return EMPTY;
+	}
+
+	/**
+	 * Returns a list contains the specified values in O(n) time.
+	 *
+	 * @param values the values of the list
+	 * @return A list contains the specified values.
+	 */
+	public static IntTreeList ofAll(int[] values) {
+		return EMPTY.build(values);
+	}
+
+	private IntTreeList(TreeList<int[]> chunks, int[] tail, int size) {
+		super(chunks, tail, size);
+	}
+
+	@Override
+	int length(int[] values) {
+		return values.length;
+	}
+
+	@Override
+	int[] newArray(int length) {
+		return new int[length];
+	}
+
+	@Override
+	void store(int[] values, int slot, Integer value) {
+		values[slot] = value;
+	}
+
+	@Override
+	IntTreeList create(TreeList<int[]> chunks, int[] tail, int size) {
+		return new IntTreeList(chunks, tail, size);
+	}
+
+	@Override
+	IntTreeList empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * Returns the value at the specified position in this list without boxing.
+	 *
+	 * @param index index of the value to return
+	 * @return the value at the specified position in this list.
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *                                   (<tt>index &lt; 0 || index &gt;= size()</tt>)
+	 */
+	public int getInt(int index) {
+		return block(index)[index & CHUNK_MASK];
+	}
+
+	@Override
+	public Integer get(int index) {
+		return getInt(index);
+	}
+
+	/**
+	 * Replaces the value at the specified position in this list without boxing.
+	 *
+	 * @param index index of the value to replace
+	 * @param value value to be stored at the specified position
+	 * @return the new array contains current specified value and remaining
+	 *         values.
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *                                   (<tt>index &lt; 0 || index &gt;= size()</tt>)
+	 */
+	public IntTreeList set(int index, int value) {
+		int[] b = copyBlock(index);
+		b[index & CHUNK_MASK] = value;
+		return replace(index, b);
+	}
+
+	@Override
+	public IntTreeList set(int index, Integer value) {
+		return set(index, value.intValue());
+	}
+
+	/**
+	 * Appends the specified value to the end of this list without boxing.
+	 *
+	 * @param value value to be append to this list
+	 * @return the new array, which appends the specified value.
+	 */
+	public IntTreeList pushBack(int value) {
+		int[] t = growTail();
+		t[t.length - 1] = value;
+		return append(t);
+	}
+
+	@Override
+	public IntTreeList pushBack(Integer value) {
+		return pushBack(value.intValue());
+	}
+
+	/**
+	 * Returns a primitive iterator over the values in this array from index 0 to
+	 * size.
+	 *
+	 * @return a primitive iterator over the values in this array.
+	 */
+	@Override
+	public PrimitiveIterator.OfInt iterator() {
+		return new IntChunkIterator(this);
+	}
+
+	static class IntChunkIterator extends BlockIterator<int[]> implements PrimitiveIterator.OfInt {
+		IntChunkIterator(IntTreeList array) {
+			super(array);
+		}
+
+		@Override
+		public int nextInt() {
+			check();
+			int val = current[index];
+			advance();
+			return val;
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package persistent.array;
+
+import java.util.Iterator;
+import java.util.Objects;
+
+import persistent.array.TreeList.DataNode;
+import persistent.array.TreeList.Node;
+import persistent.array.TreeList.TreeNode;
+import persistent.util.SortedUpdates;
+
+/**
+ * Helper functions on the perfect leaf trees of {@link TreeList}, shared by the
+ * lists built from the same trees, e.g.
+ * {@link persistent.array.fully.DeTreeList}. They are not a part of the list
+ * API.
+ *
+ * @author morrisy
+ */
+public final class LeafTrees {
+	private LeafTrees() {
+	}
+
+	/**
+	 * Helper function: builds a perfect tree from the specified iterator.
+	 * 
+	 * @param <T>  the type of basic elements in tree
+	 * @param itr  the elements of the tree
+	 * @param size tree size, must be power of 2
+	 * @return the tree root node
+	 */
+	public static <T> Node<T> buildTree(Iterator<? extends T> itr, int size) {
+		if (size == 1)
+			return new DataNode<>(itr.next());
+		Node<T> l = buildTree(itr, size >> 1);
+		Node<T> r = buildTree(itr, size >> 1);
+		return new TreeNode<>(l, r);
+	}
+
+	/**
+	 * Helper function: replaces the elements in the tree, each node on the
+	 * updated paths is copied once.
+	 * 
+	 * @param <T>    the type of basic elements in tree
+	 * @param u      tree root
+	 * @param size   half of tree size
+	 * @param offset index of the first element in the tree
+	 * @param up     sorted updates, all indices are inside the tree
+	 * @param lo     the first update, inclusive
+	 * @param hi     the last update, exclusive
+	 * @return modified tree root node
+	 */
+	public static <T> Node<T> setValues(Node<T> u, int size, int offset, SortedUpdates<T> up, int lo, int hi) {
+		if (u instanceof DataNode) {
+			assert hi - lo == 1 && up.index(lo) == offset;
+			return new DataNode<>(up.value(lo));
+		}
+
+		TreeNode<T> tn = (TreeNode<T>) u;
+		int m = up.lowerBound(lo, hi, offset + size);
+		Node<T> l = lo < m ? setValues(tn.lson, size >> 1, offset, up, lo, m) : tn.lson;
+		Node<T> r = m < hi ? setValues(tn.rson, size >> 1, offset + size, up, m, hi) : tn.rson;
+		return new TreeNode<>(l, r);
+	}
+
+	/** POW31[k] = 31^(2^k), the arithmetic overflows as {@link java.util.List#hashCode()}. */
+	private static final int[] POW31 = new int[32];
+
+	static {
+		POW31[0] = 31;
+		for (int i = 1; i < 32; i++)
+			POW31[i] = POW31[i - 1] * POW31[i - 1];
+	}
+
+	/**
+	 * Helper function: returns <tt>31^size</tt> for the size of power of 2.
+	 */
+	static int pow31(int size) {
+		return POW31[Integer.numberOfTrailingZeros(size)];
+	}
+
+	/**
+	 * Helper function: returns the hash code of the concatenation, where the hash
+	 * codes are of {@link java.util.List#hashCode()}.
+	 * 
+	 * <p>
+	 * Let <tt>H(s) = 31^|s| + sum(hash(s[i]) * 31^(|s|-1-i))</tt>, then
+	 * <tt>H(a ++ b) = (H(a) - 1) * 31^|b| + H(b)</tt>.
+	 * </p>
+	 * 
+	 * @param a     the hash code of the leading elements
+	 * @param b     the hash code of the trailing elements
+	 * @param sizeB the number of trailing elements, must be power of 2
+	 * @return the hash code of the concatenation
+	 */
+	public static int concatHash(int a, int b, int sizeB) {
+		return (a - 1) * pow31(sizeB) + b;
+	}
+
+	/**
+	 * Helper function: returns the hash code of the leaves as a list, see
+	 * {@link java.util.List#hashCode()}. The hash code of each subtree is cached
+	 * in the {@link TreeNode}, so the versions sharing subtrees share the work.
+	 * 
+	 * @param u    tree root
+	 * @param size tree size, must be power of 2
+	 * @return the hash code of the leaves
+	 */
+	public static int hashOf(Node<?> u, int size) {
+		if (u instanceof DataNode)
+			return 31 + Objects.hashCode(((DataNode<?>) u).val);
+
+		TreeNode<?> tn = (TreeNode<?>) u;
+		int h = tn.hash;
+		if (h == 0) {
+			int half = size >> 1;
+			h = concatHash(hashOf(tn.lson, half), hashOf(tn.rson, half), half);
+			tn.hash = h;
+		}
+		return h;
+	}
+
+	/**
+	 * Helper function: compares the leaves of two trees of the same size. The
+	 * identical subtrees are skipped, so two versions of a list are compared in
+	 * O(d log n) time, where d is the number of different leaves.
+	 * 
+	 * @param u one tree root
+	 * @param v another tree root
+	 * @return <tt>true</tt> if the leaves are equal in order
+	 */
+	public static boolean sameContent(Node<?> u, Node<?> v) {
+		if (u == v)
+			return true;
+		if (u instanceof DataNode)
+			return Objects.equals(((DataNode<?>) u).val, ((DataNode<?>) v).val);
+
+		TreeNode<?> a = (TreeNode<?>) u;
+		TreeNode<?> b = (TreeNode<?>) v;
+		if (a.hash != 0 && b.hash != 0 && a.hash != b.hash)
+			return false;
+		return sameContent(a.lson, b.lson) && sameContent(a.rson, b.rson);
+	}
+}
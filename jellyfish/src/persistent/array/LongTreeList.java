@@ -0,0 +1,150 @@
+package persistent.array;
+
+import java.util.PrimitiveIterator;
+
+import persistent.PList;
+
+/**
+ * Primitive specialization of {@link ChunkedTreeList} for <tt>long</tt>.
+ *
+ * <p>
+ * The values are stored unboxed in blocks of {@value ChunkedTreeList#CHUNK_SIZE}
+ * slots, so there is no wrapper object per element. The methods taking or
+ * returning <tt>long</tt> never box, the methods of {@link PList} box as usual.
+ * <tt>null</tt> is not allowed.
+ * </p>
+ *
+ * @author morrisy
+ */
+public class LongTreeList extends PrimitiveTreeList<Long, long[], LongTreeList> {
+	/** The empty list. */
+	private static final LongTreeList EMPTY = new LongTreeList(TreeList.create(), new long[0], 0);
+
+	/**
+	 * Returns an empty list.
+	 *
+	 * @return An empty list.
+	 */
+	public static LongTreeList create() {
+		return EMPTY;
+	}
+
+	/**
+	 * Returns a list contains the specified values in O(n) time.
+	 *
+	 * @param values the values of the list
+	 * @return A list contains the specified values.
+	 */
+	public static LongTreeList ofAll(long[] values) {
+		return EMPTY.build(values);
+	}
+
+	private LongTreeList(TreeList<long[]> chunks, long[] tail, int size) {
+		super(chunks, tail, size);
+	}
+
+	@Override
+	int length(long[] values) {
+		return values.length;
+	}
+
+	@Override
+	long[] newArray(int length) {
+		return new long[length];
+	}
+
+	@Override
+	void store(long[] values, int slot, Long value) {
+		values[slot] = value;
+	}
+
+	@Override
+	LongTreeList create(TreeList<long[]> chunks, long[] tail, int size) {
+		return new LongTreeList(chunks, tail, size);
+	}
+
+	@Override
+	LongTreeList empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * Returns the value at the specified position in this list without boxing.
+	 *
+	 * @param index index of the value to return
+	 * @return the value at the specified position in this list.
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *                                   (<tt>index &lt; 0 || index &gt;= size()</tt>)
+	 */
+	public long getLong(int index) {
+		return block(index)[index & CHUNK_MASK];
+	}
+
+	@Override
+	public Long get(int index) {
+		return getLong(index);
+	}
+
+	/**
+	 * Replaces the value at the specified position in this list without boxing.
+	 *
+	 * @param index index of the value to replace
+	 * @param value value to be stored at the specified position
+	 * @return the new array contains current specified value and remaining
+	 *         values.
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *                                   (<tt>index &lt; 0 || index &gt;= size()</tt>)
+	 */
+	public LongTreeList set(int index, long value) {
+		long[] b = copyBlock(index);
+		b[index & CHUNK_MASK] = value;
+		return replace(index, b);
+	}
+
+	@Override
+	public LongTreeList set(int index, Long value) {
+		return set(index, value.longValue());
+	}
+
+	/**
+	 * Appends the specified value to the end of this list without boxing.
+	 *
+	 * @param value value to be append to this list
+	 * @return the new array, which appends the specified value.
+	 */
+	public LongTreeList pushBack(long value) {
+		long[] t = growTail();
+		t[t.length - 1] = value;
+		return append(t);
+	}
+
+	@Override
+	public LongTreeList pushBack(Long value) {
+		return pushBack(value.longValue());
+	}
+
+	/**
+	 * Returns a primitive iterator over the values in this array from index 0 to
+	 * size.
+	 *
+	 * @return a primitive iterator over the values in this array.
+	 */
+	@Override
+	public PrimitiveIterator.OfLong iterator() {
+		return new LongChunkIterator(this);
+	}
+
+	static class LongChunkIterator extends BlockIterator<long[]> implements PrimitiveIterator.OfLong {
+		LongChunkIterator(LongTreeList array) {
+			super(array);
+		}
+
+		@Override
+		public long nextLong() {
+			check();
+			long val = current[index];
+			advance();
+			return val;
+		}
+	}
+}
@@ -0,0 +1,278 @@
+package persistent.array;
+
+import static persistent.array.ChunkedTreeList.CHUNK_SHIFT;
+import static persistent.array.ChunkedTreeList.CHUNK_SIZE;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import persistent.PList;
+import persistent.util.SortedUpdates;
+
+/**
+ * The block structure of the primitive specializations of
+ * {@link ChunkedTreeList}, e.g. {@link IntTreeList}. The subclasses only read
+ * and write the slots of the primitive arrays.
+ *
+ * <p>
+ * Full blocks of {@value ChunkedTreeList#CHUNK_SIZE} slots are kept in a
+ * {@link TreeList}, and the last partial block stays outside as a tail. The
+ * blocks are aligned, so the slot of an index is
+ * <tt>index % {@value ChunkedTreeList#CHUNK_SIZE}</tt> in both of them. Blocks
+ * are never modified after publication.
+ * </p>
+ *
+ * @author morrisy
+ *
+ * @param <T> The type of boxed elements
+ * @param <A> The type of primitive arrays, e.g. <tt>int[]</tt>
+ * @param <L> The type of the list itself
+ */
+abstract class PrimitiveTreeList<T, A, L extends PrimitiveTreeList<T, A, L>> extends PList<T> {
+	static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	/** Full blocks, each of them has exactly {@link ChunkedTreeList#CHUNK_SIZE} values. */
+	final TreeList<A> chunks;
+	/** The last block, it has 1 to {@link ChunkedTreeList#CHUNK_SIZE} values if not empty. */
+	final A tail;
+	/** The number of values in this list. */
+	final int size;
+
+	PrimitiveTreeList(TreeList<A> chunks, A tail, int size) {
+		this.chunks = chunks;
+		this.tail = tail;
+		this.size = size;
+		assert chunks.size() * CHUNK_SIZE + length(tail) == size;
+	}
+
+	/**
+	 * Returns the length of the array.
+	 */
+	abstract int length(A values);
+
+	/**
+	 * Returns a new array of the length.
+	 */
+	abstract A newArray(int length);
+
+	/**
+	 * Stores the boxed value into the slot of the array.
+	 */
+	abstract void store(A values, int slot, T value);
+
+	/**
+	 * Returns a new list of the blocks.
+	 */
+	abstract L create(TreeList<A> chunks, A tail, int size);
+
+	/**
+	 * Returns an empty list.
+	 */
+	abstract L empty();
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	private int tailOffset() {
+		return size - length(tail);
+	}
+
+	private A copyOf(A values, int length) {
+		A t = newArray(length);
+		System.arraycopy(values, 0, t, 0, Math.min(length, length(values)));
+		return t;
+	}
+
+	/**
+	 * Helper function: returns a list contains the values in O(n) time.
+	 */
+	final L build(A values) {
+		final int n = length(values);
+		if (n == 0)
+			return empty();
+		int full = (n - 1) >>> CHUNK_SHIFT;
+		List<A> c = new ArrayList<>(full);
+		for (int i = 0; i < full; i++) {
+			A chunk = newArray(CHUNK_SIZE);
+			System.arraycopy(values, i << CHUNK_SHIFT, chunk, 0, CHUNK_SIZE);
+			c.add(chunk);
+		}
+		A t = newArray(n - (full << CHUNK_SHIFT));
+		System.arraycopy(values, full << CHUNK_SHIFT, t, 0, length(t));
+		return create(TreeList.ofAll(c), t, n);
+	}
+
+	/**
+	 * Helper function: returns the block holding the value of the index, the
+	 * slot is <tt>index &amp; CHUNK_MASK</tt>.
+	 *
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	final A block(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException();
+		if (index >= tailOffset())
+			return tail;
+		return chunks.get(index >>> CHUNK_SHIFT);
+	}
+
+	/**
+	 * Helper function: returns a copy of the block holding the value of the
+	 * index, to be passed to {@link #replace(int, Object)}.
+	 *
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	final A copyBlock(int index) {
+		A b = block(index);
+		return copyOf(b, length(b));
+	}
+
+	/**
+	 * Helper function: returns a new list, where the block holding the value of
+	 * the index is replaced.
+	 */
+	final L replace(int index, A block) {
+		if (index >= tailOffset())
+			return create(chunks, block, size);
+		return create(chunks.set(index >>> CHUNK_SHIFT, block), tail, size);
+	}
+
+	/**
+	 * Helper function: returns a copy of the tail with one more slot at the end,
+	 * to be passed to {@link #append(Object)}.
+	 */
+	final A growTail() {
+		int n = length(tail);
+		return n == CHUNK_SIZE ? newArray(1) : copyOf(tail, n + 1);
+	}
+
+	/**
+	 * Helper function: returns a new list of the grown tail, the full tail
+	 * becomes a block.
+	 */
+	final L append(A grown) {
+		if (length(tail) == CHUNK_SIZE)
+			return create(chunks.pushBack(tail), grown, size + 1);
+		return create(chunks, grown, size + 1);
+	}
+
+	@Override
+	public L popBack() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		if (size == 1)
+			return empty();
+
+		int n = length(tail);
+		if (n > 1)
+			return create(chunks, copyOf(tail, n - 1), size - 1);
+		A t = chunks.get(chunks.size() - 1);
+		return create(chunks.popBack(), t, size - 1);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * O(k log k + k log n) time, each touched block is copied once.
+	 * </p>
+	 *
+	 * @param indices {@inheritDoc}
+	 * @param values  {@inheritDoc}
+	 * @throws IllegalArgumentException  {@inheritDoc}
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public L setAll(int[] indices, T[] values) {
+		SortedUpdates<T> up = SortedUpdates.of(indices, values, size);
+		final int k = up.length();
+		if (k == 0)
+			return (L) this;
+
+		int offset = tailOffset();
+		int m = up.lowerBound(0, k, offset);
+		A t = tail;
+		if (m < k) {
+			t = copyOf(tail, length(tail));
+			for (int i = m; i < k; i++)
+				store(t, up.index(i) & CHUNK_MASK, up.value(i));
+		}
+
+		TreeList<A> c = chunks;
+		if (m > 0) {
+			int[] cIndices = new int[m];
+			A[] cValues = (A[]) new Object[m];
+			int n = 0;
+			for (int i = 0; i < m; n++) {
+				int ci = up.index(i) >>> CHUNK_SHIFT;
+				A chunk = copyOf(chunks.get(ci), CHUNK_SIZE);
+				for (; i < m && (up.index(i) >>> CHUNK_SHIFT) == ci; i++)
+					store(chunk, up.index(i) & CHUNK_MASK, up.value(i));
+				cIndices[n] = ci;
+				cValues[n] = chunk;
+			}
+			c = chunks.setAll(Arrays.copyOf(cIndices, n), Arrays.copyOf(cValues, n));
+		}
+		return create(c, t, size);
+	}
+
+	/**
+	 * Iterates the blocks in order, the subclasses read the slot of
+	 * {@link #index} in {@link #current} and then call {@link #advance()}.
+	 */
+	abstract static class BlockIterator<A> {
+		private final Iterator<A> chunkItr;
+		private A tail;
+		private final int tailSize;
+		A current;
+		private int limit;
+		int index;
+
+		BlockIterator(PrimitiveTreeList<?, A, ?> list) {
+			chunkItr = list.chunks.iterator();
+			tail = list.tail;
+			tailSize = list.length(tail);
+			nextBlock();
+		}
+
+		private void nextBlock() {
+			if (chunkItr.hasNext()) {
+				current = chunkItr.next();
+				limit = CHUNK_SIZE;
+			} else {
+				current = tail;
+				limit = tail == null ? 0 : tailSize;
+				tail = null;
+			}
+			index = 0;
+		}
+
+		public boolean hasNext() {
+			return index < limit;
+		}
+
+		/**
+		 * Checks the next slot exists before it is read.
+		 */
+		final void check() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+		}
+
+		final void advance() {
+			if (++index == limit)
+				nextBlock();
+		}
+	}
+}
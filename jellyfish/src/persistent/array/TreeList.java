@@ -1,14 +1,15 @@
 package persistent.array;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 
 import persistent.PList;
 import persistent.PStack;
-import persistent.helper.Rev;
 import persistent.util.PCollections;
+import persistent.util.SortedUpdates;
 
 /**
  * Paper: "Leaf Trees", Kaldewaij, A., & Dielissen, V. J., 1996
@@ -38,6 +39,60 @@ public class TreeList<T> extends PList<T> {
 		return (TreeList<T>) EMPTY;
 	}
 
+	/**
+	 * Returns a list contains the specified elements in O(n) time.
+	 * 
+	 * @param <T>    The type of elements held in this collection
+	 * @param values the elements of the list
+	 * @return A list contains the specified elements.
+	 */
+	public static <T> TreeList<T> ofAll(T[] values) {
+		return ofAll(Arrays.asList(values).iterator(), values.length);
+	}
+
+	/**
+	 * Returns a list contains the elements of the specified collection in
+	 * iteration order in O(n) time.
+	 * 
+	 * @param <T>    The type of elements held in this collection
+	 * @param values the elements of the list
+	 * @return A list contains the specified elements.
+	 */
+	public static <T> TreeList<T> ofAll(Collection<? extends T> values) {
+		return ofAll(values.iterator(), values.size());
+	}
+
+	/**
+	 * Returns a list contains the first <tt>size</tt> elements of the specified
+	 * iterator in O(n) time.
+	 * 
+	 * <p>
+	 * The binary decomposition of <tt>size</tt> decides the shape of the leftist
+	 * leaf tree, so each perfect tree is built bottom-up once without any carry.
+	 * </p>
+	 * 
+	 * @param <T>  The type of elements held in this collection
+	 * @param itr  the elements of the list
+	 * @param size the number of elements to be taken
+	 * @return A list contains the specified elements.
+	 * @throws IllegalArgumentException if the size is negative
+	 * @throws NoSuchElementException   if the iterator has less than
+	 *                                  <tt>size</tt> elements
+	 */
+	public static <T> TreeList<T> ofAll(Iterator<? extends T> itr, int size) {
+		if (size < 0)
+			throw new IllegalArgumentException();
+		if (size == 0)
+			return create();
+
+		PStack<Node<T>> u = PCollections.emptyStack();
+		for (int i = 31; i >= 0; i--) {
+			if (((size >>> i) & 1) != 0)
+				u = u.push(LeafTrees.buildTree(itr, 1 << i));
+		}
+		return new TreeList<>(u, size);
+	}
+
 	/** Pointer to tree root node. */
 	private final PStack<Node<T>> rNodes;
 	/** The number of elements in this list, leftist leaf tree */
@@ -170,6 +225,58 @@ public class TreeList<T> extends PList<T> {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * O(k log k + k log n) time. The updates are sorted by index, and then the
+	 * trees are path-copied in one pass, so each ancestor is copied at most once.
+	 * </p>
+	 * 
+	 * @param indices {@inheritDoc}
+	 * @param values  {@inheritDoc}
+	 * @throws IllegalArgumentException  {@inheritDoc}
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	@Override
+	public TreeList<T> setAll(int[] indices, T[] values) {
+		SortedUpdates<T> up = SortedUpdates.of(indices, values, size);
+		return setAll(up, 0, up.length());
+	}
+
+	/**
+	 * Helper function: applies the sorted updates <tt>[lo, hi)</tt>.
+	 */
+	TreeList<T> setAll(SortedUpdates<T> up, int lo, int hi) {
+		if (lo == hi)
+			return this;
+		return new TreeList<>(setValues(rNodes, size, up, lo, hi), size);
+	}
+
+	/**
+	 * Helper function: replaces the elements at the tree stack, the unchanged
+	 * trees at the bottom of stack are shared.
+	 * 
+	 * @param <T>  the type of basic elements in list
+	 * @param u    tree node stack
+	 * @param size tree size
+	 * @param up   sorted updates
+	 * @param lo   the first update, inclusive
+	 * @param hi   the last update, exclusive
+	 * @return modified tree node stack
+	 */
+	private static <T> PStack<Node<T>> setValues(PStack<Node<T>> u, int size, SortedUpdates<T> up, int lo,
+			int hi) {
+		if (lo == hi)
+			return u;
+		Node<T> v = u.top();
+		int b = size & (-size);
+		int m = up.lowerBound(lo, hi, size - b);
+		if (m < hi)
+			v = LeafTrees.setValues(v, b >> 1, size - b, up, m, hi);
+		return setValues(u.pop(), size - b, up, lo, m).push(v);
+	}
+
 	@Override
 	public TreeList<T> pushBack(T value) {
 		Node<T> data = new DataNode<>(value);
@@ -205,12 +312,319 @@ public class TreeList<T> extends PList<T> {
 		return new TreeList<>(v, size - 1);
 	}
 
+	/**
+	 * Returns the changes from this list to the specified list, in the order of
+	 * index. The elements at the common indices are reported as
+	 * {@link Change.Type#UPDATE} if they are not equal, and then the extra
+	 * elements at the tail are reported as {@link Change.Type#REMOVE} or
+	 * {@link Change.Type#INSERT}.
+	 * 
+	 * <p>
+	 * The changes are computed lazily. Both lists are walked in parallel by the
+	 * aligned blocks of power of 2, each of them is exactly one subtree in both
+	 * lists, and the identical subtrees are skipped. For two versions derived
+	 * from each other by d updates, it takes O((d + 1) log n) time in total, plus
+	 * O(log n) for each changed element at the tail.
+	 * </p>
+	 * 
+	 * @param other the newer version
+	 * @return an iterator over the changes.
+	 */
+	public Iterator<Change<T>> diff(TreeList<T> other) {
+		return new DiffIterator<>(this, other);
+	}
+
+	/**
+	 * Helper function: returns the subtree holding the aligned block
+	 * <tt>[start, start + blockSize)</tt>, the block must be inside this list.
+	 * 
+	 * @param start     index of the first element of the block, must be a
+	 *                  multiple of the block size
+	 * @param blockSize the number of elements, must be power of 2
+	 * @return the subtree root node
+	 */
+	private Node<T> subtree(int start, int blockSize) {
+		PStack<Node<T>> u = rNodes;
+		int tail = size;
+		while (start < tail - (tail & (-tail))) {
+			tail &= tail - 1;
+			u = u.pop();
+		}
+
+		Node<T> v = u.top();
+		int b = tail & (-tail);
+		int offset = tail - b;
+		while (b > blockSize) {
+			TreeNode<T> tn = (TreeNode<T>) v;
+			b >>= 1;
+			if (start - offset < b) {
+				v = tn.lson;
+			} else {
+				v = tn.rson;
+				offset += b;
+			}
+		}
+		return v;
+	}
+
+	/**
+	 * A change record of {@link TreeList#diff(TreeList)}.
+	 * 
+	 * @param <T> The type of elements held in this collection
+	 */
+	public static final class Change<T> {
+		public enum Type {
+			/** The element at the index is replaced. */
+			UPDATE,
+			/** The element is appended at the index. */
+			INSERT,
+			/** The element at the index is removed from the tail. */
+			REMOVE
+		}
+
+		public final Type type;
+		public final int index;
+		/** The element in the older version, null if inserted. */
+		public final T oldValue;
+		/** The element in the newer version, null if removed. */
+		public final T newValue;
+
+		Change(Type type, int index, T oldValue, T newValue) {
+			this.type = type;
+			this.index = index;
+			this.oldValue = oldValue;
+			this.newValue = newValue;
+		}
+
+		@Override
+		public String toString() {
+			return type + "(" + index + ", " + oldValue + ", " + newValue + ")";
+		}
+	}
+
+	/**
+	 * Walks two lists by a preallocated stack of the pending pairs of subtrees,
+	 * like {@link NodeIterator}.
+	 */
+	private static class DiffIterator<T> implements Iterator<Change<T>> {
+		/** The maximum number of pending pairs, one per block and per level */
+		private static final int MAX_PENDING = 64;
+
+		private final TreeList<T> a;
+		private final TreeList<T> b;
+		private final Node<T>[] us;
+		private final Node<T>[] vs;
+		private final int[] offsets;
+		private final int[] sizes;
+		private int top;
+		/** The next index at the tail to be reported */
+		private int tail;
+		private Change<T> next;
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		DiffIterator(TreeList<T> a, TreeList<T> b) {
+			this.a = a;
+			this.b = b;
+			us = new Node[MAX_PENDING];
+			vs = new Node[MAX_PENDING];
+			offsets = new int[MAX_PENDING];
+			sizes = new int[MAX_PENDING];
+
+			int common = Math.min(a.size, b.size);
+			tail = common;
+			if (a != b) {
+				// the first (largest) block at the top
+				for (int end = common; end > 0; end &= end - 1) {
+					int blockSize = end & (-end);
+					int start = end - blockSize;
+					push(a.subtree(start, blockSize), b.subtree(start, blockSize), start, blockSize);
+				}
+			}
+			next = advance();
+		}
+
+		private void push(Node<T> u, Node<T> v, int offset, int size) {
+			us[top] = u;
+			vs[top] = v;
+			offsets[top] = offset;
+			sizes[top] = size;
+			top++;
+		}
+
+		private Change<T> advance() {
+			while (top > 0) {
+				top--;
+				Node<T> u = us[top];
+				Node<T> v = vs[top];
+				int offset = offsets[top];
+				int size = sizes[top];
+				us[top] = null;
+				vs[top] = null;
+				if (u == v)
+					continue;
+
+				if (size == 1) {
+					T x = ((DataNode<T>) u).val;
+					T y = ((DataNode<T>) v).val;
+					if (!Objects.equals(x, y))
+						return new Change<>(Change.Type.UPDATE, offset, x, y);
+					continue;
+				}
+
+				TreeNode<T> p = (TreeNode<T>) u;
+				TreeNode<T> q = (TreeNode<T>) v;
+				int half = size >> 1;
+				push(p.rson, q.rson, offset + half, half);
+				push(p.lson, q.lson, offset, half);
+			}
+
+			if (tail < a.size) {
+				int index = tail++;
+				return new Change<>(Change.Type.REMOVE, index, a.get(index), null);
+			}
+			if (tail < b.size) {
+				int index = tail++;
+				return new Change<>(Change.Type.INSERT, index, null, b.get(index));
+			}
+			return null;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public Change<T> next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			Change<T> c = next;
+			next = advance();
+			return c;
+		}
+	}
+
+	/**
+	 * Returns a transient builder, see {@link Builder}.
+	 * 
+	 * @param <T> The type of elements held in this collection
+	 * @return An empty builder.
+	 */
+	public static <T> Builder<T> builder() {
+		return new Builder<>();
+	}
+
+	/**
+	 * Returns a transient builder starts with the elements of this list. The
+	 * trees of this list are shared, not copied.
+	 * 
+	 * @return A builder holds the elements of this list.
+	 */
+	public Builder<T> toBuilder() {
+		Builder<T> builder = new Builder<>();
+		PStack<Node<T>> u = rNodes;
+		for (int tail = size; tail > 0; tail &= tail - 1) {
+			builder.roots[Integer.numberOfTrailingZeros(tail)] = u.top();
+			u = u.pop();
+		}
+		builder.size = size;
+		return builder;
+	}
+
+	/**
+	 * Transient (owned-mutation) builder for bulk construction, like the
+	 * transients in Clojure.
+	 * 
+	 * <p>
+	 * The builder owns a table of the perfect trees indexed by their height, and
+	 * updates the table in place. Appending an element only allocates the
+	 * {@link DataNode} and the {@link TreeNode}s which stay in the final list,
+	 * there is no intermediate {@link TreeList} or {@link PStack} spine.
+	 * {@link #build()} freezes the current content into an ordinary persistent
+	 * list, and the builder can be used after that without affecting the built
+	 * lists.
+	 * </p>
+	 * 
+	 * <p>
+	 * The builder is not thread-safe.
+	 * </p>
+	 * 
+	 * @param <T> The type of elements held in this collection
+	 */
+	public static final class Builder<T> {
+		/** roots[i] is the perfect tree of size 2^i if the i-th bit of size is set */
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private final Node<T>[] roots = new Node[32];
+		/** The number of elements in this builder. */
+		private int size;
+
+		private Builder() {
+		}
+
+		/**
+		 * Appends the specified element to the end of this builder.
+		 * 
+		 * @param value element to be append
+		 * @return this builder
+		 */
+		public Builder<T> add(T value) {
+			Node<T> data = new DataNode<>(value);
+			int i = 0;
+			for (; ((size >> i) & 1) != 0; i++) {
+				data = new TreeNode<>(roots[i], data);
+				roots[i] = null;
+			}
+			roots[i] = data;
+			size++;
+			return this;
+		}
+
+		/**
+		 * Appends all of the elements in the specified iterable in iteration order.
+		 * 
+		 * @param values elements to be append
+		 * @return this builder
+		 */
+		public Builder<T> addAll(Iterable<? extends T> values) {
+			for (T value : values)
+				add(value);
+			return this;
+		}
+
+		/**
+		 * Returns the number of elements in this builder.
+		 * 
+		 * @return the number of elements in this builder
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * Freezes the current content into a persistent list in O(log n) time.
+		 * 
+		 * @return the persistent list contains all appended elements.
+		 */
+		public TreeList<T> build() {
+			if (size == 0)
+				return create();
+			PStack<Node<T>> u = PCollections.emptyStack();
+			for (int i = roots.length - 1; i >= 0; i--) {
+				if (roots[i] != null)
+					u = u.push(roots[i]);
+			}
+			return new TreeList<>(u, size);
+		}
+	}
+
 	public static interface Node<T> { // NOSONAR
 	}
 
 	public static final class TreeNode<T> implements Node<T> {
 		public final Node<T> lson;
 		public final Node<T> rson;
+		/** Cached hash code of the leaves, see {@link LeafTrees#hashOf(Node, int)}, 0 if not computed. */
+		int hash;
 
 		public TreeNode(Node<T> l, Node<T> r) {
 			this.lson = l;
@@ -231,100 +645,132 @@ public class TreeList<T> extends PList<T> {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * The hash codes of subtrees are cached, so it takes O(log n) time to
+	 * recompute a version derived by O(1) updates.
+	 * </p>
+	 */
+	@Override
+	public int hashCode() {
+		// fold the trees from the last one
+		int hash = 1;
+		int pow = 1;
+		PStack<Node<T>> u = rNodes;
+		for (int tail = size; tail > 0; tail &= tail - 1) {
+			int b = tail & (-tail);
+			hash = (LeafTrees.hashOf(u.top(), b) - 1) * pow + hash;
+			pow *= LeafTrees.pow31(b);
+			u = u.pop();
+		}
+		return hash;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * Two {@link TreeList}s of the same size have the same shape, so the trees
+	 * are compared pairwise and the shared subtrees are skipped.
+	 * </p>
+	 */
+	@Override
+	public boolean equals(Object other) {
+		if (this == other)
+			return true;
+		if (!(other instanceof TreeList))
+			return super.equals(other);
+
+		TreeList<?> list = (TreeList<?>) other;
+		if (size != list.size)
+			return false;
+		PStack<? extends Node<?>> u = rNodes;
+		PStack<? extends Node<?>> v = list.rNodes;
+		for (int tail = size; tail > 0; tail &= tail - 1) {
+			if (!LeafTrees.sameContent(u.top(), v.top()))
+				return false;
+			u = u.pop();
+			v = v.pop();
+		}
+		return true;
+	}
+
 	@Override
 	public Iterator<T> iterator() {
-		return new TreeListIterator<>(this);
+		return new NodeIterator<>(rNodes);
 	}
 
+	/**
+	 * Iterates the leaves of a sequence of trees from left to right.
+	 * 
+	 * <p>
+	 * The cursor is a preallocated stack of the pending subtrees, so the iterator
+	 * does not allocate anything per element. The stack holds the remaining roots
+	 * and at most one right subtree per level of the current tree.
+	 * </p>
+	 */
 	public static class NodeIterator<T> implements Iterator<T> {
-		private Deque<StackNode<T>> stk = new ArrayDeque<>();
+		/** The maximum height of a tree */
+		private static final int MAX_DEPTH = 32;
 
-		static class StackNode<T> {
-			Node<T> node;
-			boolean left;
-
-			StackNode(Node<T> node, boolean left) {
-				this.node = node;
-				this.left = left;
-			}
-		}
+		private final Node<T>[] stk;
+		private int top;
 
+		/**
+		 * Creates an iterator over the leaves of the tree.
+		 * 
+		 * @param root the tree root
+		 */
 		public NodeIterator(Node<T> root) {
-			stk.addLast(new StackNode<T>(root, true));
-			while (root instanceof TreeNode) {
-				Node<T> u = ((TreeNode<T>) root).lson;
-				stk.addLast(new StackNode<T>(u, true));
-				root = u;
-			}
-		}
-
-		@Override
-		public boolean hasNext() {
-			return !stk.isEmpty();
+			stk = newStack(1);
+			stk[top++] = root;
 		}
 
-		@Override
-		public T next() {
-			if (!hasNext())
-				throw new NoSuchElementException();
-			T val = ((DataNode<T>) stk.getLast().node).val;
-			findNext();
-			return val;
+		/**
+		 * Creates an iterator over the leaves of the first <tt>n</tt> trees.
+		 * 
+		 * @param roots the tree roots in iteration order
+		 * @param n     the number of trees
+		 */
+		public NodeIterator(Node<T>[] roots, int n) {
+			stk = newStack(n);
+			for (int i = n - 1; i >= 0; i--)
+				stk[top++] = roots[i];
 		}
 
-		private void findNext() {
-			stk.removeLast();
-			while (!stk.isEmpty() && !stk.peekLast().left) {
-				stk.removeLast();
-			}
-			if (!stk.isEmpty()) {
-				stk.peekLast().left = false;
-				Node<T> root = ((TreeNode<T>) stk.peekLast().node).rson;
-				stk.addLast(new StackNode<T>(root, true));
-				while (root instanceof TreeNode) {
-					Node<T> u = ((TreeNode<T>) root).lson;
-					stk.addLast(new StackNode<T>(u, true));
-					root = u;
-				}
-			}
+		/**
+		 * Creates an iterator over the leftist leaf trees, the smallest (last) tree
+		 * is at the top of stack.
+		 */
+		private NodeIterator(PStack<Node<T>> rNodes) {
+			stk = newStack(rNodes.size());
+			for (Node<T> u : rNodes)
+				stk[top++] = u;
 		}
-	}
-
-	static class TreeListIterator<T> implements Iterator<T> {
-		private PStack<Node<T>> rNodes;
-		private NodeIterator<T> currentItr;
-		private T next;
 
-		public TreeListIterator(TreeList<T> array) {
-			rNodes = Rev.reverse(array.rNodes);
-			findNext();
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private static <T> Node<T>[] newStack(int n) {
+			return new Node[n + MAX_DEPTH];
 		}
 
 		@Override
 		public boolean hasNext() {
-			return currentItr != null;
+			return top > 0;
 		}
 
 		@Override
 		public T next() {
 			if (!hasNext())
 				throw new NoSuchElementException();
-			T val = next;
-			findNext();
-			return val;
-		}
-
-		private void findNext() {
-			if (currentItr != null && currentItr.hasNext()) {
-				next = currentItr.next();
-				return;
-			}
-			currentItr = null;
-			if (!rNodes.isEmpty()) {
-				currentItr = new NodeIterator<>(rNodes.top());
-				rNodes = rNodes.pop();
-				next = currentItr.next();
+			Node<T> u = stk[--top];
+			while (u instanceof TreeNode) {
+				TreeNode<T> tn = (TreeNode<T>) u;
+				stk[top++] = tn.rson;
+				u = tn.lson;
 			}
+			return ((DataNode<T>) u).val;
 		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,487 @@
+package persistent.array.fully;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import persistent.PFullyList;
+import persistent.PList;
+
+/**
+ * Concatenable leaf tree balanced by the AVL rule, the heights of two siblings
+ * differ by at most one.
+ *
+ * <p>
+ * Different from {@link DeTreeList}, the trees are not perfect, so two lists
+ * can be joined by walking down the spine of the higher one in O(|h1 - h2|)
+ * time. Splitting is a sequence of joins along one root-to-leaf path, and the
+ * height differences telescope to O(log n). Therefore, {@link #concat(PList)},
+ * {@link #splitAt(int)}, {@link #subList(int, int)}, {@link #insert(int, Object)}
+ * and {@link #remove(int)} take O(log n) time, and the other operations keep
+ * the O(log n) time of the balanced tree.
+ * </p>
+ *
+ * @author morrisy
+ *
+ * @param <T> The type of elements held in this collection
+ */
+public class AVLTreeList<T> extends PFullyList<T> {
+	/** The height of an AVL tree with 2^31 leaves is less than 1.45 * 31. */
+	private static final int MAX_HEIGHT = 48;
+
+	@SuppressWarnings("rawtypes")
+	/** The empty list. */
+	private static final AVLTreeList<?> EMPTY = new AVLTreeList();
+
+	/**
+	 * Returns an empty list.
+	 *
+	 * @param <T> The type of elements held in this collection
+	 * @return An empty list.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> AVLTreeList<T> create() {
+		return (AVLTreeList<T>) EMPTY;
+	}
+
+	/**
+	 * Returns a list contains the specified elements in O(n) time.
+	 *
+	 * @param <T>    The type of elements held in this collection
+	 * @param values the elements of the list
+	 * @return A list contains the specified elements.
+	 */
+	public static <T> AVLTreeList<T> ofAll(T[] values) {
+		return ofAll(Arrays.asList(values).iterator(), values.length);
+	}
+
+	/**
+	 * Returns a list contains the elements of the specified collection in
+	 * iteration order in O(n) time.
+	 *
+	 * @param <T>    The type of elements held in this collection
+	 * @param values the elements of the list
+	 * @return A list contains the specified elements.
+	 */
+	public static <T> AVLTreeList<T> ofAll(Collection<? extends T> values) {
+		return ofAll(values.iterator(), values.size());
+	}
+
+	/**
+	 * Returns a list contains the first <tt>size</tt> elements of the specified
+	 * iterator in O(n) time.
+	 *
+	 * @param <T>  The type of elements held in this collection
+	 * @param itr  the elements of the list
+	 * @param size the number of elements to be taken
+	 * @return A list contains the specified elements.
+	 * @throws IllegalArgumentException if the size is negative
+	 * @throws NoSuchElementException   if the iterator has less than
+	 *                                  <tt>size</tt> elements
+	 */
+	public static <T> AVLTreeList<T> ofAll(Iterator<? extends T> itr, int size) {
+		if (size < 0)
+			throw new IllegalArgumentException();
+		if (size == 0)
+			return create();
+		return new AVLTreeList<>(build(itr, size));
+	}
+
+	/**
+	 * Helper function: builds a tree of the specified size in iteration order,
+	 * the sizes of two siblings differ by at most one, so are the heights.
+	 */
+	private static <T> Node<T> build(Iterator<? extends T> itr, int size) {
+		if (size == 1)
+			return new Node<>(itr.next());
+		Node<T> l = build(itr, size >>> 1);
+		Node<T> r = build(itr, size - (size >>> 1));
+		return new Node<>(l, r);
+	}
+
+	/**
+	 * The result of {@link AVLTreeList#splitAt(int)}.
+	 *
+	 * @param <T> The type of elements held in this collection
+	 */
+	public static final class Split<T> {
+		/** The elements before the split position. */
+		public final AVLTreeList<T> left;
+		/** The elements from the split position. */
+		public final AVLTreeList<T> right;
+
+		Split(AVLTreeList<T> left, AVLTreeList<T> right) {
+			this.left = left;
+			this.right = right;
+		}
+	}
+
+	/**
+	 * The node of leaf tree, a leaf holds one element if both children are null.
+	 */
+	private static final class Node<T> {
+		private final Node<T> lson;
+		private final Node<T> rson;
+		private final T val;
+		private final int size;
+		private final int height;
+
+		Node(T val) {
+			this.lson = null;
+			this.rson = null;
+			this.val = val;
+			this.size = 1;
+			this.height = 0;
+		}
+
+		Node(Node<T> lson, Node<T> rson) {
+			this.lson = lson;
+			this.rson = rson;
+			this.val = null;
+			this.size = lson.size + rson.size;
+			this.height = Math.max(lson.height, rson.height) + 1;
+			assert Math.abs(lson.height - rson.height) <= 1;
+		}
+
+		boolean isLeaf() {
+			return lson == null;
+		}
+
+		@Override
+		public String toString() {
+			return isLeaf() ? "" + val : "(" + lson + ", " + rson + ")";
+		}
+	}
+
+	/** The root of tree, null if the list is empty. */
+	private final Node<T> root;
+
+	private AVLTreeList() {
+		this(null);
+	}
+
+	private AVLTreeList(Node<T> root) {
+		this.root = root;
+	}
+
+	/**
+	 * Helper function: wraps the specified tree.
+	 */
+	private static <T> AVLTreeList<T> of(Node<T> root) {
+		return root == null ? create() : new AVLTreeList<>(root);
+	}
+
+	private static int size(Node<?> u) {
+		return u == null ? 0 : u.size;
+	}
+
+	/**
+	 * Helper function: creates the parent of two trees whose heights differ by at
+	 * most two, and rotates once or twice if the difference is two.
+	 */
+	private static <T> Node<T> balance(Node<T> l, Node<T> r) {
+		int hl = l.height;
+		int hr = r.height;
+		if (hl > hr + 1) {
+			if (l.lson.height >= l.rson.height)
+				return new Node<>(l.lson, new Node<>(l.rson, r));
+			Node<T> m = l.rson;
+			return new Node<>(new Node<>(l.lson, m.lson), new Node<>(m.rson, r));
+		}
+		if (hr > hl + 1) {
+			if (r.rson.height >= r.lson.height)
+				return new Node<>(new Node<>(l, r.lson), r.rson);
+			Node<T> m = r.lson;
+			return new Node<>(new Node<>(l, m.lson), new Node<>(m.rson, r.rson));
+		}
+		return new Node<>(l, r);
+	}
+
+	/**
+	 * Helper function: concatenates two trees in O(|h1 - h2| + 1) time. The height
+	 * of result is at most one more than the higher tree.
+	 */
+	private static <T> Node<T> join(Node<T> l, Node<T> r) {
+		if (l == null)
+			return r;
+		if (r == null)
+			return l;
+		if (l.height > r.height + 1)
+			return balance(l.lson, join(l.rson, r));
+		if (r.height > l.height + 1)
+			return balance(join(l, r.lson), r.rson);
+		return new Node<>(l, r);
+	}
+
+	/**
+	 * Helper function: the tree of the first <tt>n</tt> elements.
+	 */
+	private static <T> Node<T> take(Node<T> u, int n) {
+		if (n == 0)
+			return null;
+		if (n == u.size)
+			return u;
+		int ls = u.lson.size;
+		if (n <= ls)
+			return take(u.lson, n);
+		return join(u.lson, take(u.rson, n - ls));
+	}
+
+	/**
+	 * Helper function: the tree without the first <tt>n</tt> elements.
+	 */
+	private static <T> Node<T> drop(Node<T> u, int n) {
+		if (n == 0)
+			return u;
+		if (n == u.size)
+			return null;
+		int ls = u.lson.size;
+		if (n >= ls)
+			return drop(u.rson, n - ls);
+		return join(drop(u.lson, n), u.rson);
+	}
+
+	private static <T> Node<T> insert(Node<T> u, int index, T value) {
+		if (u.isLeaf())
+			return index == 0 ? new Node<>(new Node<>(value), u) : new Node<>(u, new Node<>(value));
+		int ls = u.lson.size;
+		if (index <= ls)
+			return balance(insert(u.lson, index, value), u.rson);
+		return balance(u.lson, insert(u.rson, index - ls, value));
+	}
+
+	private static <T> Node<T> remove(Node<T> u, int index) {
+		if (u.isLeaf())
+			return null;
+		int ls = u.lson.size;
+		if (index < ls) {
+			Node<T> l = remove(u.lson, index);
+			return l == null ? u.rson : balance(l, u.rson);
+		}
+		Node<T> r = remove(u.rson, index - ls);
+		return r == null ? u.lson : balance(u.lson, r);
+	}
+
+	private static <T> Node<T> setValue(Node<T> u, int index, T value) {
+		if (u.isLeaf())
+			return new Node<>(value);
+		int ls = u.lson.size;
+		if (index < ls)
+			return new Node<>(setValue(u.lson, index, value), u.rson);
+		return new Node<>(u.lson, setValue(u.rson, index - ls, value));
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return root == null;
+	}
+
+	@Override
+	public int size() {
+		return size(root);
+	}
+
+	@Override
+	public T get(int index) {
+		if (index < 0 || index >= size())
+			throw new IndexOutOfBoundsException();
+		Node<T> u = root;
+		while (!u.isLeaf()) {
+			int ls = u.lson.size;
+			if (index < ls) {
+				u = u.lson;
+			} else {
+				u = u.rson;
+				index -= ls;
+			}
+		}
+		return u.val;
+	}
+
+	@Override
+	public AVLTreeList<T> set(int index, T value) {
+		if (index < 0 || index >= size())
+			throw new IndexOutOfBoundsException();
+		return new AVLTreeList<>(setValue(root, index, value));
+	}
+
+	@Override
+	public T front() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		Node<T> u = root;
+		while (!u.isLeaf())
+			u = u.lson;
+		return u.val;
+	}
+
+	@Override
+	public T back() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		Node<T> u = root;
+		while (!u.isLeaf())
+			u = u.rson;
+		return u.val;
+	}
+
+	@Override
+	public AVLTreeList<T> pushFront(T value) {
+		return new AVLTreeList<>(join(new Node<>(value), root));
+	}
+
+	@Override
+	public AVLTreeList<T> popFront() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		return of(remove(root, 0));
+	}
+
+	@Override
+	public AVLTreeList<T> pushBack(T value) {
+		return new AVLTreeList<>(join(root, new Node<>(value)));
+	}
+
+	@Override
+	public AVLTreeList<T> popBack() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		return of(remove(root, root.size - 1));
+	}
+
+	/**
+	 * Inserts the specified element at the specified position in this list in
+	 * O(log n) time. Shifts the element currently at that position and any
+	 * subsequent elements to the right.
+	 *
+	 * @param index index at which the specified element is to be inserted
+	 * @param value element to be inserted
+	 * @return the new array, which contains the specified element at the
+	 *         specified position.
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *                                   (<tt>index &lt; 0 || index &gt; size()</tt>)
+	 */
+	public AVLTreeList<T> insert(int index, T value) {
+		if (index < 0 || index > size())
+			throw new IndexOutOfBoundsException();
+		if (isEmpty())
+			return new AVLTreeList<>(new Node<>(value));
+		return new AVLTreeList<>(insert(root, index, value));
+	}
+
+	/**
+	 * Removes the element at the specified position in this list in O(log n)
+	 * time. Shifts any subsequent elements to the left.
+	 *
+	 * @param index the index of the element to be removed
+	 * @return the new array, which removes the element at the specified
+	 *         position.
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *                                   (<tt>index &lt; 0 || index &gt;= size()</tt>)
+	 */
+	public AVLTreeList<T> remove(int index) {
+		if (index < 0 || index >= size())
+			throw new IndexOutOfBoundsException();
+		return of(remove(root, index));
+	}
+
+	/**
+	 * Returns the concatenation of this list and the specified list. It takes
+	 * O(log n) time if the specified list is an {@link AVLTreeList}, otherwise the
+	 * specified list is copied in O(m) time first.
+	 *
+	 * @param other the elements to be appended to this list
+	 * @return the new array, which contains the elements of this list followed
+	 *         by the elements of the specified list.
+	 */
+	public AVLTreeList<T> concat(PList<? extends T> other) {
+		AVLTreeList<T> r = other instanceof AVLTreeList ? cast((AVLTreeList<? extends T>) other)
+				: ofAll(other.iterator(), other.size());
+		if (r.isEmpty())
+			return this;
+		if (isEmpty())
+			return r;
+		return new AVLTreeList<>(join(root, r.root));
+	}
+
+	/**
+	 * Persistent lists are immutable, a list of <tt>? extends T</tt> can be read
+	 * as a list of <tt>T</tt>.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> AVLTreeList<T> cast(AVLTreeList<? extends T> list) {
+		return (AVLTreeList<T>) list;
+	}
+
+	/**
+	 * Returns the elements in the range <tt>[from, to)</tt> in O(log n) time.
+	 *
+	 * @param from low endpoint (inclusive) of the sub list
+	 * @param to   high endpoint (exclusive) of the sub list
+	 * @return the new array, which contains the elements in the specified range.
+	 * @throws IndexOutOfBoundsException if the range is out of range
+	 *                                   (<tt>from &lt; 0 || to &gt; size() || from &gt; to</tt>)
+	 */
+	public AVLTreeList<T> subList(int from, int to) {
+		if (from < 0 || to > size() || from > to)
+			throw new IndexOutOfBoundsException();
+		if (from == to)
+			return create();
+		return new AVLTreeList<>(take(drop(root, from), to - from));
+	}
+
+	/**
+	 * Splits this list at the specified position in O(log n) time.
+	 *
+	 * @param index the size of the left part
+	 * @return the elements before the specified position, and the remaining
+	 *         elements.
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *                                   (<tt>index &lt; 0 || index &gt; size()</tt>)
+	 */
+	public Split<T> splitAt(int index) {
+		if (index < 0 || index > size())
+			throw new IndexOutOfBoundsException();
+		if (isEmpty())
+			return new Split<>(this, this);
+		return new Split<>(of(take(root, index)), of(drop(root, index)));
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new AVLTreeIterator<>(root);
+	}
+
+	/**
+	 * In-order traversal of leaves with an array stack, no allocation per
+	 * element.
+	 */
+	private static class AVLTreeIterator<T> implements Iterator<T> {
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private final Node<T>[] stack = new Node[MAX_HEIGHT];
+		private int top;
+
+		AVLTreeIterator(Node<T> root) {
+			if (root != null)
+				stack[top++] = root;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return top > 0;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			Node<T> u = stack[--top];
+			while (!u.isLeaf()) {
+				stack[top++] = u.rson;
+				u = u.lson;
+			}
+			return u.val;
+		}
+	}
+}
@@ -1,16 +1,20 @@
 package persistent.array.fully;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 import persistent.PDeque;
 import persistent.PFullyList;
-import persistent.PList;
+import persistent.array.LeafTrees;
+import persistent.array.TreeList;
 import persistent.array.TreeList.Node;
 import persistent.array.TreeList.NodeIterator;
 import persistent.array.TreeList.TreeNode;
 import persistent.array.TreeList.DataNode;
 import persistent.util.PCollections;
+import persistent.util.SortedUpdates;
 
 /**
  * Paper: "Leaf Trees", Kaldewaij, A., & Dielissen, V. J., 1996
@@ -40,6 +44,56 @@ public class DeTreeList<T> extends PFullyList<T> {
 		return (DeTreeList<T>) EMPTY;
 	}
 
+	/**
+	 * Returns a list contains the specified elements in O(n) time.
+	 * 
+	 * @param <T>    The type of elements held in this collection
+	 * @param values the elements of the list
+	 * @return A list contains the specified elements.
+	 */
+	public static <T> DeTreeList<T> ofAll(T[] values) {
+		return ofAll(Arrays.asList(values).iterator(), values.length);
+	}
+
+	/**
+	 * Returns a list contains the elements of the specified collection in
+	 * iteration order in O(n) time.
+	 * 
+	 * @param <T>    The type of elements held in this collection
+	 * @param values the elements of the list
+	 * @return A list contains the specified elements.
+	 */
+	public static <T> DeTreeList<T> ofAll(Collection<? extends T> values) {
+		return ofAll(values.iterator(), values.size());
+	}
+
+	/**
+	 * Returns a list contains the first <tt>size</tt> elements of the specified
+	 * iterator in O(n) time, see {@link TreeList#ofAll(Iterator, int)}.
+	 * 
+	 * @param <T>  The type of elements held in this collection
+	 * @param itr  the elements of the list
+	 * @param size the number of elements to be taken
+	 * @return A list contains the specified elements.
+	 * @throws IllegalArgumentException if the size is negative
+	 * @throws NoSuchElementException   if the iterator has less than
+	 *                                  <tt>size</tt> elements
+	 */
+	public static <T> DeTreeList<T> ofAll(Iterator<? extends T> itr, int size) {
+		if (size < 0)
+			throw new IllegalArgumentException();
+		if (size == 0)
+			return create();
+
+		PDeque<ListNode<T>> u = PCollections.emptyDeque();
+		for (int i = 31; i >= 0; i--) {
+			if (((size >>> i) & 1) != 0)
+				u = u.pushBack(new ListNode<>(LeafTrees.buildTree(itr, 1 << i), 1 << i));
+		}
+		return new DeTreeList<>(u, size, leftmost(u.front().root), rightmost(u.back().root), secondOf(u),
+				secondLastOf(u));
+	}
+
 	private static class ListNode<T> {
 		private final int size;
 		private final Node<T> root;
@@ -56,14 +110,79 @@ public class DeTreeList<T> extends PFullyList<T> {
 
 	private final int size;
 	private final PDeque<ListNode<T>> roots;
+	/** The first element, cached for O(1) {@link #front()}. */
+	private final T front;
+	/** The last element, cached for O(1) {@link #back()}. */
+	private final T back;
+	/**
+	 * The tree next to the first one, or null for a single tree, cached so that
+	 * {@link #get(int)} reads it without popping the deque.
+	 */
+	private final ListNode<T> second;
+	/** The tree next to the last one, or null for a single tree. */
+	private final ListNode<T> secondLast;
 
 	private DeTreeList() {
-		this(PCollections.emptyDeque(), 0);
+		this(PCollections.emptyDeque(), 0, null, null, null, null);
 	}
 
-	private DeTreeList(PDeque<ListNode<T>> roots, int size) {
+	private DeTreeList(PDeque<ListNode<T>> roots, int size, T front, T back, ListNode<T> second,
+			ListNode<T> secondLast) {
 		this.roots = roots;
 		this.size = size;
+		this.front = front;
+		this.back = back;
+		this.second = second;
+		this.secondLast = secondLast;
+	}
+
+	private static <T> T leftmost(Node<T> u) {
+		while (u instanceof TreeNode)
+			u = ((TreeNode<T>) u).lson;
+		return ((DataNode<T>) u).val;
+	}
+
+	private static <T> T rightmost(Node<T> u) {
+		while (u instanceof TreeNode)
+			u = ((TreeNode<T>) u).rson;
+		return ((DataNode<T>) u).val;
+	}
+
+	/**
+	 * Helper function: returns the tree next to the first one of the deque, or
+	 * null if there is only one tree. It pops the deque, and is only used when
+	 * an update cannot tell the tree from the trees it touched.
+	 */
+	private static <T> ListNode<T> secondOf(PDeque<ListNode<T>> u) {
+		return u.size() < 2 ? null : u.popFront().front();
+	}
+
+	/**
+	 * Helper function: returns the tree next to the last one of the deque, or
+	 * null if there is only one tree, see {@link #secondOf(PDeque)}.
+	 */
+	private static <T> ListNode<T> secondLastOf(PDeque<ListNode<T>> u) {
+		return u.size() < 2 ? null : u.popBack().back();
+	}
+
+	private static <T> ListNode<T> secondOf(ListNode<T>[] t) {
+		return t.length < 2 ? null : t[1];
+	}
+
+	private static <T> ListNode<T> secondLastOf(ListNode<T>[] t) {
+		return t.length < 2 ? null : t[t.length - 2];
+	}
+
+	/**
+	 * Helper function: returns the trees in deque order in a new array.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private ListNode<T>[] trees() {
+		ListNode<T>[] t = new ListNode[roots.size()];
+		int n = 0;
+		for (ListNode<T> v : roots)
+			t[n++] = v;
+		return t;
 	}
 
 	@Override
@@ -82,8 +201,12 @@ public class DeTreeList<T> extends PFullyList<T> {
 				break;
 			}
 		}
-		u = u.pushFront(new ListNode<>(data, s));
-		return new DeTreeList<>(u, size + 1);
+		// the untouched trees keep the second last one if there are two of them
+		ListNode<T> v = new ListNode<>(data, s);
+		ListNode<T> next = u.isEmpty() ? null : u.front();
+		ListNode<T> prev = u.size() >= 2 ? secondLast : u.isEmpty() ? null : v;
+		u = u.pushFront(v);
+		return new DeTreeList<>(u, size + 1, value, isEmpty() ? value : back, next, prev);
 	}
 
 	@Override
@@ -95,11 +218,23 @@ public class DeTreeList<T> extends PFullyList<T> {
 		PDeque<ListNode<T>> u = roots;
 		ListNode<T> v = u.front();
 		u = u.popFront();
+		final int rest = u.size();
+		// the first two and the last two split trees, in pushing order
+		ListNode<T> first = null, next = null, last = null, prev = null;
 		while (v.size > 1) {
-			u = u.pushFront(new ListNode<>(((TreeNode<T>) v.root).rson, v.size >> 1));
+			ListNode<T> r = new ListNode<>(((TreeNode<T>) v.root).rson, v.size >> 1);
+			u = u.pushFront(r);
+			if (first == null)
+				first = r;
+			else if (next == null)
+				next = r;
+			prev = last;
+			last = r;
 			v = new ListNode<>(((TreeNode<T>) v.root).lson, v.size >> 1);
 		}
-		return new DeTreeList<>(u, size - 1);
+		ListNode<T> front2 = prev != null ? prev : last != null ? second : secondOf(u);
+		ListNode<T> back2 = rest >= 2 ? secondLast : rest == 1 ? first : next;
+		return new DeTreeList<>(u, size - 1, leftmost(u.front().root), back, front2, back2);
 	}
 
 	@Override
@@ -118,8 +253,11 @@ public class DeTreeList<T> extends PFullyList<T> {
 				break;
 			}
 		}
-		u = u.pushBack(new ListNode<>(data, s));
-		return new DeTreeList<>(u, size + 1);
+		ListNode<T> v = new ListNode<>(data, s);
+		ListNode<T> prev = u.isEmpty() ? null : u.back();
+		ListNode<T> next = u.size() >= 2 ? second : u.isEmpty() ? null : v;
+		u = u.pushBack(v);
+		return new DeTreeList<>(u, size + 1, isEmpty() ? value : front, value, next, prev);
 	}
 
 	@Override
@@ -131,11 +269,22 @@ public class DeTreeList<T> extends PFullyList<T> {
 		PDeque<ListNode<T>> u = roots;
 		ListNode<T> v = u.back();
 		u = u.popBack();
+		final int rest = u.size();
+		ListNode<T> first = null, next = null, last = null, prev = null;
 		while (v.size > 1) {
-			u = u.pushBack(new ListNode<>(((TreeNode<T>) v.root).lson, v.size >> 1));
+			ListNode<T> l = new ListNode<>(((TreeNode<T>) v.root).lson, v.size >> 1);
+			u = u.pushBack(l);
+			if (first == null)
+				first = l;
+			else if (next == null)
+				next = l;
+			prev = last;
+			last = l;
 			v = new ListNode<>(((TreeNode<T>) v.root).rson, v.size >> 1);
 		}
-		return new DeTreeList<>(u, size - 1);
+		ListNode<T> back2 = prev != null ? prev : last != null ? secondLast : secondLastOf(u);
+		ListNode<T> front2 = rest >= 2 ? second : rest == 1 ? first : next;
+		return new DeTreeList<>(u, size - 1, front, rightmost(u.back().root), front2, back2);
 	}
 
 	@Override
@@ -148,18 +297,86 @@ public class DeTreeList<T> extends PFullyList<T> {
 		return size;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * O(log n) time. The trees are searched from the closer end, and O(1) for
+	 * the first and the last elements. The two trees at each end are cached, so
+	 * an access near the ends, e.g. on a sliding window, allocates nothing.
+	 * </p>
+	 * 
+	 * @param index {@inheritDoc}}
+	 *
+	 * @return {@inheritDoc}}
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
 	@Override
 	public T get(int index) {
 		if (index < 0 || index >= size)
 			throw new IndexOutOfBoundsException();
-		PDeque<ListNode<T>> u = roots;
-		for (ListNode<T> v : u) {
+		if (index == 0)
+			return front;
+		if (index == size - 1)
+			return back;
+
+		if (index < (size >> 1)) {
+			ListNode<T> v = roots.front();
 			if (index < v.size)
 				return get(v.root, v.size >> 1, index);
-			index -= v.size;
+			int offset = v.size;
+			if (index < offset + second.size)
+				return get(second.root, second.size >> 1, index - offset);
+			offset = 0;
+			for (Iterator<ListNode<T>> it = roots.iterator();;) {
+				v = it.next();
+				if (index < offset + v.size)
+					return get(v.root, v.size >> 1, index - offset);
+				offset += v.size;
+			}
+		} else {
+			ListNode<T> v = roots.back();
+			int offset = size - v.size;
+			if (index >= offset)
+				return get(v.root, v.size >> 1, index - offset);
+			offset -= secondLast.size;
+			if (index >= offset)
+				return get(secondLast.root, secondLast.size >> 1, index - offset);
+			offset = size;
+			for (Iterator<ListNode<T>> it = roots.descendingIterator();;) {
+				v = it.next();
+				offset -= v.size;
+				if (index >= offset)
+					return get(v.root, v.size >> 1, index - offset);
+			}
+		}
+	}
+
+	/**
+	 * Helper function: finds the tree holding the element at the specified
+	 * index, the trees are scanned from the closer end.
+	 * 
+	 * @param t     the trees in deque order
+	 * @param index index of the element
+	 * @return the order of tree in the high 32 bits, and the index of the first
+	 *         element of the tree in the low 32 bits
+	 */
+	private long locate(ListNode<T>[] t, int index) {
+		if (index < (size >> 1)) {
+			int offset = 0;
+			for (int i = 0;; i++) {
+				if (index < offset + t[i].size)
+					return ((long) i << 32) | offset;
+				offset += t[i].size;
+			}
+		} else {
+			int offset = size;
+			for (int i = t.length - 1;; i--) {
+				offset -= t[i].size;
+				if (index >= offset)
+					return ((long) i << 32) | offset;
+			}
 		}
-		assert false;
-		return null;
 	}
 
 	private static <T> T get(Node<T> u, int size, int index) {
@@ -177,19 +394,57 @@ public class DeTreeList<T> extends PFullyList<T> {
 		return ((DataNode<T>) u).val;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * O(log n) time. The tree is searched from the closer end, and the deque of
+	 * trees is rebuilt from that end.
+	 * </p>
+	 * 
+	 * @param index {@inheritDoc}
+	 * @param value {@inheritDoc}
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
 	@Override
-	public PList<T> set(int index, T value) {
+	public DeTreeList<T> set(int index, T value) {
 		if (index < 0 || index >= size)
 			throw new IndexOutOfBoundsException();
 
-		return new DeTreeList<>(set(roots, index, value), size);
+		ListNode<T>[] t = trees();
+		long loc = locate(t, index);
+		int i = (int) (loc >>> 32);
+		ListNode<T> v = t[i];
+		t[i] = new ListNode<>(setValue(v.root, v.size >> 1, index - (int) loc, value), v.size);
+		return new DeTreeList<>(replace(t, i, i), size, index == 0 ? value : front,
+				index == size - 1 ? value : back, secondOf(t), secondLastOf(t));
 	}
 
-	private static <T> PDeque<ListNode<T>> set(PDeque<ListNode<T>> u, int index, T value) {
-		ListNode<T> v = u.front();
-		if (index < v.size)
-			return u.popFront().pushFront(new ListNode<>(setValue(v.root, v.size >> 1, index, value), v.size));
-		return set(u.popFront(), index - v.size, value).pushFront(v);
+	/**
+	 * Helper function: rebuilds the deque of trees, where the trees
+	 * <tt>[first, last]</tt> are replaced by the specified ones. The deque is
+	 * rebuilt from the closer end.
+	 * 
+	 * @param t     the new trees in deque order
+	 * @param first the first replaced tree, inclusive
+	 * @param last  the last replaced tree, inclusive
+	 * @return the deque of the new trees
+	 */
+	private PDeque<ListNode<T>> replace(ListNode<T>[] t, int first, int last) {
+		final int n = t.length;
+		PDeque<ListNode<T>> u = roots;
+		if (n - first <= last + 1) {
+			for (int i = first; i < n; i++)
+				u = u.popBack();
+			for (int i = first; i < n; i++)
+				u = u.pushBack(t[i]);
+		} else {
+			for (int i = 0; i <= last; i++)
+				u = u.popFront();
+			for (int i = last; i >= 0; i--)
+				u = u.pushFront(t[i]);
+		}
+		return u;
 	}
 
 	private static <T> Node<T> setValue(Node<T> u, int size, int index, T value) {
@@ -206,59 +461,131 @@ public class DeTreeList<T> extends PFullyList<T> {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * O(k log k + k log n) time. Each touched tree is path-copied once, and the
+	 * deque of trees is rebuilt from the closer end.
+	 * </p>
+	 * 
+	 * @param indices {@inheritDoc}
+	 * @param values  {@inheritDoc}
+	 * @throws IllegalArgumentException  {@inheritDoc}
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	@Override
+	public DeTreeList<T> setAll(int[] indices, T[] values) {
+		SortedUpdates<T> up = SortedUpdates.of(indices, values, size);
+		if (up.length() == 0)
+			return this;
+
+		ListNode<T>[] t = trees();
+		final int n = t.length;
+		int first = -1;
+		int last = -1;
+		for (int i = 0, lo = 0, offset = 0; i < n; offset += t[i].size, i++) {
+			ListNode<T> v = t[i];
+			int hi = up.lowerBound(lo, up.length(), offset + v.size);
+			if (lo < hi) {
+				t[i] = new ListNode<>(LeafTrees.setValues(v.root, v.size >> 1, offset, up, lo, hi), v.size);
+				if (first < 0)
+					first = i;
+				last = i;
+			}
+			lo = hi;
+		}
+
+		return new DeTreeList<>(replace(t, first, last), size, leftmost(t[0].root),
+				rightmost(t[n - 1].root), secondOf(t), secondLastOf(t));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * O(1) time, the first element is cached.
+	 * </p>
+	 */
 	@Override
 	public T front() {
 		if (isEmpty())
 			throw new NoSuchElementException();
-		return get(0);
+		return front;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * O(1) time, the last element is cached.
+	 * </p>
+	 */
 	@Override
 	public T back() {
 		if (isEmpty())
 			throw new NoSuchElementException();
-		return get(size - 1);
+		return back;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * The hash codes of subtrees are cached, see
+	 * {@link LeafTrees#hashOf(Node, int)}.
+	 * </p>
+	 */
 	@Override
-	public Iterator<T> iterator() {
-		return new DeListIterator<>(this);
+	public int hashCode() {
+		int hash = 1;
+		for (ListNode<T> v : trees())
+			hash = LeafTrees.concatHash(hash, LeafTrees.hashOf(v.root, v.size), v.size);
+		return hash;
 	}
 
-	static class DeListIterator<T> implements Iterator<T> {
-		private Iterator<ListNode<T>> current;
-		private NodeIterator<T> currentItr;
-		private T next;
-
-		public DeListIterator(DeTreeList<T> array) {
-			current = array.roots.iterator();
-			findNext();
-		}
-
-		@Override
-		public boolean hasNext() {
-			return currentItr != null;
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * If two {@link DeTreeList}s have the same sequence of tree sizes, the trees
+	 * are compared pairwise and the shared subtrees are skipped.
+	 * </p>
+	 */
+	@Override
+	public boolean equals(Object other) {
+		if (this == other)
+			return true;
+		if (!(other instanceof DeTreeList))
+			return super.equals(other);
+
+		@SuppressWarnings("unchecked")
+		DeTreeList<T> list = (DeTreeList<T>) other;
+		if (size != list.size)
+			return false;
+		ListNode<T>[] t = trees();
+		ListNode<T>[] r = list.trees();
+		if (t.length != r.length)
+			return super.equals(other);
+		for (int i = 0; i < t.length; i++) {
+			if (t[i].size != r[i].size)
+				return super.equals(other);
 		}
 
-		@Override
-		public T next() {
-			if (!hasNext())
-				throw new NoSuchElementException();
-			T val = next;
-			findNext();
-			return val;
+		for (int i = 0; i < t.length; i++) {
+			if (!LeafTrees.sameContent(t[i].root, r[i].root))
+				return false;
 		}
+		return true;
+	}
 
-		private void findNext() {
-			if (currentItr != null && currentItr.hasNext()) {
-				next = currentItr.next();
-				return;
-			}
-			currentItr = null;
-			if (current.hasNext()) {
-				currentItr = new NodeIterator<>(current.next().root);
-				next = currentItr.next();
-			}
-		}
+	@Override
+	public Iterator<T> iterator() {
+		ListNode<T>[] t = trees();
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		Node<T>[] nodes = new Node[t.length];
+		for (int i = 0; i < t.length; i++)
+			nodes[i] = t[i].root;
+		return new NodeIterator<>(nodes, nodes.length);
 	}
 }
@@ -0,0 +1,675 @@
+package persistent.array.fully;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import persistent.PFullyList;
+import persistent.PList;
+
+/**
+ * Paper: "Finger trees: a simple general-purpose data structure", Hinze, R., &
+ * Paterson, R., 2006
+ *
+ * <p>
+ * 2-3 finger tree measured by size. Each level keeps one to four items at both
+ * ends (the digits), and the nested tree in the middle holds the 2-3 nodes of
+ * the next level, so the elements near both ends are reached in O(1) time. The
+ * time complexity of {@link #pushFront(Object)}, {@link #pushBack(Object)},
+ * {@link #popFront()} and {@link #popBack()} is amortized O(1) when the
+ * versions are used in a single-threaded (ephemeral) way, and O(log n) in the
+ * worst case since the middle trees are evaluated eagerly. {@link #get(int)},
+ * {@link #set(int, Object)}, {@link #splitAt(int)} and {@link #concat(PList)}
+ * take O(log n) time.
+ * </p>
+ *
+ * @author morrisy
+ *
+ * @param <T> The type of elements held in this collection
+ */
+public class FingerTreeList<T> extends PFullyList<T> {
+	@SuppressWarnings("rawtypes")
+	/** The empty list. */
+	private static final FingerTreeList<?> EMPTY = new FingerTreeList(Empty.INSTANCE);
+
+	/**
+	 * Returns an empty list.
+	 *
+	 * @param <T> The type of elements held in this collection
+	 * @return An empty list.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> FingerTreeList<T> create() {
+		return (FingerTreeList<T>) EMPTY;
+	}
+
+	/**
+	 * Returns a list contains the specified elements in O(n) time.
+	 *
+	 * @param <T>    The type of elements held in this collection
+	 * @param values the elements of the list
+	 * @return A list contains the specified elements.
+	 */
+	public static <T> FingerTreeList<T> ofAll(T[] values) {
+		return ofAll(Arrays.asList(values).iterator(), values.length);
+	}
+
+	/**
+	 * Returns a list contains the elements of the specified collection in
+	 * iteration order in O(n) time.
+	 *
+	 * @param <T>    The type of elements held in this collection
+	 * @param values the elements of the list
+	 * @return A list contains the specified elements.
+	 */
+	public static <T> FingerTreeList<T> ofAll(Collection<? extends T> values) {
+		return ofAll(values.iterator(), values.size());
+	}
+
+	/**
+	 * Returns a list contains the first <tt>size</tt> elements of the specified
+	 * iterator in O(n) time.
+	 *
+	 * @param <T>  The type of elements held in this collection
+	 * @param itr  the elements of the list
+	 * @param size the number of elements to be taken
+	 * @return A list contains the specified elements.
+	 * @throws IllegalArgumentException if the size is negative
+	 * @throws NoSuchElementException   if the iterator has less than
+	 *                                  <tt>size</tt> elements
+	 */
+	public static <T> FingerTreeList<T> ofAll(Iterator<? extends T> itr, int size) {
+		if (size < 0)
+			throw new IllegalArgumentException();
+		FingerTree t = Empty.INSTANCE;
+		for (int i = 0; i < size; i++)
+			t = pushBack(t, itr.next(), 0);
+		return of(t);
+	}
+
+	/**
+	 * The result of {@link FingerTreeList#splitAt(int)}.
+	 *
+	 * @param <T> The type of elements held in this collection
+	 */
+	public static final class Split<T> {
+		/** The elements before the split position. */
+		public final FingerTreeList<T> left;
+		/** The elements from the split position. */
+		public final FingerTreeList<T> right;
+
+		Split(FingerTreeList<T> left, FingerTreeList<T> right) {
+			this.left = left;
+			this.right = right;
+		}
+	}
+
+	/**
+	 * The items of a tree are the elements at the top level (depth 0), and the
+	 * {@link Node}s of depth d at the nested tree of depth d.
+	 */
+	private abstract static class FingerTree {
+		abstract int size();
+	}
+
+	private static final class Empty extends FingerTree {
+		static final Empty INSTANCE = new Empty();
+
+		@Override
+		int size() {
+			return 0;
+		}
+	}
+
+	private static final class Single extends FingerTree {
+		final Object item;
+		final int size;
+
+		Single(Object item, int size) {
+			this.item = item;
+			this.size = size;
+		}
+
+		@Override
+		int size() {
+			return size;
+		}
+	}
+
+	private static final class Deep extends FingerTree {
+		/** One to four items at the front. */
+		final Object[] prefix;
+		/** The nodes of the next depth. */
+		final FingerTree middle;
+		/** One to four items at the back. */
+		final Object[] suffix;
+		final int size;
+
+		Deep(Object[] prefix, FingerTree middle, Object[] suffix, int size) {
+			this.prefix = prefix;
+			this.middle = middle;
+			this.suffix = suffix;
+			this.size = size;
+			assert prefix.length >= 1 && prefix.length <= 4 && suffix.length >= 1 && suffix.length <= 4;
+		}
+
+		@Override
+		int size() {
+			return size;
+		}
+	}
+
+	/**
+	 * 2-3 node with the number of elements in it.
+	 */
+	private static final class Node {
+		final Object[] items;
+		final int size;
+
+		Node(Object[] items, int size) {
+			this.items = items;
+			this.size = size;
+		}
+	}
+
+	private static final Object[] NO_ITEMS = new Object[0];
+
+	/** The tree of depth 0. */
+	private final FingerTree tree;
+
+	private FingerTreeList(FingerTree tree) {
+		this.tree = tree;
+	}
+
+	/**
+	 * Helper function: wraps the specified tree.
+	 */
+	private static <T> FingerTreeList<T> of(FingerTree tree) {
+		return tree instanceof Empty ? create() : new FingerTreeList<>(tree);
+	}
+
+	private static int measure(Object item, int depth) {
+		return depth == 0 ? 1 : ((Node) item).size;
+	}
+
+	private static int measure(Object[] items, int depth) {
+		if (depth == 0)
+			return items.length;
+		int s = 0;
+		for (Object item : items)
+			s += ((Node) item).size;
+		return s;
+	}
+
+	private static Node node(Object[] items, int depth) {
+		return new Node(items, measure(items, depth));
+	}
+
+	private static Deep deep(Object[] prefix, FingerTree middle, Object[] suffix, int depth) {
+		return new Deep(prefix, middle, suffix, measure(prefix, depth) + middle.size() + measure(suffix, depth));
+	}
+
+	private static FingerTree toTree(Object[] items, int depth) {
+		FingerTree t = Empty.INSTANCE;
+		for (Object item : items)
+			t = pushBack(t, item, depth);
+		return t;
+	}
+
+	private static FingerTree pushFront(FingerTree t, Object x, int depth) {
+		int s = measure(x, depth);
+		if (t instanceof Empty)
+			return new Single(x, s);
+		if (t instanceof Single) {
+			Single u = (Single) t;
+			return new Deep(new Object[] { x }, Empty.INSTANCE, new Object[] { u.item }, u.size + s);
+		}
+
+		Deep u = (Deep) t;
+		Object[] pr = u.prefix;
+		if (pr.length < 4) {
+			Object[] p = new Object[pr.length + 1];
+			p[0] = x;
+			System.arraycopy(pr, 0, p, 1, pr.length);
+			return new Deep(p, u.middle, u.suffix, u.size + s);
+		}
+		// the prefix is full, move three items into the next depth
+		Node n = node(new Object[] { pr[1], pr[2], pr[3] }, depth);
+		return new Deep(new Object[] { x, pr[0] }, pushFront(u.middle, n, depth + 1), u.suffix, u.size + s);
+	}
+
+	private static FingerTree pushBack(FingerTree t, Object x, int depth) {
+		int s = measure(x, depth);
+		if (t instanceof Empty)
+			return new Single(x, s);
+		if (t instanceof Single) {
+			Single u = (Single) t;
+			return new Deep(new Object[] { u.item }, Empty.INSTANCE, new Object[] { x }, u.size + s);
+		}
+
+		Deep u = (Deep) t;
+		Object[] sf = u.suffix;
+		if (sf.length < 4) {
+			Object[] p = Arrays.copyOf(sf, sf.length + 1);
+			p[sf.length] = x;
+			return new Deep(u.prefix, u.middle, p, u.size + s);
+		}
+		// the suffix is full, move three items into the next depth
+		Node n = node(new Object[] { sf[0], sf[1], sf[2] }, depth);
+		return new Deep(u.prefix, pushBack(u.middle, n, depth + 1), new Object[] { sf[3], x }, u.size + s);
+	}
+
+	private static Object front(FingerTree t) {
+		if (t instanceof Single)
+			return ((Single) t).item;
+		return ((Deep) t).prefix[0];
+	}
+
+	private static Object back(FingerTree t) {
+		if (t instanceof Single)
+			return ((Single) t).item;
+		Object[] sf = ((Deep) t).suffix;
+		return sf[sf.length - 1];
+	}
+
+	private static FingerTree popFront(FingerTree t, int depth) {
+		if (t instanceof Single)
+			return Empty.INSTANCE;
+		Deep u = (Deep) t;
+		Object[] pr = u.prefix;
+		if (pr.length > 1)
+			return new Deep(Arrays.copyOfRange(pr, 1, pr.length), u.middle, u.suffix, u.size - measure(pr[0], depth));
+		return deepL(NO_ITEMS, u.middle, u.suffix, depth);
+	}
+
+	private static FingerTree popBack(FingerTree t, int depth) {
+		if (t instanceof Single)
+			return Empty.INSTANCE;
+		Deep u = (Deep) t;
+		Object[] sf = u.suffix;
+		if (sf.length > 1)
+			return new Deep(u.prefix, u.middle, Arrays.copyOf(sf, sf.length - 1),
+					u.size - measure(sf[sf.length - 1], depth));
+		return deepR(u.prefix, u.middle, NO_ITEMS, depth);
+	}
+
+	/**
+	 * Helper function: creates the tree whose prefix may be empty, the first
+	 * node of the middle is borrowed if so.
+	 */
+	private static FingerTree deepL(Object[] prefix, FingerTree middle, Object[] suffix, int depth) {
+		if (prefix.length > 0)
+			return deep(prefix, middle, suffix, depth);
+		if (middle instanceof Empty)
+			return toTree(suffix, depth);
+		Node n = (Node) front(middle);
+		return deep(n.items, popFront(middle, depth + 1), suffix, depth);
+	}
+
+	/**
+	 * Helper function: creates the tree whose suffix may be empty, the last node
+	 * of the middle is borrowed if so.
+	 */
+	private static FingerTree deepR(Object[] prefix, FingerTree middle, Object[] suffix, int depth) {
+		if (suffix.length > 0)
+			return deep(prefix, middle, suffix, depth);
+		if (middle instanceof Empty)
+			return toTree(prefix, depth);
+		Node n = (Node) back(middle);
+		return deep(prefix, popBack(middle, depth + 1), n.items, depth);
+	}
+
+	/**
+	 * Helper function: returns the order of the item holding the specified index
+	 * in the items.
+	 */
+	private static int indexOf(Object[] items, int index, int depth) {
+		if (depth == 0)
+			return index;
+		int i = 0;
+		while (index >= ((Node) items[i]).size)
+			index -= ((Node) items[i++]).size;
+		return i;
+	}
+
+	private static int measure(Object[] items, int to, int depth) {
+		if (depth == 0)
+			return to;
+		int s = 0;
+		for (int i = 0; i < to; i++)
+			s += ((Node) items[i]).size;
+		return s;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T get(FingerTree t, int index, int depth) {
+		if (t instanceof Single)
+			return get(((Single) t).item, index, depth);
+
+		Deep u = (Deep) t;
+		int sp = measure(u.prefix, depth);
+		if (index < sp)
+			return get(u.prefix, index, depth);
+		index -= sp;
+		int sm = u.middle.size();
+		if (index < sm)
+			return get(u.middle, index, depth + 1);
+		return get(u.suffix, index - sm, depth);
+	}
+
+	private static <T> T get(Object[] items, int index, int depth) {
+		int i = indexOf(items, index, depth);
+		return get(items[i], index - measure(items, i, depth), depth);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T get(Object item, int index, int depth) {
+		if (depth == 0)
+			return (T) item;
+		return get(((Node) item).items, index, depth - 1);
+	}
+
+	private static FingerTree set(FingerTree t, int index, Object value, int depth) {
+		if (t instanceof Single) {
+			Single u = (Single) t;
+			return new Single(set(u.item, index, value, depth), u.size);
+		}
+
+		Deep u = (Deep) t;
+		int sp = measure(u.prefix, depth);
+		if (index < sp)
+			return new Deep(set(u.prefix, index, value, depth), u.middle, u.suffix, u.size);
+		index -= sp;
+		int sm = u.middle.size();
+		if (index < sm)
+			return new Deep(u.prefix, set(u.middle, index, value, depth + 1), u.suffix, u.size);
+		return new Deep(u.prefix, u.middle, set(u.suffix, index - sm, value, depth), u.size);
+	}
+
+	private static Object[] set(Object[] items, int index, Object value, int depth) {
+		int i = indexOf(items, index, depth);
+		Object[] p = items.clone();
+		p[i] = set(items[i], index - measure(items, i, depth), value, depth);
+		return p;
+	}
+
+	private static Object set(Object item, int index, Object value, int depth) {
+		if (depth == 0)
+			return value;
+		Node n = (Node) item;
+		return new Node(set(n.items, index, value, depth - 1), n.size);
+	}
+
+	/**
+	 * The result of splitting a tree around the item holding an index.
+	 */
+	private static final class TreeSplit {
+		final FingerTree left;
+		final Object item;
+		final FingerTree right;
+
+		TreeSplit(FingerTree left, Object item, FingerTree right) {
+			this.left = left;
+			this.item = item;
+			this.right = right;
+		}
+	}
+
+	/**
+	 * Helper function: splits the tree into the items before the item holding
+	 * the specified index, the item, and the items after it.
+	 *
+	 * @param t     the tree, must not be empty
+	 * @param index the index, <tt>0 &lt;= index &lt; size</tt>
+	 * @param depth the depth of tree
+	 * @return the split of tree
+	 */
+	private static TreeSplit split(FingerTree t, int index, int depth) {
+		if (t instanceof Single)
+			return new TreeSplit(Empty.INSTANCE, ((Single) t).item, Empty.INSTANCE);
+
+		Deep u = (Deep) t;
+		Object[] pr = u.prefix;
+		int sp = measure(pr, depth);
+		if (index < sp) {
+			int i = indexOf(pr, index, depth);
+			return new TreeSplit(toTree(Arrays.copyOf(pr, i), depth), pr[i],
+					deepL(Arrays.copyOfRange(pr, i + 1, pr.length), u.middle, u.suffix, depth));
+		}
+		index -= sp;
+		int sm = u.middle.size();
+		if (index < sm) {
+			TreeSplit m = split(u.middle, index, depth + 1);
+			Object[] items = ((Node) m.item).items;
+			int i = indexOf(items, index - m.left.size(), depth);
+			return new TreeSplit(deepR(pr, m.left, Arrays.copyOf(items, i), depth), items[i],
+					deepL(Arrays.copyOfRange(items, i + 1, items.length), m.right, u.suffix, depth));
+		}
+		index -= sm;
+		Object[] sf = u.suffix;
+		int i = indexOf(sf, index, depth);
+		return new TreeSplit(deepR(pr, u.middle, Arrays.copyOf(sf, i), depth), sf[i],
+				toTree(Arrays.copyOfRange(sf, i + 1, sf.length), depth));
+	}
+
+	/**
+	 * Helper function: concatenates two trees with the items between them.
+	 */
+	private static FingerTree concat(FingerTree a, Object[] items, FingerTree b, int depth) {
+		if (a instanceof Empty) {
+			for (int i = items.length - 1; i >= 0; i--)
+				b = pushFront(b, items[i], depth);
+			return b;
+		}
+		if (b instanceof Empty) {
+			for (Object item : items)
+				a = pushBack(a, item, depth);
+			return a;
+		}
+		if (a instanceof Single)
+			return pushFront(concat(Empty.INSTANCE, items, b, depth), ((Single) a).item, depth);
+		if (b instanceof Single)
+			return pushBack(concat(a, items, Empty.INSTANCE, depth), ((Single) b).item, depth);
+
+		Deep u = (Deep) a;
+		Deep v = (Deep) b;
+		Object[] mid = new Object[u.suffix.length + items.length + v.prefix.length];
+		System.arraycopy(u.suffix, 0, mid, 0, u.suffix.length);
+		System.arraycopy(items, 0, mid, u.suffix.length, items.length);
+		System.arraycopy(v.prefix, 0, mid, u.suffix.length + items.length, v.prefix.length);
+		return new Deep(u.prefix, concat(u.middle, nodes(mid, depth), v.middle, depth + 1), v.suffix,
+				u.size + measure(items, depth) + v.size);
+	}
+
+	/**
+	 * Helper function: groups 2 to 12 items into 2-3 nodes.
+	 */
+	private static Object[] nodes(Object[] items, int depth) {
+		final int n = items.length;
+		Object[] res = new Object[(n + 2) / 3];
+		int i = 0;
+		int j = 0;
+		for (; n - i > 4; i += 3)
+			res[j++] = node(Arrays.copyOfRange(items, i, i + 3), depth);
+		if (n - i == 4) {
+			res[j++] = node(Arrays.copyOfRange(items, i, i + 2), depth);
+			res[j++] = node(Arrays.copyOfRange(items, i + 2, i + 4), depth);
+		} else {
+			res[j++] = node(Arrays.copyOfRange(items, i, n), depth);
+		}
+		assert j == res.length;
+		return res;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return tree instanceof Empty;
+	}
+
+	@Override
+	public int size() {
+		return tree.size();
+	}
+
+	@Override
+	public T get(int index) {
+		if (index < 0 || index >= size())
+			throw new IndexOutOfBoundsException();
+		return get(tree, index, 0);
+	}
+
+	@Override
+	public FingerTreeList<T> set(int index, T value) {
+		if (index < 0 || index >= size())
+			throw new IndexOutOfBoundsException();
+		return new FingerTreeList<>(set(tree, index, value, 0));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T front() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		return (T) front(tree);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T back() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		return (T) back(tree);
+	}
+
+	@Override
+	public FingerTreeList<T> pushFront(T value) {
+		return new FingerTreeList<>(pushFront(tree, value, 0));
+	}
+
+	@Override
+	public FingerTreeList<T> popFront() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		return of(popFront(tree, 0));
+	}
+
+	@Override
+	public FingerTreeList<T> pushBack(T value) {
+		return new FingerTreeList<>(pushBack(tree, value, 0));
+	}
+
+	@Override
+	public FingerTreeList<T> popBack() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		return of(popBack(tree, 0));
+	}
+
+	/**
+	 * Splits this list at the specified position in O(log n) time.
+	 *
+	 * @param index the size of the left part
+	 * @return the elements before the specified position, and the remaining
+	 *         elements.
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *                                   (<tt>index &lt; 0 || index &gt; size()</tt>)
+	 */
+	public Split<T> splitAt(int index) {
+		if (index < 0 || index > size())
+			throw new IndexOutOfBoundsException();
+		if (index == 0)
+			return new Split<>(create(), this);
+		if (index == size())
+			return new Split<>(this, create());
+
+		TreeSplit s = split(tree, index, 0);
+		return new Split<>(of(s.left), new FingerTreeList<>(pushFront(s.right, s.item, 0)));
+	}
+
+	/**
+	 * Returns the concatenation of this list and the specified list. It takes
+	 * O(log n) time if the specified list is a {@link FingerTreeList}, otherwise
+	 * the elements of the specified list are appended in O(m) time.
+	 *
+	 * @param other the elements to be appended to this list
+	 * @return the new array, which contains the elements of this list followed
+	 *         by the elements of the specified list.
+	 */
+	public FingerTreeList<T> concat(PList<? extends T> other) {
+		if (other instanceof FingerTreeList)
+			return of(concat(tree, NO_ITEMS, ((FingerTreeList<?>) other).tree, 0));
+
+		FingerTree t = tree;
+		for (T e : other)
+			t = pushBack(t, e, 0);
+		return of(t);
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new FingerTreeIterator<>(tree);
+	}
+
+	/**
+	 * Traverses the trees and nodes with an explicit stack of the pending parts,
+	 * each part is a tree or an item with its depth.
+	 */
+	private static class FingerTreeIterator<T> implements Iterator<T> {
+		private Object[] parts = new Object[16];
+		private int[] depths = new int[16];
+		private int top;
+
+		FingerTreeIterator(FingerTree tree) {
+			if (!(tree instanceof Empty))
+				push(tree, 0);
+		}
+
+		private void push(Object part, int depth) {
+			if (top == parts.length) {
+				parts = Arrays.copyOf(parts, top << 1);
+				depths = Arrays.copyOf(depths, top << 1);
+			}
+			parts[top] = part;
+			depths[top] = depth;
+			top++;
+		}
+
+		private void pushAll(Object[] items, int depth) {
+			for (int i = items.length - 1; i >= 0; i--)
+				push(items[i], depth);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return top > 0;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public T next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			while (true) {
+				top--;
+				Object part = parts[top];
+				int depth = depths[top];
+				parts[top] = null;
+
+				if (part instanceof Deep) {
+					Deep u = (Deep) part;
+					pushAll(u.suffix, depth);
+					if (!(u.middle instanceof Empty))
+						push(u.middle, depth + 1);
+					pushAll(u.prefix, depth);
+				} else if (part instanceof Single) {
+					push(((Single) part).item, depth);
+				} else if (depth > 0) {
+					pushAll(((Node) part).items, depth - 1);
+				} else {
+					return (T) part;
+				}
+			}
+		}
+	}
+}
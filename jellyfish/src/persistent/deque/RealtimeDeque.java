@@ -127,7 +127,7 @@ public class RealtimeDeque<T> extends PDeque<T> {
 		@Override
 		public PDeque<T> popFront() {
 			int size = size();
-			if (size < 4)
+			if (size < 4 || lhs.isEmpty())
 				return super.popFront();
 			return createTrans(lhs.pop(), rhs);
 		}
@@ -135,7 +135,7 @@ public class RealtimeDeque<T> extends PDeque<T> {
 		@Override
 		public PDeque<T> popBack() {
 			int size = size();
-			if (size < 4)
+			if (size < 4 || rhs.isEmpty())
 				return super.popBack();
 			return createTrans(lhs, rhs.pop());
 		}
@@ -161,9 +161,11 @@ public class RealtimeDeque<T> extends PDeque<T> {
 		 * The big auxiliary-stack, store partial reversed version of {@link #bFrom}.
 		 */
 		protected final PStack<T> bAux;
+		/** The minimum size of the smaller stack since the transfer begins. */
+		protected final int low;
 
 		private TransPrevDeque(PStack<T> lhs, PStack<T> rhs, PStack<T> sFrom, PStack<T> sAux, PStack<T> bFrom,
-				PStack<T> bAux) {
+				PStack<T> bAux, int low) {
 			super(lhs, rhs);
 
 			this.sFrom = sFrom;
@@ -171,6 +173,7 @@ public class RealtimeDeque<T> extends PDeque<T> {
 
 			this.bFrom = bFrom;
 			this.bAux = bAux;
+			this.low = low;
 		}
 
 		RealtimeDeque<T> createTrans(PStack<T> lhs, PStack<T> rhs) {
@@ -179,12 +182,22 @@ public class RealtimeDeque<T> extends PDeque<T> {
 			if (lsz + rsz <= 4 || (Math.min(lsz, rsz) * 3 >= Math.max(lsz, rsz)))
 				return new RealtimeDeque<>(lhs, rhs);
 
-			return stepPrev(lhs, rhs, sFrom, sAux, bFrom, bAux, 4);
+			return stepPrev(lhs, rhs, sFrom, sAux, bFrom, bAux, Math.min(low, Math.min(lsz, rsz)), 4);
 		}
 	}
 
 	static class TransPostDeque<T> extends TransDeque<T> {
-		/** The small auxiliary-stack, store reversed version of {@link #sFrom}. */
+		/**
+		 * The snapshot of the smaller stack in this round, the top {@link #sLeft}
+		 * elements are not reversed into {@link #sAux} yet.
+		 */
+		protected final PStack<T> sFrom;
+		/** The number of elements of {@link #sFrom} to be reversed. */
+		protected final int sLeft;
+		/**
+		 * The small auxiliary-stack, the elements of the smaller stack to be copied,
+		 * the next one on the top.
+		 */
 		protected final PStack<T> sAux;
 		/** The final result of smaller stack, replace the smaller one with this. */
 		protected final PStack<T> sNew;
@@ -200,13 +213,17 @@ public class RealtimeDeque<T> extends PDeque<T> {
 		protected final PStack<T> bAux;
 		/** The final result of bigger stack, replace the bigger one with this. */
 		protected final PStack<T> bNew;
-		/** The counter of copied smaller stack elements. */
+		/** The counter of copied smaller stack elements, from the bottom. */
 		protected final int sCopied;
+		/** The minimum size of the smaller stack since this round begins. */
+		protected final int low;
 
-		private TransPostDeque(PStack<T> lhs, PStack<T> rhs, PStack<T> sAux, PStack<T> sNew, PStack<T> bFrom,
-				PStack<T> bAux, PStack<T> bNew, int sCopied) {
+		private TransPostDeque(PStack<T> lhs, PStack<T> rhs, PStack<T> sFrom, int sLeft, PStack<T> sAux,
+				PStack<T> sNew, PStack<T> bFrom, PStack<T> bAux, PStack<T> bNew, int sCopied, int low) {
 			super(lhs, rhs);
 
+			this.sFrom = sFrom;
+			this.sLeft = sLeft;
 			this.sAux = sAux;
 			this.sNew = sNew;
 
@@ -215,6 +232,7 @@ public class RealtimeDeque<T> extends PDeque<T> {
 			this.bNew = bNew;
 
 			this.sCopied = sCopied;
+			this.low = low;
 		}
 
 		RealtimeDeque<T> createTrans(PStack<T> lhs, PStack<T> rhs) {
@@ -223,7 +241,8 @@ public class RealtimeDeque<T> extends PDeque<T> {
 			if (lsz + rsz <= 4 || (Math.min(lsz, rsz) * 3 >= Math.max(lsz, rsz)))
 				return new RealtimeDeque<>(lhs, rhs);
 
-			return stepPost(lhs, rhs, sAux, sNew, bFrom, bAux, bNew, sCopied, 4);
+			return stepPost(lhs, rhs, sFrom, sLeft, sAux, sNew, bFrom, bAux, bNew, sCopied,
+					Math.min(low, Math.min(lsz, rsz)), 4);
 		}
 	}
 
@@ -261,7 +280,7 @@ public class RealtimeDeque<T> extends PDeque<T> {
 	public T front() {
 		if (!lhs.isEmpty())
 			return lhs.top();
-		assert rhs.size() <= 3;
+		assert rhs.size() <= 4;
 		return bottom(rhs);
 	}
 
@@ -269,7 +288,7 @@ public class RealtimeDeque<T> extends PDeque<T> {
 	public T back() {
 		if (!rhs.isEmpty())
 			return rhs.top();
-		assert lhs.size() <= 3;
+		assert lhs.size() <= 4;
 		return bottom(lhs);
 	}
 
@@ -286,7 +305,10 @@ public class RealtimeDeque<T> extends PDeque<T> {
 	@Override
 	public PDeque<T> popFront() {
 		int size = size();
-		if (size < 4) {
+		if (size < 4 || lhs.isEmpty()) {
+			// a stack is empty only if the deque is tiny, a transfer completes
+			// before the smaller stack is popped out
+			assert size <= 4;
 			if (size == 1)
 				return create();
 			T[] buf = flattenDeque();
@@ -298,7 +320,8 @@ public class RealtimeDeque<T> extends PDeque<T> {
 	@Override
 	public PDeque<T> popBack() {
 		int size = size();
-		if (size < 4) {
+		if (size < 4 || rhs.isEmpty()) {
+			assert size <= 4;
 			if (size == 1)
 				return create();
 			T[] buf = flattenDeque();
@@ -333,8 +356,16 @@ public class RealtimeDeque<T> extends PDeque<T> {
 		return ConcatenatedIterator.create(lhs.iterator(), rhs.descendingIterator());
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Iterator<T> descendingIterator() {
+		return ConcatenatedIterator.create(rhs.iterator(), lhs.descendingIterator());
+	}
+
 	private static <T> RealtimeDeque<T> stepPrev(PStack<T> lhs, PStack<T> rhs, PStack<T> sFrom, PStack<T> sAux,
-			PStack<T> bFrom, PStack<T> bAux, int cost) {
+			PStack<T> bFrom, PStack<T> bAux, int low, int cost) {
 		int tMove = bAux.size() + bFrom.size() - (sAux.size() + sFrom.size()) - 1;
 		while (bAux.size() < tMove && cost > 0) {
 			bAux = bAux.push(bFrom.top());
@@ -349,48 +380,71 @@ public class RealtimeDeque<T> extends PDeque<T> {
 		}
 
 		if (cost == 0)
-			return new TransPrevDeque<>(lhs, rhs, sFrom, sAux, bFrom, bAux);
+			return new TransPrevDeque<>(lhs, rhs, sFrom, sAux, bFrom, bAux, low);
 		PStack<T> empty = PCollections.emptyStack();
-		return stepPost(lhs, rhs, sAux, empty, bFrom, bAux, empty, 0, cost);
+		return stepPost(lhs, rhs, empty, 0, sAux, empty, bFrom, bAux, empty, 0, low, cost);
 	}
 
-	private static <T> RealtimeDeque<T> stepPost(PStack<T> lhs, PStack<T> rhs, PStack<T> sAux, PStack<T> sNew,
-			PStack<T> bFrom, PStack<T> bAux, PStack<T> bNew, int sCopied, int cost) {
+	/**
+	 * Helper function: moves the bottom elements of the bigger stack under the
+	 * smaller one, and then copies the smaller stack onto them in rounds. A round
+	 * reverses the elements of the smaller stack above the copied ones, and
+	 * copies them up to the minimum size of the smaller stack in the round, the
+	 * elements below that are unchanged. The operations in a round push at most
+	 * one element each, so the rounds shrink, and each step takes O(1) time.
+	 */
+	private static <T> RealtimeDeque<T> stepPost(PStack<T> lhs, PStack<T> rhs, PStack<T> sFrom, int sLeft,
+			PStack<T> sAux, PStack<T> sNew, PStack<T> bFrom, PStack<T> bAux, PStack<T> bNew, int sCopied, int low,
+			int cost) {
 		boolean sb = lhs.size() < rhs.size();
+		PStack<T> small = sb ? lhs : rhs;
 		while (cost > 0) {
 			cost--;
 
 			if (!bAux.isEmpty()) {
 				bNew = bNew.push(bAux.top());
 				bAux = bAux.pop();
-				if (!bFrom.isEmpty()) {
-					sNew = sNew.push(bFrom.top());
-					bFrom = bFrom.pop();
-					continue;
-				}
+			}
+			if (!bFrom.isEmpty()) {
+				sNew = sNew.push(bFrom.top());
+				bFrom = bFrom.pop();
+				continue;
 			}
 
-			int targetSize = sb ? lhs.size() : rhs.size();
-			if (!sAux.isEmpty() && sCopied < targetSize) {
+			if (sCopied > low) {
+				// popped below the copied elements, the next round starts from low
+				sNew = sNew.pop();
+				sCopied--;
+				sAux = PCollections.emptyStack();
+				sLeft = 0;
+			} else if (sLeft > 0) {
+				sAux = sAux.push(sFrom.top());
+				sFrom = sFrom.pop();
+				sLeft--;
+			} else if (sCopied < low && !sAux.isEmpty()) {
 				sCopied++;
 				sNew = sNew.push(sAux.top());
 				sAux = sAux.pop();
-			}
-
-			if (sCopied == targetSize) {
-				int m = (sNew.size() + sAux.size()) / 2;
+			} else if (sCopied < small.size()) {
+				sFrom = small;
+				sLeft = small.size() - sCopied;
+				sAux = PCollections.emptyStack();
+				low = small.size();
+			} else {
+				int moved = sNew.size() - sCopied;
 				if (sb) {
-					lhs = sNew.top() == lhs.top() ? sNew : sNew.pop().push(lhs.top());
-					rhs = Take.create(rhs.size() - m - 1, rhs);
+					assert rhs.size() > moved;
+					lhs = sNew;
+					rhs = Take.create(rhs.size() - moved, rhs);
 				} else {
-					lhs = Take.create(lhs.size() - m - 1, lhs);
-					rhs = sNew.top() == rhs.top() ? sNew : sNew.pop().push(rhs.top());
+					assert lhs.size() > moved;
+					lhs = Take.create(lhs.size() - moved, lhs);
+					rhs = sNew;
 				}
-
 				return new RealtimeDeque<>(lhs, rhs);
 			}
 		}
-		return new TransPostDeque<>(lhs, rhs, sAux, sNew, bFrom, bAux, bNew, sCopied);
+		return new TransPostDeque<>(lhs, rhs, sFrom, sLeft, sAux, sNew, bFrom, bAux, bNew, sCopied, low);
 	}
 
 	private static <T> RealtimeDeque<T> create(PStack<T> lhs, PStack<T> rhs) {
@@ -401,9 +455,9 @@ public class RealtimeDeque<T> extends PDeque<T> {
 
 			PStack<T> empty = PCollections.emptyStack();
 			if (lhs.size() < rhs.size()) {
-				return stepPrev(lhs, rhs, lhs, empty, rhs, empty, 8);
+				return stepPrev(lhs, rhs, lhs, empty, rhs, empty, lsz, 8);
 			} else {
-				return stepPrev(lhs, rhs, rhs, empty, lhs, empty, 8);
+				return stepPrev(lhs, rhs, rhs, empty, lhs, empty, rsz, 8);
 			}
 		}
 		return new RealtimeDeque<>(lhs, rhs);
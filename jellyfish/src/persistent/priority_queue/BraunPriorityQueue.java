@@ -1,6 +1,10 @@
 package persistent.priority_queue;
 
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 import persistent.PPriorityQueue;
 
@@ -15,6 +19,82 @@ public class BraunPriorityQueue<T> extends PPriorityQueue<T> {
 		return new BraunPriorityQueue<>(comparator);
 	}
 
+	/**
+	 * Returns a priority queue contains the specified elements in O(n) time.
+	 * 
+	 * @param <T>        The type of elements held in this collection
+	 * @param values     the elements of the priority queue
+	 * @param comparator the comparator that will be used to order this priority
+	 *                   queue
+	 * @return A priority queue contains the specified elements.
+	 */
+	public static <T> BraunPriorityQueue<T> ofAll(T[] values, Comparator<? super T> comparator) {
+		return heapify(values.clone(), comparator);
+	}
+
+	/**
+	 * Returns a priority queue contains the elements of the specified collection
+	 * in O(n) time.
+	 * 
+	 * @param <T>        The type of elements held in this collection
+	 * @param values     the elements of the priority queue
+	 * @param comparator the comparator that will be used to order this priority
+	 *                   queue
+	 * @return A priority queue contains the specified elements.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> BraunPriorityQueue<T> ofAll(Collection<? extends T> values, Comparator<? super T> comparator) {
+		return heapify((T[]) values.toArray(), comparator);
+	}
+
+	/**
+	 * Helper function: sifts down the elements bottom-up in the Braun index
+	 * layout, and then builds the nodes. Each element takes one node, and O(n)
+	 * comparisons in total.
+	 * 
+	 * <p>
+	 * The indices of level d are <tt>[2^d - 1, 2^(d+1) - 1)</tt>, and the
+	 * children of index i are <tt>i + 2^d</tt> and <tt>i + 2^(d+1)</tt>, see
+	 * {@link persistent.array.BraunList}.
+	 * </p>
+	 */
+	private static <T> BraunPriorityQueue<T> heapify(T[] values, Comparator<? super T> comparator) {
+		final int n = values.length;
+		if (n == 0)
+			return create(comparator);
+		for (int i = n - 1; i >= 0; i--)
+			siftDown(values, i, comparator);
+		return new BraunPriorityQueue<>(build(values, n, 1, 0), n, comparator);
+	}
+
+	private static <T> void siftDown(T[] values, int i, Comparator<? super T> comparator) {
+		final long n = values.length;
+		T x = values[i];
+		long w = Integer.highestOneBit(i + 1);
+		long u = i;
+		while (u + w < n) {
+			long c = u + w;
+			if (c + w < n && comparator.compare(values[(int) (c + w)], values[(int) c]) < 0)
+				c += w;
+			if (comparator.compare(values[(int) c], x) >= 0)
+				break;
+			values[(int) u] = values[(int) c];
+			u = c;
+			w <<= 1;
+		}
+		values[(int) u] = x;
+	}
+
+	/**
+	 * Helper function: builds the subtree whose i-th node (1-indexed) holds
+	 * <tt>values[a * i + b - 1]</tt>, see {@link persistent.array.BraunList}.
+	 */
+	private static <T> Node<T> build(T[] values, int n, long a, long b) {
+		if (a + b > n)
+			return null;
+		return new Node<>(build(values, n, a << 1, b), build(values, n, a << 1, a + b), values[(int) (a + b - 1)]);
+	}
+
 	private final int size;
 	private final Node<T> root;
 	private final Comparator<? super T> comparator;
@@ -44,51 +124,152 @@ public class BraunPriorityQueue<T> extends PPriorityQueue<T> {
 		return root == null ? null : root.value;
 	}
 
+	/**
+	 * Inserts the value along the right spine, O(log n) time. The larger value
+	 * moves down to the right subtree, and the subtrees are swapped on each
+	 * level. The path is buffered top-down, and the new nodes are built
+	 * bottom-up from the buffer.
+	 */
 	@Override
 	public PPriorityQueue<T> push(T value) {
-		if (size == 0)
-			return new BraunPriorityQueue<>(new Node<>(null, null, value), 1, comparator);
-		return new BraunPriorityQueue<>(push(value, root), size + 1, comparator);
-	}
+		final int h = height(size + 1);
+		@SuppressWarnings("unchecked")
+		T[] keeps = (T[]) new Object[h];
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		Node<T>[] lsons = new Node[h];
+		int d = 0;
+		for (Node<T> u = root; u != null; u = u.rson, d++) {
+			keeps[d] = u.value;
+			if (comparator.compare(value, u.value) <= 0) {
+				keeps[d] = value;
+				value = u.value;
+			}
+			lsons[d] = u.lson;
+		}
 
-	private Node<T> push(T value, Node<T> u) {
-		if (u == null)
-			return new Node<>(null, null, value);
-		int c = comparator.compare(value, u.value);
-		return new Node<>(push(c > 0 ? value : u.value, u.rson), u.lson, c > 0 ? u.value : value);
+		Node<T> w = new Node<>(null, null, value);
+		while (d > 0) {
+			d--;
+			w = new Node<>(w, lsons[d], keeps[d]);
+		}
+		return new BraunPriorityQueue<>(w, size + 1, comparator);
 	}
 
+	/**
+	 * Removes the leftmost node and sifts its value down from the root, O(log n)
+	 * time. Both paths are buffered top-down, and the new nodes are built
+	 * bottom-up from the buffers.
+	 */
 	@Override
 	public PPriorityQueue<T> pop() {
-		if (size <= 1)
+		if (isEmpty())
+			throw new NoSuchElementException();
+		if (size == 1)
 			return create(comparator);
-		Pair<T> p = pop(root);
-		assert p != null;
-		return new BraunPriorityQueue<>(p.u, size - 1, comparator);
-	}
 
-	private static class Pair<T> {
-		T value;
-		Node<T> u;
+		final int h = height(size);
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		Node<T>[] path = new Node[h];
 
-		public Pair(T value, Node<T> u) {
-			this.value = value;
-			this.u = u;
+		// removes the leftmost node, the subtrees are swapped to keep the Braun
+		// shape
+		int d = 0;
+		Node<T> u = root.lson;
+		for (; u.lson != null; u = u.lson)
+			path[d++] = u;
+		T value = u.value;
+		Node<T> left = null;
+		while (d > 0) {
+			d--;
+			left = new Node<>(path[d].rson, left, path[d].value);
 		}
-	}
 
-	private Pair<T> pop(Node<T> u) {
-		if (u == null)
-			return null;
-		Pair<T> p = pop(u.lson);
-		if (p != null) {
-			int c = u.rson == null ? -1 : comparator.compare(p.value, u.rson.value);
-			if (c <= 0)
-				return new Pair<>(u.value, new Node<>(u.rson, p.u, p.value));
-			Node<T> ls = new Node<>(u.rson.lson, u.rson.rson, p.value);
-			return new Pair<>(u.value, new Node<>(ls, p.u, u.rson.value));
+		// sifts the value down to the smaller child until the heap order holds,
+		// each level keeps the value moved up, the other child and the side of
+		// the value
+		@SuppressWarnings("unchecked")
+		T[] ups = (T[]) new Object[h];
+		boolean[] toLeft = new boolean[h];
+		Node<T> l = root.rson;
+		Node<T> r = left;
+		Node<T> w;
+		while (true) {
+			if (l == null) {
+				w = new Node<>(null, null, value);
+				break;
+			} else if (r == null) {
+				if (comparator.compare(value, l.value) <= 0)
+					w = new Node<>(l, null, value);
+				else
+					w = new Node<>(new Node<>(null, null, value), null, l.value);
+				break;
+			} else if (comparator.compare(value, l.value) <= 0 && comparator.compare(value, r.value) <= 0) {
+				w = new Node<>(l, r, value);
+				break;
+			}
+
+			Node<T> next;
+			if (comparator.compare(l.value, r.value) <= 0) {
+				next = l;
+				path[d] = r;
+				toLeft[d] = true;
+			} else {
+				next = r;
+				path[d] = l;
+			}
+			ups[d++] = next.value;
+			l = next.lson;
+			r = next.rson;
 		}
-		return new Pair<>(u.value, null);
+
+		while (d > 0) {
+			d--;
+			w = toLeft[d] ? new Node<>(w, path[d], ups[d]) : new Node<>(path[d], w, ups[d]);
+		}
+		return new BraunPriorityQueue<>(w, size - 1, comparator);
+	}
+
+	/**
+	 * Helper function: returns the height of a Braun tree of the specified size.
+	 */
+	private static int height(int size) {
+		return 32 - Integer.numberOfLeadingZeros(size);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * Preorder traversal with an explicit stack, O(n) time.
+	 * </p>
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return HeapIterator.preorder(root, BraunPriorityQueue::children, u -> u.value);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * The frontier holds the nodes whose parents are visited, the first k
+	 * elements take O(k log k) time.
+	 * </p>
+	 */
+	@Override
+	public Iterator<T> sortedIterator() {
+		return HeapIterator.sorted(root, comparator, BraunPriorityQueue::children, u -> u.value);
+	}
+
+	/**
+	 * Helper function: adds the children of the node, the left child is visited
+	 * first in preorder.
+	 */
+	private static <T> void children(Node<T> u, Consumer<Node<T>> add) {
+		if (u.rson != null)
+			add.accept(u.rson);
+		if (u.lson != null)
+			add.accept(u.lson);
 	}
 
 	private static class Node<T> {
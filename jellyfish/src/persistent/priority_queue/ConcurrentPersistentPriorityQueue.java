@@ -0,0 +1,241 @@
+package persistent.priority_queue;
+
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import persistent.PPriorityQueue;
+
+/**
+ * Concurrent priority queue over striped persistent heaps
+ *
+ * <p>
+ * The heaps of the stripes are {@link SkewBinomialPriorityQueue}s in an
+ * immutable array, which is published through a single
+ * {@link AtomicReference} and replaced by a copy on every update. The pushes
+ * are published to a random stripe, and one thread combines all published
+ * pushes of the stripe into a batch heap, which is melded into the stripe with
+ * a single CAS of the array. {@link #poll()} is relaxed, it removes the smaller
+ * top of two random stripes, so the result is close to the minimum but not
+ * always the minimum.
+ * </p>
+ *
+ * <p>
+ * Progress: {@link #offer(Object)} is flat combining and blocking, a thread
+ * waits with {@link Thread#yield()} while another thread holds the combining
+ * flag of the stripe, until its push is combined. {@link #poll()} is
+ * lock-free, its CAS only fails when another thread updated the array. The
+ * read operations never block.
+ * </p>
+ *
+ * <p>
+ * {@link #snapshot()}, {@link #peek()}, {@link #size()} and {@link #isEmpty()}
+ * read the array once, so they see all stripes at one moment. The snapshot
+ * takes a single volatile read, and then melds the stripes in O(stripes log n)
+ * time, independent of other threads.
+ * </p>
+ *
+ * @author morrisy
+ *
+ * @param <T> The type of elements held in this collection
+ */
+public class ConcurrentPersistentPriorityQueue<T> {
+	/**
+	 * Returns an empty priority queue with a stripe per processor.
+	 *
+	 * @param <T>        The type of elements held in this collection
+	 * @param comparator the comparator that will be used to order this priority
+	 *                   queue
+	 * @return An empty priority queue.
+	 */
+	public static <T> ConcurrentPersistentPriorityQueue<T> create(Comparator<? super T> comparator) {
+		return create(comparator, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Returns an empty priority queue.
+	 *
+	 * @param <T>        The type of elements held in this collection
+	 * @param comparator the comparator that will be used to order this priority
+	 *                   queue
+	 * @param stripes    the number of stripes, 1 for the exact minimum
+	 * @return An empty priority queue.
+	 * @throws IllegalArgumentException if the number of stripes is not positive.
+	 */
+	public static <T> ConcurrentPersistentPriorityQueue<T> create(Comparator<? super T> comparator, int stripes) {
+		if (stripes <= 0)
+			throw new IllegalArgumentException("stripes: " + stripes);
+		return new ConcurrentPersistentPriorityQueue<>(comparator, stripes);
+	}
+
+	private final Stripe<T>[] stripes;
+	/** The heaps of the stripes, the arrays are never modified after publication. */
+	private final AtomicReference<SkewBinomialPriorityQueue<T>[]> heaps;
+	private final SkewBinomialPriorityQueue<T> empty;
+	private final Comparator<? super T> comparator;
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private ConcurrentPersistentPriorityQueue(Comparator<? super T> comparator, int n) {
+		this.comparator = comparator;
+		this.empty = SkewBinomialPriorityQueue.create(comparator);
+		this.stripes = new Stripe[n];
+		SkewBinomialPriorityQueue<T>[] h = new SkewBinomialPriorityQueue[n];
+		for (int i = 0; i < n; i++) {
+			stripes[i] = new Stripe<>();
+			h[i] = empty;
+		}
+		this.heaps = new AtomicReference<>(h);
+	}
+
+	/**
+	 * Helper function: replaces the heap of the stripe by CAS, the other
+	 * stripes are shared with the current array.
+	 */
+	private boolean compareAndSet(SkewBinomialPriorityQueue<T>[] h, int index, SkewBinomialPriorityQueue<T> heap) {
+		SkewBinomialPriorityQueue<T>[] n = h.clone();
+		n[index] = heap;
+		return heaps.compareAndSet(h, n);
+	}
+
+	/**
+	 * Inserts the value, returns after the value is in the heap of a stripe.
+	 * Blocking, it yields while another thread combines the pushes of the
+	 * stripe.
+	 *
+	 * @param value the value
+	 */
+	public void offer(T value) {
+		int index = ThreadLocalRandom.current().nextInt(stripes.length);
+		Stripe<T> s = stripes[index];
+		Request<T> r = new Request<>(value);
+		Request<T> head;
+		do {
+			head = s.pending.get();
+			r.next = head;
+		} while (!s.pending.compareAndSet(head, r));
+
+		while (!r.done) {
+			if (!s.combining.get() && s.combining.compareAndSet(false, true)) {
+				try {
+					combine(index);
+				} finally {
+					s.combining.set(false);
+				}
+			} else {
+				Thread.yield();
+			}
+		}
+	}
+
+	/**
+	 * Helper function: takes all published pushes of the stripe as a batch heap,
+	 * and melds the batch into the stripe.
+	 */
+	private void combine(int index) {
+		Request<T> list = stripes[index].pending.getAndSet(null);
+		if (list == null)
+			return;
+		SkewBinomialPriorityQueue<T> batch = empty;
+		for (Request<T> r = list; r != null; r = r.next)
+			batch = batch.push(r.value);
+		SkewBinomialPriorityQueue<T>[] h;
+		do {
+			h = heaps.get();
+		} while (!compareAndSet(h, index, h[index].meld(batch)));
+		for (Request<T> r = list; r != null;) {
+			Request<T> next = r.next;
+			r.next = null;
+			r.done = true;
+			r = next;
+		}
+	}
+
+	/**
+	 * Removes the smaller top of two random stripes. If both are empty, the
+	 * first non-empty stripe from a random one is used.
+	 *
+	 * @return the removed element, or null if this priority queue is empty.
+	 */
+	public T poll() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		while (true) {
+			SkewBinomialPriorityQueue<T>[] h = heaps.get();
+			int a = random.nextInt(h.length);
+			int b = random.nextInt(h.length);
+			if (h[a].isEmpty() || (!h[b].isEmpty() && comparator.compare(h[b].top(), h[a].top()) < 0))
+				a = b;
+			for (int i = 1; i < h.length && h[a].isEmpty(); i++)
+				a = (b + i) % h.length;
+			if (h[a].isEmpty())
+				return null;
+			if (compareAndSet(h, a, h[a].pop()))
+				return h[a].top();
+		}
+	}
+
+	/**
+	 * Returns the minimum of the stripe tops.
+	 *
+	 * @return the minimum of this priority queue, or null if it is empty.
+	 */
+	public T peek() {
+		T top = null;
+		for (SkewBinomialPriorityQueue<T> h : heaps.get()) {
+			if (!h.isEmpty() && (top == null || comparator.compare(h.top(), top) < 0))
+				top = h.top();
+		}
+		return top;
+	}
+
+	/**
+	 * Returns a consistent persistent version of this priority queue. Later
+	 * operations do not change the snapshot. Wait-free, it reads the stripes
+	 * with a single volatile read.
+	 *
+	 * @return the priority queue of all elements at a point in time.
+	 */
+	public PPriorityQueue<T> snapshot() {
+		SkewBinomialPriorityQueue<T>[] h = heaps.get();
+		SkewBinomialPriorityQueue<T> q = h[0];
+		for (int i = 1; i < h.length; i++)
+			q = q.meld(h[i]);
+		return q;
+	}
+
+	/**
+	 * Returns the sum of the stripe sizes.
+	 *
+	 * @return the number of elements.
+	 */
+	public int size() {
+		int n = 0;
+		for (SkewBinomialPriorityQueue<T> h : heaps.get())
+			n += h.size();
+		return n;
+	}
+
+	public boolean isEmpty() {
+		for (SkewBinomialPriorityQueue<T> h : heaps.get()) {
+			if (!h.isEmpty())
+				return false;
+		}
+		return true;
+	}
+
+	private static final class Stripe<T> {
+		/** The published pushes, a stack linked by {@link Request#next}. */
+		final AtomicReference<Request<T>> pending = new AtomicReference<>();
+		final AtomicBoolean combining = new AtomicBoolean();
+	}
+
+	private static final class Request<T> {
+		final T value;
+		Request<T> next;
+		volatile boolean done;
+
+		Request(T value) {
+			this.value = value;
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package persistent.priority_queue;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Iterator over the nodes of a heap-ordered tree. The frontier holds the nodes
+ * whose parents are visited, and each visited node adds its children into the
+ * frontier.
+ *
+ * @author morrisy
+ *
+ * @param <N> The type of nodes
+ * @param <T> The type of elements held in the nodes
+ */
+final class HeapIterator<N, T> implements Iterator<T> {
+	/**
+	 * Returns the preorder traversal with an explicit stack, O(n) time.
+	 *
+	 * @param root     the root, or null if the heap is empty
+	 * @param children the action to add the children of a node, the last added
+	 *                 one is visited first
+	 * @param value    the element of a node
+	 * @return the iterator
+	 */
+	static <N, T> HeapIterator<N, T> preorder(N root, BiConsumer<N, Consumer<N>> children, Function<N, T> value) {
+		return new HeapIterator<>(root, Collections.asLifoQueue(new ArrayDeque<>()), children, value);
+	}
+
+	/**
+	 * Returns the elements in the order of the comparator, the first k elements
+	 * take O(k log k) time if each node has O(1) children.
+	 *
+	 * @param root       the root, or null if the heap is empty
+	 * @param comparator the comparator of the heap
+	 * @param children   the action to add the children of a node
+	 * @param value      the element of a node
+	 * @return the iterator
+	 */
+	static <N, T> HeapIterator<N, T> sorted(N root, Comparator<? super T> comparator,
+			BiConsumer<N, Consumer<N>> children, Function<N, T> value) {
+		return new HeapIterator<>(root, new PriorityQueue<>((a, b) -> comparator.compare(value.apply(a), value.apply(b))),
+				children, value);
+	}
+
+	private final Queue<N> frontier;
+	private final Consumer<N> add;
+	private final BiConsumer<N, Consumer<N>> children;
+	private final Function<N, T> value;
+
+	private HeapIterator(N root, Queue<N> frontier, BiConsumer<N, Consumer<N>> children, Function<N, T> value) {
+		this.frontier = frontier;
+		this.add = frontier::add;
+		this.children = children;
+		this.value = value;
+		if (root != null)
+			frontier.add(root);
+	}
+
+	@Override
+	public boolean hasNext() {
+		return !frontier.isEmpty();
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+		N u = frontier.poll();
+		children.accept(u, add);
+		return value.apply(u);
+	}
+}
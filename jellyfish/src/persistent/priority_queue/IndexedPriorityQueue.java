@@ -0,0 +1,268 @@
+package persistent.priority_queue;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * Indexed priority queue on a binary hash trie
+ *
+ * <p>
+ * Each key has one priority. The node of a key is on the path of its hash bits,
+ * the bit of depth d chooses the child, and each node caches the node of the
+ * minimum priority in its subtree. The trie is both the map from key to
+ * position and the heap, so a priority is changed in place without moving the
+ * other entries. {@link #topKey()} takes O(1) time, and {@link #get(Object)},
+ * {@link #put(Object, Object)}, {@link #decreaseKey(Object, Object)},
+ * {@link #remove(Object)} and {@link #pop()} take O(log n) expected time.
+ * </p>
+ *
+ * @author morrisy
+ *
+ * @param <K> The type of keys
+ * @param <P> The type of priorities
+ */
+public class IndexedPriorityQueue<K, P> {
+	/**
+	 * Returns an empty priority queue.
+	 *
+	 * @param <K>        The type of keys
+	 * @param <P>        The type of priorities
+	 * @param comparator the comparator that will be used to order the priorities
+	 * @return An empty priority queue.
+	 */
+	public static <K, P> IndexedPriorityQueue<K, P> create(Comparator<? super P> comparator) {
+		return new IndexedPriorityQueue<>(null, 0, comparator);
+	}
+
+	private final int size;
+	private final Node<K, P> root;
+	private final Comparator<? super P> comparator;
+
+	private IndexedPriorityQueue(Node<K, P> root, int size, Comparator<? super P> comparator) {
+		this.root = root;
+		this.size = size;
+		this.comparator = comparator;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the key of the minimum priority.
+	 *
+	 * @return the key of the minimum priority, or null if this priority queue is
+	 *         empty.
+	 */
+	public K topKey() {
+		return root == null ? null : root.min.key;
+	}
+
+	/**
+	 * Returns the minimum priority.
+	 *
+	 * @return the minimum priority, or null if this priority queue is empty.
+	 */
+	public P topPriority() {
+		return root == null ? null : root.min.priority;
+	}
+
+	public boolean containsKey(K key) {
+		return find(key) != null;
+	}
+
+	/**
+	 * Returns the priority of the specified key.
+	 *
+	 * @param key the key whose priority is to be returned
+	 * @return the priority, or null if this priority queue does not contain the
+	 *         key.
+	 */
+	public P get(K key) {
+		Node<K, P> u = find(key);
+		return u == null ? null : u.priority;
+	}
+
+	/**
+	 * Removes the key of the minimum priority.
+	 *
+	 * @return the new priority queue, which removes the key of the minimum
+	 *         priority.
+	 * @throws NoSuchElementException if this priority queue is empty.
+	 */
+	public IndexedPriorityQueue<K, P> pop() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		K key = root.min.key;
+		return new IndexedPriorityQueue<>(remove(root, key, hash(key), 0), size - 1, comparator);
+	}
+
+	/**
+	 * Inserts the key with the priority, or changes the priority if this
+	 * priority queue contains the key.
+	 *
+	 * @param key      the key
+	 * @param priority the new priority of the key
+	 * @return the new priority queue
+	 */
+	public IndexedPriorityQueue<K, P> put(K key, P priority) {
+		int n = find(key) == null ? size + 1 : size;
+		return new IndexedPriorityQueue<>(put(root, key, hash(key), 0, priority), n, comparator);
+	}
+
+	/**
+	 * Changes the priority of the key, which can be larger or smaller.
+	 *
+	 * @param key      the key
+	 * @param priority the new priority of the key
+	 * @return the new priority queue
+	 * @throws NoSuchElementException if this priority queue does not contain the
+	 *                                key.
+	 */
+	public IndexedPriorityQueue<K, P> updatePriority(K key, P priority) {
+		if (find(key) == null)
+			throw new NoSuchElementException();
+		return new IndexedPriorityQueue<>(put(root, key, hash(key), 0, priority), size, comparator);
+	}
+
+	/**
+	 * Inserts the key with the priority, or lowers the priority if the new one is
+	 * smaller, the relaxation of shortest paths.
+	 *
+	 * @param key      the key
+	 * @param priority the new priority of the key
+	 * @return the new priority queue, or this priority queue if the key has a
+	 *         smaller or equal priority.
+	 */
+	public IndexedPriorityQueue<K, P> decreaseKey(K key, P priority) {
+		Node<K, P> u = find(key);
+		if (u == null)
+			return new IndexedPriorityQueue<>(put(root, key, hash(key), 0, priority), size + 1, comparator);
+		if (comparator.compare(priority, u.priority) >= 0)
+			return this;
+		return new IndexedPriorityQueue<>(put(root, key, hash(key), 0, priority), size, comparator);
+	}
+
+	/**
+	 * Removes the key.
+	 *
+	 * @param key the key to be removed
+	 * @return the new priority queue, or this priority queue if it does not
+	 *         contain the key.
+	 */
+	public IndexedPriorityQueue<K, P> remove(K key) {
+		if (find(key) == null)
+			return this;
+		return new IndexedPriorityQueue<>(remove(root, key, hash(key), 0), size - 1, comparator);
+	}
+
+	private Node<K, P> find(K key) {
+		final int h = hash(key);
+		Node<K, P> u = root;
+		for (int d = 0; u != null; d++) {
+			if (u.key.equals(key))
+				return u;
+			u = bit(h, d) == 0 ? u.lson : u.rson;
+		}
+		return null;
+	}
+
+	/**
+	 * Helper function: spreads the higher bits, the trie branches on the lower
+	 * bits first.
+	 */
+	private static int hash(Object key) {
+		int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Helper function: the keys of the same hash are chained on the left after
+	 * all bits are used.
+	 */
+	private static int bit(int h, int d) {
+		return d < 32 ? (h >>> d) & 1 : 0;
+	}
+
+	private Node<K, P> put(Node<K, P> u, K key, int h, int d, P priority) {
+		if (u == null)
+			return node(key, priority, null, null);
+		if (u.key.equals(key))
+			return node(key, priority, u.lson, u.rson);
+		if (bit(h, d) == 0)
+			return node(u.key, u.priority, put(u.lson, key, h, d + 1, priority), u.rson);
+		return node(u.key, u.priority, u.lson, put(u.rson, key, h, d + 1, priority));
+	}
+
+	private Node<K, P> remove(Node<K, P> u, K key, int h, int d) {
+		if (u.key.equals(key))
+			return removeRoot(u);
+		if (bit(h, d) == 0)
+			return node(u.key, u.priority, remove(u.lson, key, h, d + 1), u.rson);
+		return node(u.key, u.priority, u.lson, remove(u.rson, key, h, d + 1));
+	}
+
+	/**
+	 * Helper function: a leaf in the subtree replaces the root, it is still on
+	 * the path of its hash bits.
+	 */
+	private Node<K, P> removeRoot(Node<K, P> u) {
+		if (u.lson == null && u.rson == null)
+			return null;
+		Node<K, P> leaf = u;
+		while (leaf.lson != null || leaf.rson != null)
+			leaf = leaf.lson != null ? leaf.lson : leaf.rson;
+		if (u.lson != null)
+			return node(leaf.key, leaf.priority, removeLeaf(u.lson), u.rson);
+		return node(leaf.key, leaf.priority, null, removeLeaf(u.rson));
+	}
+
+	private Node<K, P> removeLeaf(Node<K, P> u) {
+		if (u.lson != null)
+			return node(u.key, u.priority, removeLeaf(u.lson), u.rson);
+		if (u.rson != null)
+			return node(u.key, u.priority, null, removeLeaf(u.rson));
+		return null;
+	}
+
+	/**
+	 * Helper function: creates the node, the minimum of subtree is chosen from
+	 * itself and the minimums of children.
+	 */
+	private Node<K, P> node(K key, P priority, Node<K, P> lson, Node<K, P> rson) {
+		Node<K, P> min = null;
+		P p = priority;
+		if (lson != null && comparator.compare(lson.min.priority, p) < 0) {
+			min = lson.min;
+			p = min.priority;
+		}
+		if (rson != null && comparator.compare(rson.min.priority, p) < 0)
+			min = rson.min;
+		return new Node<>(key, priority, lson, rson, min);
+	}
+
+	private static class Node<K, P> {
+		private final K key;
+		private final P priority;
+		private final Node<K, P> lson;
+		private final Node<K, P> rson;
+		/** The node of minimum priority in the subtree. */
+		private final Node<K, P> min;
+
+		/**
+		 * @param min the node of minimum priority in the children, or null if this
+		 *            node has the minimum priority
+		 */
+		Node(K key, P priority, Node<K, P> lson, Node<K, P> rson, Node<K, P> min) {
+			this.key = key;
+			this.priority = priority;
+			this.lson = lson;
+			this.rson = rson;
+			this.min = min == null ? this : min;
+		}
+	}
+}
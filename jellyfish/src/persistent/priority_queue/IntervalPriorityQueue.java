@@ -0,0 +1,296 @@
+package persistent.priority_queue;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import persistent.PMinMaxPriorityQueue;
+import persistent.PPriorityQueue;
+
+/**
+ * Interval heap on a Braun tree
+ *
+ * <p>
+ * Each node holds two elements <tt>lo &lt;= hi</tt>, and the interval
+ * <tt>[lo, hi]</tt> of a node contains the elements of its subtrees. The
+ * nodes are in the shape of {@link BraunPriorityQueue}, and the last element
+ * of odd size is kept outside the tree. {@link #min()} and {@link #max()} take
+ * O(1) time, and {@link #push(Object)}, {@link #popMin()} and
+ * {@link #popMax()} take O(log n) time.
+ * </p>
+ *
+ * @author morrisy
+ *
+ * @param <T> The type of elements held in this collection
+ */
+public class IntervalPriorityQueue<T> extends PMinMaxPriorityQueue<T> {
+	/**
+	 * Returns an empty priority queue.
+	 *
+	 * @param <T>        The type of elements held in this collection
+	 * @param comparator the comparator that will be used to order this priority
+	 *                   queue
+	 * @return An empty priority queue.
+	 */
+	public static <T> IntervalPriorityQueue<T> create(Comparator<? super T> comparator) {
+		return new IntervalPriorityQueue<>(null, null, 0, comparator);
+	}
+
+	private final int size;
+	/** The nodes of <tt>size / 2</tt> pairs. */
+	private final Node<T> root;
+	/** The element outside the tree if size is odd. */
+	private final T spare;
+	private final Comparator<? super T> comparator;
+
+	private IntervalPriorityQueue(Node<T> root, T spare, int size, Comparator<? super T> comparator) {
+		this.root = root;
+		this.spare = spare;
+		this.size = size;
+		this.comparator = comparator;
+	}
+
+	private boolean hasSpare() {
+		return (size & 1) != 0;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public T min() {
+		if (root == null)
+			return spare;
+		if (hasSpare() && comparator.compare(spare, root.lo) < 0)
+			return spare;
+		return root.lo;
+	}
+
+	@Override
+	public T max() {
+		if (root == null)
+			return spare;
+		if (hasSpare() && comparator.compare(spare, root.hi) > 0)
+			return spare;
+		return root.hi;
+	}
+
+	@Override
+	public IntervalPriorityQueue<T> push(T value) {
+		if (!hasSpare())
+			return new IntervalPriorityQueue<>(root, value, size + 1, comparator);
+		if (comparator.compare(spare, value) <= 0)
+			return new IntervalPriorityQueue<>(insert(spare, value, root), null, size + 1, comparator);
+		return new IntervalPriorityQueue<>(insert(value, spare, root), null, size + 1, comparator);
+	}
+
+	/**
+	 * Helper function: inserts the pair <tt>a &lt;= b</tt> along the right
+	 * spine. Each node keeps the smallest and the largest, the middle two move
+	 * down, and the subtrees are swapped on each level.
+	 */
+	private Node<T> insert(T a, T b, Node<T> u) {
+		if (u == null)
+			return new Node<>(a, b, null, null);
+		T lo = u.lo;
+		T hi = u.hi;
+		if (comparator.compare(a, lo) < 0) {
+			T t = a;
+			a = lo;
+			lo = t;
+		}
+		if (comparator.compare(b, hi) > 0) {
+			T t = b;
+			b = hi;
+			hi = t;
+		}
+		if (comparator.compare(a, b) > 0)
+			return new Node<>(lo, hi, insert(b, a, u.rson), u.lson);
+		return new Node<>(lo, hi, insert(a, b, u.rson), u.lson);
+	}
+
+	@Override
+	public IntervalPriorityQueue<T> popMin() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		if (size == 1)
+			return create(comparator);
+		if (hasSpare()) {
+			if (comparator.compare(spare, root.lo) <= 0)
+				return new IntervalPriorityQueue<>(root, null, size - 1, comparator);
+			return new IntervalPriorityQueue<>(siftLo(spare, root.hi, root.lson, root.rson), null, size - 1,
+					comparator);
+		}
+		if (size == 2)
+			return new IntervalPriorityQueue<>(null, root.hi, 1, comparator);
+
+		// the last pair refills the root, the larger one becomes the spare
+		Node<T> last = leftmost(root);
+		Node<T> r = removeLeft(root.lson);
+		return new IntervalPriorityQueue<>(siftLo(last.lo, root.hi, root.rson, r), last.hi, size - 1, comparator);
+	}
+
+	@Override
+	public IntervalPriorityQueue<T> popMax() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		if (size == 1)
+			return create(comparator);
+		if (hasSpare()) {
+			if (comparator.compare(spare, root.hi) >= 0)
+				return new IntervalPriorityQueue<>(root, null, size - 1, comparator);
+			return new IntervalPriorityQueue<>(siftHi(spare, root.lo, root.lson, root.rson), null, size - 1,
+					comparator);
+		}
+		if (size == 2)
+			return new IntervalPriorityQueue<>(null, root.lo, 1, comparator);
+
+		// the last pair refills the root, the smaller one becomes the spare
+		Node<T> last = leftmost(root);
+		Node<T> r = removeLeft(root.lson);
+		return new IntervalPriorityQueue<>(siftHi(last.hi, root.lo, root.rson, r), last.lo, size - 1, comparator);
+	}
+
+	private static <T> Node<T> leftmost(Node<T> u) {
+		while (u.lson != null)
+			u = u.lson;
+		return u;
+	}
+
+	/**
+	 * Helper function: removes the leftmost node, the subtrees are swapped to
+	 * keep the Braun shape.
+	 */
+	private static <T> Node<T> removeLeft(Node<T> u) {
+		if (u.lson == null)
+			return null;
+		return new Node<>(u.lo, u.hi, u.rson, removeLeft(u.lson));
+	}
+
+	/**
+	 * Helper function: creates the node of the value as the lower bound, the
+	 * value moves down to the child of the smallest lower bound until the order
+	 * holds. The value is swapped with the upper bound if it is larger.
+	 */
+	private Node<T> siftLo(T value, T hi, Node<T> l, Node<T> r) {
+		if (comparator.compare(value, hi) > 0) {
+			T t = value;
+			value = hi;
+			hi = t;
+		}
+		boolean left = r == null || (l != null && comparator.compare(l.lo, r.lo) <= 0);
+		Node<T> c = left ? l : r;
+		if (c == null || comparator.compare(value, c.lo) <= 0)
+			return new Node<>(value, hi, l, r);
+		Node<T> v = siftLo(value, c.hi, c.lson, c.rson);
+		return left ? new Node<>(c.lo, hi, v, r) : new Node<>(c.lo, hi, l, v);
+	}
+
+	/**
+	 * Helper function: creates the node of the value as the upper bound, the
+	 * value moves down to the child of the largest upper bound until the order
+	 * holds. The value is swapped with the lower bound if it is smaller.
+	 */
+	private Node<T> siftHi(T value, T lo, Node<T> l, Node<T> r) {
+		if (comparator.compare(value, lo) < 0) {
+			T t = value;
+			value = lo;
+			lo = t;
+		}
+		boolean left = r == null || (l != null && comparator.compare(l.hi, r.hi) >= 0);
+		Node<T> c = left ? l : r;
+		if (c == null || comparator.compare(value, c.hi) >= 0)
+			return new Node<>(lo, value, l, r);
+		Node<T> v = siftHi(value, c.lo, c.lson, c.rson);
+		return left ? new Node<>(lo, c.hi, v, r) : new Node<>(lo, c.hi, l, v);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * The spare element and then the preorder traversal of pairs, O(n) time.
+	 * </p>
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new PairIterator<>(this);
+	}
+
+	private static class PairIterator<T> implements Iterator<T> {
+		private final ArrayDeque<Node<T>> stk = new ArrayDeque<>();
+		private T pending;
+		private boolean hasPending;
+
+		PairIterator(IntervalPriorityQueue<T> q) {
+			if (q.root != null)
+				stk.push(q.root);
+			pending = q.spare;
+			hasPending = q.hasSpare();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return hasPending || !stk.isEmpty();
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			if (hasPending) {
+				hasPending = false;
+				T val = pending;
+				pending = null;
+				return val;
+			}
+			Node<T> u = stk.pop();
+			if (u.rson != null)
+				stk.push(u.rson);
+			if (u.lson != null)
+				stk.push(u.lson);
+			pending = u.hi;
+			hasPending = true;
+			return u.lo;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * O(n log n) time by the default if the specified priority queue is not
+	 * empty.
+	 * </p>
+	 *
+	 * @param other {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public IntervalPriorityQueue<T> meld(PPriorityQueue<? extends T> other) {
+		return (IntervalPriorityQueue<T>) super.meld(other);
+	}
+
+	private static class Node<T> {
+		private final T lo;
+		private final T hi;
+		private final Node<T> lson;
+		private final Node<T> rson;
+
+		Node(T lo, T hi, Node<T> lson, Node<T> rson) {
+			this.lo = lo;
+			this.hi = hi;
+			this.lson = lson;
+			this.rson = rson;
+		}
+	}
+}
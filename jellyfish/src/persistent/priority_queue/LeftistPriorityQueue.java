@@ -0,0 +1,174 @@
+package persistent.priority_queue;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+import persistent.PPriorityQueue;
+
+/**
+ * Leftist heap
+ *
+ * <p>
+ * The rank of a node is the length of its right spine, and the rank of left
+ * child is at least the rank of right child. Two heaps are merged along their
+ * right spines, so {@link #push(Object)}, {@link #pop()} and
+ * {@link #meld(PPriorityQueue)} take O(log n) worst-case time, and
+ * {@link #top()} takes O(1) time.
+ * </p>
+ *
+ * @author morrisy
+ *
+ * @param <T> The type of elements held in this collection
+ */
+public class LeftistPriorityQueue<T> extends PPriorityQueue<T> {
+	/**
+	 * Returns an empty priority queue.
+	 *
+	 * @param <T>        The type of elements held in this collection
+	 * @param comparator the comparator that will be used to order this priority
+	 *                   queue
+	 * @return An empty priority queue.
+	 */
+	public static <T> LeftistPriorityQueue<T> create(Comparator<? super T> comparator) {
+		return new LeftistPriorityQueue<>(null, 0, comparator);
+	}
+
+	private final int size;
+	private final Node<T> root;
+	private final Comparator<? super T> comparator;
+
+	private LeftistPriorityQueue(Node<T> root, int size, Comparator<? super T> comparator) {
+		this.root = root;
+		this.size = size;
+		this.comparator = comparator;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public T top() {
+		return root == null ? null : root.value;
+	}
+
+	@Override
+	public LeftistPriorityQueue<T> push(T value) {
+		return new LeftistPriorityQueue<>(merge(root, new Node<>(null, null, value)), size + 1, comparator);
+	}
+
+	@Override
+	public LeftistPriorityQueue<T> pop() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		return new LeftistPriorityQueue<>(merge(root.lson, root.rson), size - 1, comparator);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * O(log n + log m) time if the specified priority queue is a
+	 * {@link LeftistPriorityQueue}.
+	 * </p>
+	 *
+	 * @param other {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public LeftistPriorityQueue<T> meld(PPriorityQueue<? extends T> other) {
+		if (!(other instanceof LeftistPriorityQueue))
+			return (LeftistPriorityQueue<T>) super.meld(other);
+		LeftistPriorityQueue<T> q = (LeftistPriorityQueue<T>) other;
+		return new LeftistPriorityQueue<>(merge(root, q.root), size + q.size, comparator);
+	}
+
+	/**
+	 * Helper function: merges two heaps along the right spines, the children
+	 * are swapped to keep the leftist property.
+	 */
+	private Node<T> merge(Node<T> a, Node<T> b) {
+		if (a == null)
+			return b;
+		if (b == null)
+			return a;
+		if (comparator.compare(b.value, a.value) < 0) {
+			Node<T> t = a;
+			a = b;
+			b = t;
+		}
+		return new Node<>(a.lson, merge(a.rson, b), a.value);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * Preorder traversal with an explicit stack, O(n) time.
+	 * </p>
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return HeapIterator.preorder(root, LeftistPriorityQueue::children, u -> u.value);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * The frontier holds the nodes whose parents are visited, the first k
+	 * elements take O(k log k) time.
+	 * </p>
+	 */
+	@Override
+	public Iterator<T> sortedIterator() {
+		return HeapIterator.sorted(root, comparator, LeftistPriorityQueue::children, u -> u.value);
+	}
+
+	/**
+	 * Helper function: adds the children of the node, the left child is visited
+	 * first in preorder.
+	 */
+	private static <T> void children(Node<T> u, Consumer<Node<T>> add) {
+		if (u.rson != null)
+			add.accept(u.rson);
+		if (u.lson != null)
+			add.accept(u.lson);
+	}
+
+	private static <T> int rank(Node<T> u) {
+		return u == null ? 0 : u.rank;
+	}
+
+	private static class Node<T> {
+		private final Node<T> lson;
+		private final Node<T> rson;
+		private final T value;
+		private final int rank;
+
+		/**
+		 * Creates a node with the specified children, the child of larger rank
+		 * becomes the left child.
+		 */
+		Node(Node<T> a, Node<T> b, T value) {
+			if (rank(a) < rank(b)) {
+				Node<T> t = a;
+				a = b;
+				b = t;
+			}
+			this.lson = a;
+			this.rson = b;
+			this.value = value;
+			this.rank = rank(b) + 1;
+		}
+	}
+}
@@ -0,0 +1,250 @@
+package persistent.priority_queue;
+
+import java.util.NoSuchElementException;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Primitive specialization of {@link BraunPriorityQueue} for <tt>long</tt>
+ * keys.
+ *
+ * <p>
+ * Each node stores its key unboxed with an optional payload, and the keys are
+ * compared directly without a {@link java.util.Comparator}. The smallest key is
+ * the top, like the earliest deadline of timers. {@link #push(long, Object)}
+ * and {@link #pop()} take O(log n) time, and {@link #popUntil(long,
+ * ObjLongConsumer)} removes all expired keys at once.
+ * </p>
+ *
+ * @author morrisy
+ *
+ * @param <T> The type of payloads held in this collection
+ */
+public class LongPriorityQueue<T> {
+	/** The empty priority queue. */
+	private static final LongPriorityQueue<?> EMPTY = new LongPriorityQueue<>(null, 0);
+
+	/**
+	 * Returns an empty priority queue.
+	 *
+	 * @param <T> The type of payloads held in this collection
+	 * @return An empty priority queue.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> LongPriorityQueue<T> create() {
+		return (LongPriorityQueue<T>) EMPTY;
+	}
+
+	private final int size;
+	private final Node<T> root;
+
+	private LongPriorityQueue(Node<T> root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the smallest key.
+	 *
+	 * @return the smallest key
+	 * @throws NoSuchElementException if this priority queue is empty.
+	 */
+	public long topKey() {
+		if (root == null)
+			throw new NoSuchElementException();
+		return root.key;
+	}
+
+	/**
+	 * Returns the payload of the smallest key.
+	 *
+	 * @return the payload of the smallest key, or null if this priority queue is
+	 *         empty.
+	 */
+	public T top() {
+		return root == null ? null : root.value;
+	}
+
+	/**
+	 * Inserts the key without payload.
+	 *
+	 * @param key the key
+	 * @return the new priority queue
+	 */
+	public LongPriorityQueue<T> push(long key) {
+		return push(key, null);
+	}
+
+	/**
+	 * Inserts the key with the payload along the right spine, O(log n) time. See
+	 * {@link BraunPriorityQueue#push(Object)}.
+	 *
+	 * @param key   the key
+	 * @param value the payload, can be null
+	 * @return the new priority queue
+	 */
+	public LongPriorityQueue<T> push(long key, T value) {
+		final int h = height(size + 1);
+		long[] keys = new long[h];
+		@SuppressWarnings("unchecked")
+		T[] values = (T[]) new Object[h];
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		Node<T>[] lsons = new Node[h];
+		int d = 0;
+		for (Node<T> u = root; u != null; u = u.rson, d++) {
+			if (key <= u.key) {
+				keys[d] = key;
+				values[d] = value;
+				key = u.key;
+				value = u.value;
+			} else {
+				keys[d] = u.key;
+				values[d] = u.value;
+			}
+			lsons[d] = u.lson;
+		}
+
+		Node<T> w = new Node<>(null, null, key, value);
+		while (d > 0) {
+			d--;
+			w = new Node<>(w, lsons[d], keys[d], values[d]);
+		}
+		return new LongPriorityQueue<>(w, size + 1);
+	}
+
+	/**
+	 * Removes the smallest key, O(log n) time. See
+	 * {@link BraunPriorityQueue#pop()}.
+	 *
+	 * @return the new priority queue, which removes the smallest key.
+	 * @throws NoSuchElementException if this priority queue is empty.
+	 */
+	public LongPriorityQueue<T> pop() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		if (size == 1)
+			return create();
+		return new LongPriorityQueue<>(pop(root, size), size - 1);
+	}
+
+	/**
+	 * Removes all keys not larger than the deadline in increasing order of keys,
+	 * O(k log n) time for k removed keys. No priority queue is created for the
+	 * intermediate versions.
+	 *
+	 * @param deadline the largest key to be removed
+	 * @param action   the action to be performed for the payload and the key of
+	 *                 each removed key
+	 * @return the new priority queue, or this priority queue if no key is
+	 *         removed.
+	 */
+	public LongPriorityQueue<T> popUntil(long deadline, ObjLongConsumer<? super T> action) {
+		Node<T> u = root;
+		int n = size;
+		while (n > 0 && u.key <= deadline) {
+			action.accept(u.value, u.key);
+			u = --n == 0 ? null : pop(u, n + 1);
+		}
+		if (n == size)
+			return this;
+		return n == 0 ? create() : new LongPriorityQueue<>(u, n);
+	}
+
+	/**
+	 * Helper function: removes the leftmost node and sifts its key down from the
+	 * root, the root has at least two nodes. Both paths are buffered top-down,
+	 * and the new nodes are built bottom-up from the buffers.
+	 */
+	private static <T> Node<T> pop(Node<T> root, int size) {
+		final int h = height(size);
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		Node<T>[] path = new Node[h];
+
+		// removes the leftmost node, the subtrees are swapped to keep the Braun
+		// shape
+		int d = 0;
+		Node<T> u = root.lson;
+		for (; u.lson != null; u = u.lson)
+			path[d++] = u;
+		final long key = u.key;
+		final T value = u.value;
+		Node<T> left = null;
+		while (d > 0) {
+			d--;
+			left = new Node<>(path[d].rson, left, path[d].key, path[d].value);
+		}
+
+		// sifts the key down to the smaller child until the heap order holds,
+		// each level keeps the node moved up, the other child and the side of
+		// the key
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		Node<T>[] ups = new Node[h];
+		boolean[] toLeft = new boolean[h];
+		Node<T> l = root.rson;
+		Node<T> r = left;
+		Node<T> w;
+		while (true) {
+			if (l == null) {
+				w = new Node<>(null, null, key, value);
+				break;
+			} else if (r == null) {
+				if (key <= l.key)
+					w = new Node<>(l, null, key, value);
+				else
+					w = new Node<>(new Node<>(null, null, key, value), null, l.key, l.value);
+				break;
+			} else if (key <= l.key && key <= r.key) {
+				w = new Node<>(l, r, key, value);
+				break;
+			}
+
+			Node<T> next;
+			if (l.key <= r.key) {
+				next = l;
+				path[d] = r;
+				toLeft[d] = true;
+			} else {
+				next = r;
+				path[d] = l;
+			}
+			ups[d++] = next;
+			l = next.lson;
+			r = next.rson;
+		}
+
+		while (d > 0) {
+			d--;
+			Node<T> v = ups[d];
+			w = toLeft[d] ? new Node<>(w, path[d], v.key, v.value) : new Node<>(path[d], w, v.key, v.value);
+		}
+		return w;
+	}
+
+	/**
+	 * Helper function: returns the height of a Braun tree of the specified size.
+	 */
+	private static int height(int size) {
+		return 32 - Integer.numberOfLeadingZeros(size);
+	}
+
+	private static class Node<T> {
+		private final Node<T> lson;
+		private final Node<T> rson;
+		private final long key;
+		private final T value;
+
+		Node(Node<T> lson, Node<T> rson, long key, T value) {
+			this.lson = lson;
+			this.rson = rson;
+			this.key = key;
+			this.value = value;
+		}
+	}
+}
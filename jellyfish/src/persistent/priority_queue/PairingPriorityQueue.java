@@ -0,0 +1,179 @@
+package persistent.priority_queue;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+import persistent.PPriorityQueue;
+import persistent.PStack;
+import persistent.util.PCollections;
+
+/**
+ * Pairing heap
+ *
+ * <p>
+ * Each node keeps the list of its subheaps. {@link #top()},
+ * {@link #push(Object)} and {@link #meld(PPriorityQueue)} take O(1) time, and
+ * {@link #pop()} merges the subheaps of root in two passes, O(log n) amortized
+ * time when the versions are used in a single-threaded (ephemeral) way, and
+ * O(n) in the worst case.
+ * </p>
+ *
+ * @author morrisy
+ *
+ * @param <T> The type of elements held in this collection
+ */
+public class PairingPriorityQueue<T> extends PPriorityQueue<T> {
+	/**
+	 * Returns an empty priority queue.
+	 *
+	 * @param <T>        The type of elements held in this collection
+	 * @param comparator the comparator that will be used to order this priority
+	 *                   queue
+	 * @return An empty priority queue.
+	 */
+	public static <T> PairingPriorityQueue<T> create(Comparator<? super T> comparator) {
+		return new PairingPriorityQueue<>(null, 0, comparator);
+	}
+
+	private final int size;
+	private final Node<T> root;
+	private final Comparator<? super T> comparator;
+
+	private PairingPriorityQueue(Node<T> root, int size, Comparator<? super T> comparator) {
+		this.root = root;
+		this.size = size;
+		this.comparator = comparator;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public T top() {
+		return root == null ? null : root.value;
+	}
+
+	@Override
+	public PairingPriorityQueue<T> push(T value) {
+		return new PairingPriorityQueue<>(merge(root, new Node<>(value, PCollections.emptyStack())), size + 1,
+				comparator);
+	}
+
+	@Override
+	public PairingPriorityQueue<T> pop() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		return new PairingPriorityQueue<>(mergePairs(root.children), size - 1, comparator);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * O(1) time if the specified priority queue is a
+	 * {@link PairingPriorityQueue}.
+	 * </p>
+	 *
+	 * @param other {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public PairingPriorityQueue<T> meld(PPriorityQueue<? extends T> other) {
+		if (!(other instanceof PairingPriorityQueue))
+			return (PairingPriorityQueue<T>) super.meld(other);
+		PairingPriorityQueue<T> q = (PairingPriorityQueue<T>) other;
+		return new PairingPriorityQueue<>(merge(root, q.root), size + q.size, comparator);
+	}
+
+	/**
+	 * Helper function: the root with larger value becomes a subheap of the other.
+	 */
+	private Node<T> merge(Node<T> a, Node<T> b) {
+		if (a == null)
+			return b;
+		if (b == null)
+			return a;
+		if (comparator.compare(b.value, a.value) < 0)
+			return new Node<>(b.value, b.children.push(a));
+		return new Node<>(a.value, a.children.push(b));
+	}
+
+	/**
+	 * Helper function: merges the subheaps in pairs from left to right, and then
+	 * merges the pairs from right to left.
+	 */
+	private Node<T> mergePairs(PStack<Node<T>> children) {
+		final int n = children.size();
+		if (n == 0)
+			return null;
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		Node<T>[] pairs = new Node[(n + 1) >> 1];
+		int m = 0;
+		for (PStack<Node<T>> u = children; !u.isEmpty(); u = u.pop()) {
+			Node<T> a = u.top();
+			u = u.pop();
+			if (u.isEmpty()) {
+				pairs[m++] = a;
+				break;
+			}
+			pairs[m++] = merge(a, u.top());
+		}
+		Node<T> r = pairs[m - 1];
+		for (int i = m - 2; i >= 0; i--)
+			r = merge(pairs[i], r);
+		return r;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * Preorder traversal with an explicit stack, O(n) time.
+	 * </p>
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return HeapIterator.preorder(root, PairingPriorityQueue::children, u -> u.value);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * The frontier holds the subheaps whose parents are visited, each visited
+	 * node adds all its subheaps into the frontier.
+	 * </p>
+	 */
+	@Override
+	public Iterator<T> sortedIterator() {
+		return HeapIterator.sorted(root, comparator, PairingPriorityQueue::children, u -> u.value);
+	}
+
+	/**
+	 * Helper function: adds all subheaps of the node.
+	 */
+	private static <T> void children(Node<T> u, Consumer<Node<T>> add) {
+		for (Node<T> v : u.children)
+			add.accept(v);
+	}
+
+	private static class Node<T> {
+		private final T value;
+		private final PStack<Node<T>> children;
+
+		Node(T value, PStack<Node<T>> children) {
+			this.value = value;
+			this.children = children;
+		}
+	}
+}
@@ -0,0 +1,324 @@
+package persistent.priority_queue;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+import persistent.PPriorityQueue;
+import persistent.PStack;
+import persistent.util.PCollections;
+
+/**
+ * Paper: "Optimal Purely Functional Priority Queues", Brodal, G. S., &
+ * Okasaki, C., 1996
+ *
+ * <p>
+ * Skew binomial queue with the global root and the bootstrapping of Brodal and
+ * Okasaki. A priority queue is its minimum element with a skew binomial queue
+ * of the other priority queues ordered by their minimums, so two priority
+ * queues are melded by inserting one into the other.
+ * </p>
+ *
+ * <p>
+ * {@link #top()}, {@link #push(Object)} and {@link #meld(PPriorityQueue)} take
+ * O(1) worst-case time, and {@link #pop()} takes O(log n) time.
+ * </p>
+ *
+ * @author morrisy
+ *
+ * @param <T> The type of elements held in this collection
+ */
+public class SkewBinomialPriorityQueue<T> extends PPriorityQueue<T> {
+	/**
+	 * Returns an empty priority queue.
+	 *
+	 * @param <T>        The type of elements held in this collection
+	 * @param comparator the comparator that will be used to order this priority
+	 *                   queue
+	 * @return An empty priority queue.
+	 */
+	public static <T> SkewBinomialPriorityQueue<T> create(Comparator<? super T> comparator) {
+		return new SkewBinomialPriorityQueue<>(null, 0, comparator);
+	}
+
+	/**
+	 * The minimum element and the skew binomial queue of the other priority
+	 * queues, which is ordered by their minimums.
+	 */
+	private static final class Root<T> {
+		final T value;
+		final PStack<Tree<T>> queue;
+
+		Root(T value, PStack<Tree<T>> queue) {
+			this.value = value;
+			this.queue = queue;
+		}
+	}
+
+	/**
+	 * Skew binomial tree of rank r, the root has up to r auxiliary elements and
+	 * the children are in decreasing order of rank.
+	 */
+	private static final class Tree<T> {
+		final int rank;
+		final Root<T> root;
+		final PStack<Root<T>> aux;
+		final PStack<Tree<T>> children;
+
+		Tree(int rank, Root<T> root, PStack<Root<T>> aux, PStack<Tree<T>> children) {
+			this.rank = rank;
+			this.root = root;
+			this.aux = aux;
+			this.children = children;
+		}
+	}
+
+	private final int size;
+	private final Root<T> root;
+	private final Comparator<? super T> comparator;
+
+	private SkewBinomialPriorityQueue(Root<T> root, int size, Comparator<? super T> comparator) {
+		this.root = root;
+		this.size = size;
+		this.comparator = comparator;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public T top() {
+		return root == null ? null : root.value;
+	}
+
+	@Override
+	public SkewBinomialPriorityQueue<T> push(T value) {
+		return meld(new Root<>(value, PCollections.emptyStack()), 1);
+	}
+
+	@Override
+	public SkewBinomialPriorityQueue<T> pop() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		PStack<Tree<T>> q = root.queue;
+		if (q.isEmpty())
+			return create(comparator);
+
+		// the minimum of the queue becomes the new root, its own queue is merged
+		Tree<T> min = null;
+		for (Tree<T> t : q) {
+			if (min == null || less(t.root, min.root))
+				min = t;
+		}
+		PStack<Tree<T>> rest = removeTree(q, min);
+		PStack<Tree<T>> u = merge(reverse(min.children), rest);
+		for (Root<T> x : min.aux)
+			u = insert(x, u);
+		return new SkewBinomialPriorityQueue<>(new Root<>(min.root.value, merge(min.root.queue, u)), size - 1,
+				comparator);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * O(1) time if the specified priority queue is a
+	 * {@link SkewBinomialPriorityQueue}, the one with the larger minimum is
+	 * inserted into the queue of the other.
+	 * </p>
+	 *
+	 * @param other {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public SkewBinomialPriorityQueue<T> meld(PPriorityQueue<? extends T> other) {
+		if (!(other instanceof SkewBinomialPriorityQueue))
+			return (SkewBinomialPriorityQueue<T>) super.meld(other);
+		SkewBinomialPriorityQueue<T> q = (SkewBinomialPriorityQueue<T>) other;
+		if (q.isEmpty())
+			return this;
+		return meld(q.root, q.size);
+	}
+
+	private SkewBinomialPriorityQueue<T> meld(Root<T> r, int n) {
+		if (isEmpty())
+			return new SkewBinomialPriorityQueue<>(r, n, comparator);
+		Root<T> a = root;
+		Root<T> b = r;
+		if (less(b, a)) {
+			a = r;
+			b = root;
+		}
+		return new SkewBinomialPriorityQueue<>(new Root<>(a.value, insert(b, a.queue)), size + n, comparator);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * Traverses the roots and the trees breadth-first, O(n) time.
+	 * </p>
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new RootIterator<>(root, new ArrayDeque<>());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * The frontier holds the roots and the trees whose parents are visited,
+	 * each tree is heap-ordered by its root.
+	 * </p>
+	 */
+	@Override
+	public Iterator<T> sortedIterator() {
+		return new RootIterator<>(root, new PriorityQueue<>((a, b) -> comparator.compare(key(a), key(b))));
+	}
+
+	/**
+	 * Helper function: the minimum of a {@link Root} or a {@link Tree}.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> T key(Object o) {
+		return o instanceof Tree ? ((Tree<T>) o).root.value : ((Root<T>) o).value;
+	}
+
+	/**
+	 * Visits the roots, the frontier decides the order. A tree is expanded into
+	 * its root, auxiliary elements and children.
+	 */
+	private static class RootIterator<T> implements Iterator<T> {
+		private final Queue<Object> frontier;
+
+		RootIterator(Root<T> root, Queue<Object> frontier) {
+			this.frontier = frontier;
+			if (root != null)
+				frontier.add(root);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !frontier.isEmpty();
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public T next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			Object o = frontier.poll();
+			while (o instanceof Tree) {
+				Tree<T> t = (Tree<T>) o;
+				for (Root<T> x : t.aux)
+					frontier.add(x);
+				for (Tree<T> c : t.children)
+					frontier.add(c);
+				o = t.root;
+			}
+			Root<T> r = (Root<T>) o;
+			for (Tree<T> t : r.queue)
+				frontier.add(t);
+			return r.value;
+		}
+	}
+
+	private boolean less(Root<T> a, Root<T> b) {
+		return comparator.compare(a.value, b.value) < 0;
+	}
+
+	private Tree<T> link(Tree<T> a, Tree<T> b) {
+		if (less(b.root, a.root)) {
+			Tree<T> t = a;
+			a = b;
+			b = t;
+		}
+		return new Tree<>(a.rank + 1, a.root, a.aux, a.children.push(b));
+	}
+
+	private Tree<T> skewLink(Root<T> x, Tree<T> a, Tree<T> b) {
+		Tree<T> t = link(a, b);
+		if (less(t.root, x))
+			return new Tree<>(t.rank, t.root, t.aux.push(x), t.children);
+		return new Tree<>(t.rank, x, t.aux.push(t.root), t.children);
+	}
+
+	/**
+	 * Helper function: inserts into the skew binomial queue in O(1) time, the
+	 * first two trees are linked with the element if they have the same rank.
+	 */
+	private PStack<Tree<T>> insert(Root<T> x, PStack<Tree<T>> q) {
+		if (q.size() >= 2) {
+			Tree<T> a = q.top();
+			PStack<Tree<T>> r = q.pop();
+			Tree<T> b = r.top();
+			if (a.rank == b.rank)
+				return r.pop().push(skewLink(x, a, b));
+		}
+		return q.push(new Tree<>(0, x, PCollections.emptyStack(), PCollections.emptyStack()));
+	}
+
+	/**
+	 * Helper function: merges two skew binomial queues in O(log n) time.
+	 */
+	private PStack<Tree<T>> merge(PStack<Tree<T>> a, PStack<Tree<T>> b) {
+		return mergeTrees(normalize(a), normalize(b));
+	}
+
+	/**
+	 * Helper function: links the first two trees if they have the same rank, so
+	 * the ranks are strictly increasing.
+	 */
+	private PStack<Tree<T>> normalize(PStack<Tree<T>> q) {
+		if (q.isEmpty())
+			return q;
+		return insertTree(q.top(), q.pop());
+	}
+
+	private PStack<Tree<T>> insertTree(Tree<T> t, PStack<Tree<T>> q) {
+		while (!q.isEmpty() && q.top().rank <= t.rank) {
+			t = link(t, q.top());
+			q = q.pop();
+		}
+		return q.push(t);
+	}
+
+	private PStack<Tree<T>> mergeTrees(PStack<Tree<T>> a, PStack<Tree<T>> b) {
+		if (a.isEmpty())
+			return b;
+		if (b.isEmpty())
+			return a;
+		Tree<T> x = a.top();
+		Tree<T> y = b.top();
+		if (x.rank < y.rank)
+			return mergeTrees(a.pop(), b).push(x);
+		if (y.rank < x.rank)
+			return mergeTrees(a, b.pop()).push(y);
+		return insertTree(link(x, y), mergeTrees(a.pop(), b.pop()));
+	}
+
+	private static <T> PStack<Tree<T>> removeTree(PStack<Tree<T>> q, Tree<T> t) {
+		if (q.top() == t)
+			return q.pop();
+		return removeTree(q.pop(), t).push(q.top());
+	}
+
+	private static <T> PStack<Tree<T>> reverse(PStack<Tree<T>> q) {
+		PStack<Tree<T>> r = PCollections.emptyStack();
+		for (Tree<T> t : q)
+			r = r.push(t);
+		return r;
+	}
+}
@@ -0,0 +1,175 @@
+package persistent.stack;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import persistent.PStack;
+
+/**
+ * Unrolled persistent stack support O(1) pop/push/top operations.
+ *
+ * <p>
+ * The elements are stored in chunks of up to {@value #CHUNK_SIZE} slots instead
+ * of a node per element. A version is a chunk with the number of its slots in
+ * use, so the versions share the chunk. The fill count of a chunk is the number
+ * of claimed slots, and a push appends in place only if its version owns all
+ * claimed slots, otherwise it starts a new chunk above this version. The fill
+ * count is claimed by CAS, so the versions can be shared between threads.
+ * </p>
+ *
+ * <p>
+ * A new chunk above a full chunk has twice its slots, up to
+ * {@value #CHUNK_SIZE}, and any other new chunk has
+ * {@value #MIN_CHUNK_SIZE} slots. So a push on a popped version, e.g.
+ * replacing the top, allocates a small chunk, and a run of pushes grows back
+ * to full chunks.
+ * </p>
+ *
+ * <p>
+ * A slot above a popped version still holds its element until the chunk is
+ * unreachable, at most {@value #CHUNK_SIZE} - 1 elements per chunk.
+ * </p>
+ *
+ * <p>
+ * The chunks save retained memory, not allocation. Each push and each pop
+ * inside a chunk allocates a version, where {@link PersistStack#pop()}
+ * allocates nothing, and a push into a new chunk allocates the chunk as well.
+ * </p>
+ *
+ * @author morrisy
+ *
+ * @param <T> The type of element
+ */
+public class UnrolledStack<T> extends PStack<T> {
+	static final int CHUNK_SIZE = 16;
+	static final int MIN_CHUNK_SIZE = 2;
+
+	private static final UnrolledStack<?> EMPTY = new UnrolledStack<>(null, 0, 0);
+
+	@SuppressWarnings("unchecked")
+	public static <T> UnrolledStack<T> create() {
+		return (UnrolledStack<T>) EMPTY;
+	}
+
+	private final Chunk<T> chunk;
+	/** The number of slots of the chunk in this version. */
+	private final int count;
+	private final int size;
+
+	private UnrolledStack(Chunk<T> chunk, int count, int size) {
+		this.chunk = chunk;
+		this.count = count;
+		this.size = size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	public UnrolledStack<T> clear() {
+		return create();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T top() {
+		if (isEmpty())
+			return null;
+		return (T) chunk.items[count - 1];
+	}
+
+	@Override
+	public UnrolledStack<T> push(T value) {
+		if (chunk == null)
+			return new UnrolledStack<>(new Chunk<>(MIN_CHUNK_SIZE, value, this), 1, size + 1);
+		final int capacity = chunk.items.length;
+		if (count < capacity && chunk.claim(count)) {
+			chunk.items[count] = value;
+			return new UnrolledStack<>(chunk, count + 1, size + 1);
+		}
+		int n = count == capacity ? Math.min(capacity << 1, CHUNK_SIZE) : MIN_CHUNK_SIZE;
+		return new UnrolledStack<>(new Chunk<>(n, value, this), 1, size + 1);
+	}
+
+	@Override
+	public UnrolledStack<T> pop() {
+		if (count > 1)
+			return new UnrolledStack<>(chunk, count - 1, size - 1);
+		return count == 1 ? chunk.below : create();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * Reads the slots of each chunk without creating the versions.
+	 * </p>
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new ChunkIterator<>(this);
+	}
+
+	private static class ChunkIterator<T> implements Iterator<T> {
+		private Chunk<T> chunk;
+		private int index;
+
+		ChunkIterator(UnrolledStack<T> stk) {
+			chunk = stk.chunk;
+			index = stk.count;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return index > 0;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public T next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			T val = (T) chunk.items[--index];
+			if (index == 0) {
+				index = chunk.below.count;
+				chunk = chunk.below.chunk;
+			}
+			return val;
+		}
+	}
+
+	/**
+	 * The slots below the fill count are written once before they are
+	 * published through the final fields of a version.
+	 */
+	private static final class Chunk<T> {
+		@SuppressWarnings("rawtypes")
+		private static final AtomicIntegerFieldUpdater<Chunk> FILL = AtomicIntegerFieldUpdater
+				.newUpdater(Chunk.class, "fill");
+
+		private final Object[] items;
+		private final UnrolledStack<T> below;
+		private volatile int fill;
+
+		Chunk(int capacity, T value, UnrolledStack<T> below) {
+			this.items = new Object[capacity];
+			this.items[0] = value;
+			this.below = below;
+			this.fill = 1;
+		}
+
+		/**
+		 * Claims the slot of the index if it is the next free slot.
+		 */
+		boolean claim(int index) {
+			return fill == index && FILL.compareAndSet(this, index, index + 1);
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package persistent.util;
+
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * An associative aggregate of elements, used by
+ * {@link persistent.array.AggregateTreeList}.
+ * 
+ * <p>
+ * The operation {@link #combine(Object, Object)} must be associative and
+ * {@link #identity()} must be its identity element, but it does not need to be
+ * commutative. For example, sum, min, max, or the concatenation of strings.
+ * </p>
+ * 
+ * @author morrisy
+ *
+ * @param <T> The type of elements
+ * @param <A> The type of aggregate
+ */
+public interface Monoid<T, A> {
+	/**
+	 * Returns the aggregate of no element.
+	 * 
+	 * @return the identity element
+	 */
+	A identity();
+
+	/**
+	 * Returns the aggregate of a single element.
+	 * 
+	 * @param value the element
+	 * @return the aggregate of the element
+	 */
+	A lift(T value);
+
+	/**
+	 * Returns the aggregate of the elements of <tt>a</tt> followed by the elements
+	 * of <tt>b</tt>.
+	 * 
+	 * @param a the aggregate of the leading elements
+	 * @param b the aggregate of the trailing elements
+	 * @return the combined aggregate
+	 */
+	A combine(A a, A b);
+
+	/**
+	 * Returns a monoid from the specified functions.
+	 * 
+	 * @param <T>      The type of elements
+	 * @param <A>      The type of aggregate
+	 * @param identity the aggregate of no element
+	 * @param lift     the aggregate of a single element
+	 * @param combine  the associative operation
+	 * @return the monoid
+	 */
+	static <T, A> Monoid<T, A> of(A identity, Function<? super T, ? extends A> lift, BinaryOperator<A> combine) {
+		return new Monoid<T, A>() {
+			@Override
+			public A identity() {
+				return identity;
+			}
+
+			@Override
+			public A lift(T value) {
+				return lift.apply(value);
+			}
+
+			@Override
+			public A combine(A a, A b) {
+				return combine.apply(a, b);
+			}
+		};
+	}
+}
@@ -3,15 +3,21 @@ package persistent.util;
 import java.util.Comparator;
 
 import persistent.PDeque;
+import persistent.PFullyList;
 import persistent.PList;
+import persistent.PMinMaxPriorityQueue;
 import persistent.PPriorityQueue;
 import persistent.PQueue;
 import persistent.PStack;
+import persistent.array.ChunkedTreeList;
 import persistent.array.TreeList;
+import persistent.array.fully.FingerTreeList;
 import persistent.deque.RealtimeDeque;
 import persistent.priority_queue.BraunPriorityQueue;
+import persistent.priority_queue.IntervalPriorityQueue;
 import persistent.queue.RealtimeQueue;
 import persistent.stack.PersistStack;
+import persistent.stack.UnrolledStack;
 
 public class PCollections {
 	private PCollections() {
@@ -27,6 +33,17 @@ public class PCollections {
 		return PersistStack.create();
 	}
 
+	/**
+	 * Unrolled {@link UnrolledStack}, chunks of elements instead of a node per
+	 * element
+	 * 
+	 * @param <T> The type of element
+	 * @return The empty base of stack
+	 */
+	public static <T> PStack<T> emptyUnrolledStack() {
+		return UnrolledStack.create();
+	}
+
 	/**
 	 * Default {@link RealtimeQueue}
 	 * 
@@ -57,6 +74,27 @@ public class PCollections {
 		return TreeList.create();
 	}
 
+	/**
+	 * Chunked-leaf {@link ChunkedTreeList}, more compact for large lists
+	 * 
+	 * @param <T> The type of element
+	 * @return The empty base of list
+	 */
+	public static <T> PList<T> emptyChunkedList() {
+		return ChunkedTreeList.create();
+	}
+
+	/**
+	 * Finger-tree {@link FingerTreeList}, amortized O(1) at both ends with
+	 * O(log n) split and concatenation
+	 * 
+	 * @param <T> The type of element
+	 * @return The empty base of list
+	 */
+	public static <T> PFullyList<T> emptyFingerList() {
+		return FingerTreeList.create();
+	}
+
 	/**
 	 * Default {@link BraunPriorityQueue}
 	 * 
@@ -68,4 +106,17 @@ public class PCollections {
 	public static <T> PPriorityQueue<T> emptyPriorityQueue(Comparator<T> comparator) {
 		return BraunPriorityQueue.create(comparator);
 	}
+
+	/**
+	 * Double-ended {@link IntervalPriorityQueue}, O(log n) to pop the minimum or
+	 * the maximum
+	 * 
+	 * @param <T>        The type of element
+	 * @param comparator the comparator that will be used to order this priority
+	 *                   queue
+	 * @return The empty base of priority queue
+	 */
+	public static <T> PMinMaxPriorityQueue<T> emptyMinMaxPriorityQueue(Comparator<T> comparator) {
+		return IntervalPriorityQueue.create(comparator);
+	}
 }
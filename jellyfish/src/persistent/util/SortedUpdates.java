@@ -0,0 +1,125 @@
+package persistent.util;
+
+import java.util.Arrays;
+
+import persistent.PList;
+
+/**
+ * Batched updates of a list sorted by index, used by
+ * {@link PList#setAll(int[], Object[])}. If an index appears more than once,
+ * the last value wins.
+ *
+ * @author morrisy
+ *
+ * @param <T> The type of elements
+ */
+public final class SortedUpdates<T> {
+	private final int[] indices;
+	private final Object[] values;
+	private final int length;
+
+	private SortedUpdates(int[] indices, Object[] values, int length) {
+		this.indices = indices;
+		this.values = values;
+		this.length = length;
+	}
+
+	/**
+	 * Sorts the updates by index in O(k log k) time, or O(k) if the indices are
+	 * already strictly increasing.
+	 *
+	 * @param <T>     the type of elements
+	 * @param indices indices of the elements to replace
+	 * @param values  elements to be stored at the specified positions
+	 * @param size    the size of list
+	 * @return the sorted updates without duplicated indices
+	 * @throws IllegalArgumentException  if the lengths of the arrays are
+	 *                                   different
+	 * @throws IndexOutOfBoundsException if any index is out of range
+	 *                                   (<tt>index &lt; 0 || index &gt;= size</tt>)
+	 */
+	public static <T> SortedUpdates<T> of(int[] indices, T[] values, int size) {
+		if (indices.length != values.length)
+			throw new IllegalArgumentException();
+
+		final int k = indices.length;
+		boolean sorted = true;
+		for (int i = 0; i < k; i++) {
+			if (indices[i] < 0 || indices[i] >= size)
+				throw new IndexOutOfBoundsException();
+			if (i > 0 && indices[i - 1] >= indices[i])
+				sorted = false;
+		}
+		if (sorted)
+			return new SortedUpdates<>(indices, values, k);
+
+		// sort (index, position) pairs, then keep the last position of each index
+		long[] order = new long[k];
+		for (int i = 0; i < k; i++)
+			order[i] = ((long) indices[i] << 32) | i;
+		Arrays.sort(order);
+
+		int[] idx = new int[k];
+		Object[] val = new Object[k];
+		int n = 0;
+		for (int i = 0; i < k; i++) {
+			int index = (int) (order[i] >>> 32);
+			if (i + 1 < k && (int) (order[i + 1] >>> 32) == index)
+				continue;
+			idx[n] = index;
+			val[n] = values[(int) order[i]];
+			n++;
+		}
+		return new SortedUpdates<>(idx, val, n);
+	}
+
+	/**
+	 * Returns the number of updates.
+	 *
+	 * @return the number of updates
+	 */
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * Returns the index of the i-th update.
+	 *
+	 * @param i the order of update
+	 * @return the index of the i-th update
+	 */
+	public int index(int i) {
+		return indices[i];
+	}
+
+	/**
+	 * Returns the value of the i-th update.
+	 *
+	 * @param i the order of update
+	 * @return the value of the i-th update
+	 */
+	@SuppressWarnings("unchecked")
+	public T value(int i) {
+		return (T) values[i];
+	}
+
+	/**
+	 * Returns the first order in <tt>[lo, hi)</tt> whose index is not less than
+	 * the key, or <tt>hi</tt> if there is none.
+	 *
+	 * @param lo  the lower bound of orders, inclusive
+	 * @param hi  the upper bound of orders, exclusive
+	 * @param key the index to search
+	 * @return the first order whose index is not less than the key
+	 */
+	public int lowerBound(int lo, int hi, int key) {
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (indices[mid] < key)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return lo;
+	}
+}
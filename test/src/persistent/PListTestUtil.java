@@ -1,6 +1,11 @@
 package persistent;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
 import java.util.Set;
 
 import org.junit.jupiter.api.Assertions;
@@ -159,4 +164,126 @@ public class PListTestUtil {
 		Assertions.assertFalse(a.equals(b));
 		Assertions.assertFalse(b.equals(a));
 	}
+
+	public static void testOfAll(PList<Integer> list, int n) {
+		Assertions.assertEquals(n, list.size());
+		for (int i = 0; i < n; i++)
+			Assertions.assertEquals(i, list.get(i));
+		int i = 0;
+		for (Integer v : list)
+			Assertions.assertEquals(i++, v);
+
+		PList<Integer> a = list.pushBack(n);
+		for (i = 0; i <= n; i++)
+			Assertions.assertEquals(i, a.get(i));
+		a = list;
+		for (i = n - 1; i >= 0; i--) {
+			Assertions.assertEquals(i, a.get(i));
+			a = a.popBack();
+		}
+		Assertions.assertTrue(a.isEmpty());
+	}
+
+	public static void testIterator(PList<Integer> empty) {
+		PList<Integer> a = empty;
+		for (int n = 0; n < 1000; n++) {
+			Iterator<Integer> itr = a.iterator();
+			for (int i = 0; i < n; i++) {
+				Assertions.assertTrue(itr.hasNext());
+				Assertions.assertEquals(i, itr.next());
+			}
+			Assertions.assertFalse(itr.hasNext());
+			Assertions.assertThrows(NoSuchElementException.class, itr::next);
+			a = a.pushBack(n);
+		}
+	}
+
+	public static void testToArray(PList<Integer> empty) {
+		PList<Integer> a = empty;
+		for (int n = 0; n < 300; n++) {
+			Object[] values = a.toArray();
+			Assertions.assertEquals(n, values.length);
+			for (int i = 0; i < n; i++)
+				Assertions.assertEquals(i, values[i]);
+
+			Integer[] dest = a.copyInto(new Integer[n + 1]);
+			for (int i = 0; i < n; i++)
+				Assertions.assertEquals(i, dest[i]);
+			Assertions.assertNull(dest[n]);
+
+			int[] count = new int[1];
+			a.forEach(v -> Assertions.assertEquals(count[0]++, v));
+			Assertions.assertEquals(n, count[0]);
+
+			if (n > 0) {
+				PList<Integer> b = a;
+				Integer[] shorter = new Integer[n - 1];
+				Assertions.assertThrows(IndexOutOfBoundsException.class, () -> b.copyInto(shorter));
+			}
+			a = a.pushBack(n);
+		}
+	}
+
+	public static void testHashCode(PList<Integer> empty) {
+		Random random = new Random(7);
+		PList<Integer> a = empty;
+		List<Integer> expected = new ArrayList<>();
+		for (int n = 0; n < 300; n++) {
+			Assertions.assertEquals(expected.hashCode(), a.hashCode());
+			Assertions.assertEquals(expected.hashCode(), a.hashCode());
+			if (n > 0) {
+				int index = random.nextInt(n);
+				PList<Integer> b = a.set(index, -1);
+				Assertions.assertNotEquals(a, b);
+				Assertions.assertNotEquals(b, a);
+				Assertions.assertEquals(b, b.set(index, -1));
+				Assertions.assertEquals(a, b.set(index, a.get(index)));
+				Assertions.assertEquals(a.hashCode(), b.set(index, a.get(index)).hashCode());
+			}
+			Integer value = n % 7 == 0 ? null : random.nextInt(3);
+			a = a.pushBack(value);
+			expected.add(value);
+		}
+		for (int n = expected.size(); n > 0; n--) {
+			Assertions.assertEquals(expected.hashCode(), a.hashCode());
+			a = a.popBack();
+			expected.remove(n - 1);
+		}
+		Assertions.assertEquals(1, a.hashCode());
+	}
+
+	public static void testSetAll(PList<Integer> empty) {
+		Random random = new Random(7);
+		PList<Integer> a = empty;
+		for (int n = 0; n < 300; n++) {
+			int k = random.nextInt(n / 2 + 2);
+			int[] indices = new int[n == 0 ? 0 : k];
+			Integer[] values = new Integer[indices.length];
+			PList<Integer> expected = a;
+			for (int i = 0; i < indices.length; i++) {
+				indices[i] = random.nextInt(n);
+				values[i] = -random.nextInt(1000);
+				expected = expected.set(indices[i], values[i]);
+			}
+
+			PList<Integer> b = a.setAll(indices, values);
+			Assertions.assertEquals(expected, b);
+			for (int i = 0; i < n; i++)
+				Assertions.assertEquals(i, a.get(i));
+
+			int from = n == 0 ? 0 : random.nextInt(n);
+			int to = from + random.nextInt(n - from + 1);
+			PList<Integer> c = b.setAll(from, to, i -> i * 2);
+			for (int i = 0; i < n; i++)
+				Assertions.assertEquals(from <= i && i < to ? i * 2 : b.get(i), c.get(i));
+
+			a = a.pushBack(n);
+		}
+
+		PList<Integer> b = a;
+		Assertions.assertThrows(IndexOutOfBoundsException.class,
+				() -> b.setAll(new int[] { 0, b.size() }, new Integer[] { 1, 2 }));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> b.setAll(new int[] { 0 }, new Integer[0]));
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> b.setAll(-1, 1, i -> i));
+	}
 }
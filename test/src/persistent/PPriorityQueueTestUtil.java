@@ -0,0 +1,182 @@
+package persistent;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+
+import persistent.priority_queue.BraunPriorityQueue;
+
+public class PPriorityQueueTestUtil {
+	private PPriorityQueueTestUtil() {
+	}
+
+	private static List<Integer> toList(Iterable<Integer> a) {
+		List<Integer> list = new ArrayList<>();
+		for (Integer v : a)
+			list.add(v);
+		return list;
+	}
+
+	public static void testBasic(PPriorityQueue<Integer> empty) {
+		PPriorityQueue<Integer> p = empty;
+
+		p = p.push(30);
+		Assertions.assertEquals(30, p.top());
+		Assertions.assertEquals(1, p.size());
+		p = p.push(100);
+		Assertions.assertEquals(30, p.top());
+		Assertions.assertEquals(2, p.size());
+		p = p.push(25);
+		Assertions.assertEquals(25, p.top());
+		Assertions.assertEquals(3, p.size());
+		p = p.push(40);
+		Assertions.assertEquals(25, p.top());
+		Assertions.assertEquals(4, p.size());
+
+		p = p.pop();
+		Assertions.assertEquals(30, p.top());
+		Assertions.assertEquals(3, p.size());
+		p = p.pop();
+		Assertions.assertEquals(40, p.top());
+		Assertions.assertEquals(2, p.size());
+		p = p.pop();
+		Assertions.assertEquals(100, p.top());
+		Assertions.assertEquals(1, p.size());
+		p = p.pop();
+		Assertions.assertEquals(true, p.isEmpty());
+		PPriorityQueue<Integer> q = p;
+		Assertions.assertThrows(NoSuchElementException.class, () -> q.pop());
+	}
+
+	public static void testSequential(PPriorityQueue<Integer> empty) {
+		PPriorityQueue<Integer> p = empty;
+		int n = 1000000;
+		for (int i = 0; i < n; i++) {
+			p = p.push(i);
+			Assertions.assertEquals(0, p.top());
+			Assertions.assertEquals(i + 1, p.size());
+		}
+		for (int i = 0; i < n; i++) {
+			Assertions.assertEquals(i, p.top());
+			p = p.pop();
+			Assertions.assertEquals(n - i - 1, p.size());
+		}
+	}
+
+	public static void testRandom(PPriorityQueue<Integer> empty) {
+		Random random = new Random(7);
+		PPriorityQueue<Integer> p = empty;
+		PriorityQueue<Integer> expected = new PriorityQueue<>();
+		for (int i = 0; i < 200000; i++) {
+			if (expected.isEmpty() || random.nextInt(3) > 0) {
+				int v = random.nextInt(1000);
+				p = p.push(v);
+				expected.add(v);
+			} else {
+				p = p.pop();
+				expected.poll();
+			}
+			Assertions.assertEquals(expected.size(), p.size());
+			Assertions.assertEquals(expected.peek(), p.top());
+		}
+	}
+
+	public static void testMeld(PPriorityQueue<Integer> empty) {
+		Random random = new Random(7);
+		PPriorityQueue<Integer> a = empty;
+		PPriorityQueue<Integer> b = a;
+		PriorityQueue<Integer> expected = new PriorityQueue<>();
+		for (int i = 0; i < 100000; i++) {
+			int v = random.nextInt(100000);
+			if (random.nextBoolean())
+				a = a.push(v);
+			else
+				b = b.push(v);
+			expected.add(v);
+		}
+
+		PPriorityQueue<Integer> c = a.meld(b);
+		Assertions.assertEquals(expected.size(), c.size());
+		while (!expected.isEmpty()) {
+			Assertions.assertEquals(expected.poll(), c.top());
+			c = c.pop();
+		}
+		Assertions.assertTrue(c.isEmpty());
+	}
+
+	/**
+	 * Melds with a priority queue of another implementation in both directions.
+	 */
+	public static void testMeldOther(PPriorityQueue<Integer> empty) {
+		PPriorityQueue<Integer> a = empty;
+		PPriorityQueue<Integer> b = BraunPriorityQueue.<Integer>create(Integer::compare);
+		for (int i = 0; i < 100; i++) {
+			if (i % 3 == 0)
+				a = a.push(i);
+			else
+				b = b.push(i);
+		}
+
+		PPriorityQueue<Integer> c = a.meld(b);
+		PPriorityQueue<Integer> d = b.meld(a);
+		Assertions.assertEquals(100, c.size());
+		Assertions.assertEquals(100, d.size());
+		for (int i = 0; i < 100; i++) {
+			Assertions.assertEquals(i, c.top());
+			Assertions.assertEquals(i, d.top());
+			c = c.pop();
+			d = d.pop();
+		}
+		Assertions.assertTrue(c.isEmpty());
+		Assertions.assertTrue(d.isEmpty());
+	}
+
+	public static void testIterators(PPriorityQueue<Integer> empty) {
+		Assertions.assertFalse(empty.iterator().hasNext());
+		Assertions.assertFalse(empty.sortedIterator().hasNext());
+		Assertions.assertThrows(NoSuchElementException.class, () -> empty.sortedIterator().next());
+		Assertions.assertTrue(empty.drainSorted().isEmpty());
+
+		Random random = new Random(7);
+		for (int n : new int[] { 1, 2, 3, 10, 100, 5000 }) {
+			PPriorityQueue<Integer> p = empty;
+			List<Integer> expected = new ArrayList<>();
+			for (int i = 0; i < n; i++) {
+				int v = random.nextInt(n);
+				p = p.push(v);
+				expected.add(v);
+				if (random.nextInt(4) == 0) {
+					expected.sort(Integer::compare);
+					Assertions.assertEquals(expected.remove(0), p.top());
+					p = p.pop();
+				}
+			}
+			expected.sort(Integer::compare);
+			final PPriorityQueue<Integer> q = p;
+
+			List<Integer> all = toList(q);
+			all.sort(Integer::compare);
+			Assertions.assertEquals(expected, all);
+
+			Assertions.assertEquals(expected, toList(q::sortedIterator));
+			Assertions.assertEquals(expected, toList(q.drainSorted()));
+			for (int k : new int[] { 0, 1, 2, 7, 100 }) {
+				int m = Math.min(k, expected.size());
+				Assertions.assertEquals(expected.subList(0, m), toList(q.topK(k)));
+			}
+			Iterator<Integer> it = q.sortedIterator();
+			for (int i = 0; i < expected.size(); i++)
+				it.next();
+			Assertions.assertFalse(it.hasNext());
+			Assertions.assertThrows(NoSuchElementException.class, () -> it.next());
+			Assertions.assertThrows(IllegalArgumentException.class, () -> q.topK(-1));
+			Assertions.assertEquals(expected.size(), q.size());
+			Assertions.assertEquals(expected.isEmpty() ? null : expected.get(0), q.top());
+		}
+	}
+}
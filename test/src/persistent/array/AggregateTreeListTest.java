@@ -0,0 +1,125 @@
+package persistent.array;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import persistent.PListTestUtil;
+import persistent.util.Monoid;
+
+public class AggregateTreeListTest {
+	private static final Monoid<Integer, Long> SUM = Monoid.of(0L, v -> v == null ? 0L : v, Long::sum);
+	private static final Monoid<Integer, String> CONCAT = Monoid.of("", v -> v + ",", String::concat);
+
+	@Test
+	public void testPushBackGet() {
+		PListTestUtil.testPushBackGet(AggregateTreeList.create(SUM));
+	}
+
+	@Test
+	public void testPopBackGet() {
+		PListTestUtil.testPopBackGet(AggregateTreeList.create(SUM));
+	}
+
+	@Test
+	public void testPushBackSet() {
+		PListTestUtil.testPushBackSet(AggregateTreeList.create(SUM));
+	}
+
+	@Test
+	public void testDemo() {
+		PListTestUtil.testDemo(AggregateTreeList.create(SUM));
+	}
+
+	@Test
+	public void testZigZag() {
+		PListTestUtil.testZigZag(AggregateTreeList.create(SUM));
+	}
+
+	@Test
+	public void testEquals() {
+		PListTestUtil.testEquals(AggregateTreeList.create(SUM));
+	}
+
+	@Test
+	public void testIteratorAll() {
+		PListTestUtil.testIterator(AggregateTreeList.create(SUM));
+	}
+
+	@Test
+	public void testSetAll() {
+		PListTestUtil.testSetAll(AggregateTreeList.create(SUM));
+	}
+
+	@Test
+	public void testOfAll() {
+		for (int n = 0; n < 100; n++) {
+			Integer[] values = new Integer[n];
+			for (int i = 0; i < n; i++)
+				values[i] = i;
+			AggregateTreeList<Integer, Long> a = AggregateTreeList.ofAll(SUM, values);
+			PListTestUtil.testOfAll(a, n);
+			Assertions.assertEquals((long) n * (n - 1) / 2, a.aggregate());
+		}
+	}
+
+	@Test
+	public void testAggregate() {
+		Random random = new Random(7);
+		AggregateTreeList<Integer, String> a = AggregateTreeList.create(CONCAT);
+		for (int n = 0; n < 200; n++) {
+			for (int from = 0; from <= n; from++) {
+				StringBuilder sb = new StringBuilder();
+				for (int to = from; to <= n; to++) {
+					Assertions.assertEquals(sb.toString(), a.aggregate(from, to));
+					if (to < n)
+						sb.append(a.get(to)).append(',');
+				}
+			}
+			a = a.pushBack(random.nextInt(100));
+		}
+
+		AggregateTreeList<Integer, String> b = a;
+		for (int i = 0; i < 1000; i++) {
+			int index = random.nextInt(b.size());
+			b = b.set(index, -i);
+			int from = random.nextInt(b.size());
+			int to = from + random.nextInt(b.size() - from + 1);
+			StringBuilder sb = new StringBuilder();
+			for (int j = from; j < to; j++)
+				sb.append(b.get(j)).append(',');
+			Assertions.assertEquals(sb.toString(), b.aggregate(from, to));
+		}
+		for (; !b.isEmpty(); b = b.popBack()) {
+			StringBuilder sb = new StringBuilder();
+			for (Integer v : b)
+				sb.append(v).append(',');
+			Assertions.assertEquals(sb.toString(), b.aggregate());
+		}
+
+		AggregateTreeList<Integer, String> c = a;
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> c.aggregate(-1, 1));
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> c.aggregate(2, 1));
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> c.aggregate(0, c.size() + 1));
+	}
+
+	@Test
+	public void testAggregateMin() {
+		Monoid<Integer, Integer> min = Monoid.of(Integer.MAX_VALUE, v -> v, Math::min);
+		Random random = new Random(7);
+		int n = 100000;
+		Integer[] values = new Integer[n];
+		for (int i = 0; i < n; i++)
+			values[i] = random.nextInt();
+		AggregateTreeList<Integer, Integer> a = AggregateTreeList.ofAll(min, values);
+		for (int i = 0; i < 1000; i++) {
+			int from = random.nextInt(n);
+			int to = from + 1 + random.nextInt(Math.min(n - from, 500));
+			int expected = Integer.MAX_VALUE;
+			for (int j = from; j < to; j++)
+				expected = Math.min(expected, values[j]);
+			Assertions.assertEquals(expected, a.aggregate(from, to));
+		}
+	}
+}
@@ -1,7 +1,16 @@
 package persistent.array;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import persistent.PFullyList;
 import persistent.PListTestUtil;
 
 public class BraunListTest {
@@ -39,4 +48,111 @@ public class BraunListTest {
 	public void testEquals() {
 		PListTestUtil.testEquals(BraunList.create());
 	}
+
+	@Test
+	public void testOfAll() {
+		for (int n = 0; n < 100; n++) {
+			Integer[] values = new Integer[n];
+			List<Integer> list = new ArrayList<>();
+			for (int i = 0; i < n; i++) {
+				values[i] = i;
+				list.add(i);
+			}
+			PListTestUtil.testOfAll(BraunList.ofAll(values), n);
+			PListTestUtil.testOfAll(BraunList.ofAll(list), n);
+			PListTestUtil.testOfAll(BraunList.ofAll(list.iterator(), n), n);
+		}
+	}
+
+	@Test
+	public void testSetAll() {
+		PListTestUtil.testSetAll(BraunList.create());
+	}
+
+	@Test
+	public void testIteratorAll() {
+		PListTestUtil.testIterator(BraunList.create());
+	}
+
+	/**
+	 * The levels deeper than the kept level are read by the paths.
+	 */
+	@Test
+	public void testIteratorDeep() {
+		for (int n : new int[] { 2047, 131071, 131072, 300000 }) {
+			Integer[] values = new Integer[n];
+			for (int i = 0; i < n; i++)
+				values[i] = i;
+			BraunList<Integer> a = BraunList.ofAll(values);
+			int i = 0;
+			for (Integer v : a)
+				Assertions.assertEquals(i++, v);
+			Assertions.assertEquals(n, i);
+			int[] j = { 0 };
+			a.forEach(v -> Assertions.assertEquals(j[0]++, v));
+			Assertions.assertEquals(n, j[0]);
+		}
+	}
+
+	@Test
+	public void testToArray() {
+		PListTestUtil.testToArray(BraunList.create());
+	}
+
+	@Test
+	public void testHashCode() {
+		PListTestUtil.testHashCode(BraunList.create());
+	}
+
+	@Test
+	public void testPushFrontPopFront() {
+		PFullyList<Integer> a = BraunList.create();
+		int n = 100000;
+		for (int i = 0; i < n; i++) {
+			a = a.pushFront(-i).pushBack(i);
+			Assertions.assertEquals(-i, a.front());
+			Assertions.assertEquals(i, a.back());
+		}
+		for (int i = 0; i < 2 * n; i++)
+			Assertions.assertEquals(i < n ? i - n + 1 : i - n, a.get(i));
+		for (int i = n - 1; i >= 0; i--) {
+			Assertions.assertEquals(-i, a.front());
+			a = a.popFront();
+			Assertions.assertEquals(i, a.back());
+			a = a.popBack();
+		}
+		Assertions.assertTrue(a.isEmpty());
+		PFullyList<Integer> b = a;
+		Assertions.assertThrows(NoSuchElementException.class, () -> b.popFront());
+		Assertions.assertThrows(NoSuchElementException.class, () -> b.popBack());
+	}
+
+	@Test
+	public void testRandomDeque() {
+		Random random = new Random(7);
+		BraunList<Integer> a = BraunList.create();
+		LinkedList<Integer> expected = new LinkedList<>();
+		for (int i = 0; i < 5000; i++) {
+			int op = random.nextInt(5);
+			if (op == 0 || expected.isEmpty()) {
+				a = a.pushFront(i);
+				expected.addFirst(i);
+			} else if (op == 1) {
+				a = a.pushBack(i);
+				expected.addLast(i);
+			} else if (op == 2) {
+				a = a.popFront();
+				expected.removeFirst();
+			} else if (op == 3) {
+				a = a.popBack();
+				expected.removeLast();
+			} else {
+				int k = random.nextInt(expected.size());
+				a = a.set(k, -i);
+				expected.set(k, -i);
+			}
+			Assertions.assertEquals(expected.size(), a.size());
+			Assertions.assertEquals(expected, Arrays.asList(a.toArray()));
+		}
+	}
 }
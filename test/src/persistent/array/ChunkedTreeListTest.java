@@ -0,0 +1,94 @@
+package persistent.array;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import persistent.PList;
+import persistent.PListTestUtil;
+
+public class ChunkedTreeListTest {
+	@Test
+	public void testPushBackGet() {
+		PListTestUtil.testPushBackGet(ChunkedTreeList.create());
+	}
+
+	@Test
+	public void testPopBackGet() {
+		PListTestUtil.testPopBackGet(ChunkedTreeList.create());
+	}
+
+	@Test
+	public void testPushBackSet() {
+		PListTestUtil.testPushBackSet(ChunkedTreeList.create());
+	}
+
+	@Test
+	public void testToString() {
+		PListTestUtil.testToString(ChunkedTreeList.create());
+	}
+
+	@Test
+	public void testDemo() {
+		PListTestUtil.testDemo(ChunkedTreeList.create());
+	}
+
+	@Test
+	public void testZigZag() {
+		PListTestUtil.testZigZag(ChunkedTreeList.create());
+	}
+
+	@Test
+	public void testEquals() {
+		PListTestUtil.testEquals(ChunkedTreeList.create());
+	}
+
+	@Test
+	public void testChunkBoundary() {
+		PList<Integer> a = ChunkedTreeList.create();
+		int n = ChunkedTreeList.CHUNK_SIZE * 3;
+		for (int i = 0; i < n; i++)
+			a = a.pushBack(i);
+
+		// older versions are untouched by updates across block boundaries
+		PList<Integer> b = a.set(ChunkedTreeList.CHUNK_SIZE, -1).popBack();
+		PList<Integer> c = b.popBack().pushBack(-2);
+		for (int i = 0; i < n; i++)
+			Assertions.assertEquals(i, a.get(i));
+		Assertions.assertEquals(n - 1, b.size());
+		Assertions.assertEquals(-1, b.get(ChunkedTreeList.CHUNK_SIZE));
+		Assertions.assertEquals(n - 2, b.get(n - 2));
+		Assertions.assertEquals(-2, c.get(n - 2));
+
+		int i = 0;
+		for (Integer v : a)
+			Assertions.assertEquals(i++, v);
+		Assertions.assertEquals(n, i);
+	}
+
+	@Test
+	public void testBranchedPushBack() {
+		PList<Integer> a = ChunkedTreeList.create();
+		for (int i = 0; i < ChunkedTreeList.CHUNK_SIZE + 3; i++)
+			a = a.pushBack(i);
+
+		// the first push fills the shared tail in place, the others copy it
+		PList<Integer> b = a.pushBack(-1);
+		PList<Integer> c = a.pushBack(-2);
+		PList<Integer> d = b.popBack().pushBack(-3);
+		Assertions.assertEquals(a.size(), b.size() - 1);
+		Assertions.assertEquals(-1, b.get(a.size()));
+		Assertions.assertEquals(-2, c.get(a.size()));
+		Assertions.assertEquals(-3, d.get(a.size()));
+		Assertions.assertEquals(-1, b.pushBack(-4).get(a.size()));
+		for (int i = 0; i < a.size(); i++) {
+			Assertions.assertEquals(i, b.get(i));
+			Assertions.assertEquals(i, c.get(i));
+			Assertions.assertEquals(i, d.get(i));
+		}
+	}
+
+	@Test
+	public void testSetAll() {
+		PListTestUtil.testSetAll(ChunkedTreeList.create());
+	}
+}
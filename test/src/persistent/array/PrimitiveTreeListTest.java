@@ -0,0 +1,174 @@
+package persistent.array;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import persistent.PList;
+import persistent.PListTestUtil;
+
+public class PrimitiveTreeListTest {
+	/**
+	 * A primitive list under test, the values are small integers, so they are
+	 * exact in each type.
+	 */
+	static final class Kind<T> {
+		final String name;
+		final PList<T> empty;
+		final LongFunction<T> box;
+		final IntFunction<T[]> newArray;
+		final LongFunction<PList<T>> ofRange;
+
+		Kind(String name, PList<T> empty, LongFunction<T> box, IntFunction<T[]> newArray,
+				LongFunction<PList<T>> ofRange) {
+			this.name = name;
+			this.empty = empty;
+			this.box = box;
+			this.newArray = newArray;
+			this.ofRange = ofRange;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	static Stream<Kind<?>> kinds() {
+		return Stream.of(new Kind<>("int", IntTreeList.create(), v -> (int) v, Integer[]::new, n -> {
+			int[] a = new int[(int) n];
+			Arrays.setAll(a, i -> i * 3);
+			return IntTreeList.ofAll(a);
+		}), new Kind<>("long", LongTreeList.create(), v -> v, Long[]::new, n -> {
+			long[] a = new long[(int) n];
+			Arrays.setAll(a, i -> i * 3L);
+			return LongTreeList.ofAll(a);
+		}), new Kind<>("double", DoubleTreeList.create(), v -> (double) v, Double[]::new, n -> {
+			double[] a = new double[(int) n];
+			Arrays.setAll(a, i -> i * 3.0);
+			return DoubleTreeList.ofAll(a);
+		}));
+	}
+
+	/**
+	 * Helper function: reads the value without boxing.
+	 */
+	private static double getPrimitive(PList<?> list, int index) {
+		if (list instanceof IntTreeList)
+			return ((IntTreeList) list).getInt(index);
+		if (list instanceof LongTreeList)
+			return ((LongTreeList) list).getLong(index);
+		return ((DoubleTreeList) list).getDouble(index);
+	}
+
+	/**
+	 * Helper function: reads the next value without boxing.
+	 */
+	private static double nextPrimitive(PrimitiveIterator<?, ?> itr) {
+		if (itr instanceof PrimitiveIterator.OfInt)
+			return ((PrimitiveIterator.OfInt) itr).nextInt();
+		if (itr instanceof PrimitiveIterator.OfLong)
+			return ((PrimitiveIterator.OfLong) itr).nextLong();
+		return ((PrimitiveIterator.OfDouble) itr).nextDouble();
+	}
+
+	@ParameterizedTest
+	@MethodSource("kinds")
+	public <T> void testPushBackPopBack(Kind<T> kind) {
+		PList<T> a = kind.empty;
+		int n = 10000;
+		for (int i = 0; i < n; i++) {
+			a = a.pushBack(kind.box.apply(i));
+			Assertions.assertEquals(i + 1, a.size());
+		}
+		for (int i = 0; i < n; i++) {
+			Assertions.assertEquals(kind.box.apply(i), a.get(i));
+			Assertions.assertEquals(i, getPrimitive(a, i));
+		}
+
+		PList<T> b = a;
+		for (int i = n - 1; i >= 0; i--) {
+			Assertions.assertEquals(i, getPrimitive(b, i));
+			b = b.popBack();
+		}
+		Assertions.assertTrue(b.isEmpty());
+		Assertions.assertEquals(n, a.size());
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> getPrimitive(kind.empty, 0));
+	}
+
+	@ParameterizedTest
+	@MethodSource("kinds")
+	public <T> void testSet(Kind<T> kind) {
+		PList<T> a = kind.ofRange.apply(1000);
+		PList<T> b = a;
+		for (int i = 0; i < a.size(); i += 7)
+			b = b.set(i, kind.box.apply(-i));
+		for (int i = 0; i < a.size(); i++) {
+			Assertions.assertEquals(i * 3, getPrimitive(a, i));
+			Assertions.assertEquals(i % 7 == 0 ? -i : i * 3, getPrimitive(b, i));
+		}
+	}
+
+	@ParameterizedTest
+	@MethodSource("kinds")
+	public <T> void testSetAll(Kind<T> kind) {
+		PList<T> a = kind.ofRange.apply(1000);
+		int[] indices = { 999, 0, 31, 32, 500, 31, 990 };
+		T[] values = kind.newArray.apply(indices.length);
+		for (int i = 0; i < indices.length; i++)
+			values[i] = kind.box.apply(-i);
+
+		PList<T> b = a.setAll(indices, values);
+		PList<T> c = a;
+		for (int i = 0; i < indices.length; i++)
+			c = c.set(indices[i], values[i]);
+		Assertions.assertEquals(c, b);
+		for (int i = 0; i < a.size(); i++)
+			Assertions.assertEquals(i * 3, getPrimitive(a, i));
+		Assertions.assertSame(a, a.setAll(new int[0], kind.newArray.apply(0)));
+		Assertions.assertThrows(IndexOutOfBoundsException.class,
+				() -> a.setAll(new int[] { 1000 }, kind.newArray.apply(1)));
+	}
+
+	@ParameterizedTest
+	@MethodSource("kinds")
+	public <T> void testIterator(Kind<T> kind) {
+		for (int m = 0; m <= 1000; m += 31) {
+			PList<T> a = kind.ofRange.apply(m);
+			Assertions.assertEquals(m, a.size());
+			PrimitiveIterator<?, ?> itr = (PrimitiveIterator<?, ?>) a.iterator();
+			for (int i = 0; i < m; i++)
+				Assertions.assertEquals(i * 3, nextPrimitive(itr));
+			Assertions.assertFalse(itr.hasNext());
+			Assertions.assertEquals(a.pushBack(kind.box.apply(0)).popBack(), a);
+		}
+	}
+
+	@ParameterizedTest
+	@MethodSource("kinds")
+	public <T> void testBoxed(Kind<T> kind) {
+		PList<T> a = kind.empty;
+		a = a.pushBack(kind.box.apply(3)).pushBack(kind.box.apply(1)).pushBack(kind.box.apply(4));
+		a = a.set(1, kind.box.apply(2));
+		Assertions.assertEquals(kind.box.apply(2), a.get(1));
+		Assertions.assertEquals("{size=3, [" + kind.box.apply(3) + ", " + kind.box.apply(2) + ", "
+				+ kind.box.apply(4) + "]}", a.toString());
+	}
+
+	@Test
+	public void testIntList() {
+		PListTestUtil.testPushBackGet(IntTreeList.create());
+		PListTestUtil.testPopBackGet(IntTreeList.create());
+		PListTestUtil.testZigZag(IntTreeList.create());
+		PListTestUtil.testEquals(IntTreeList.create());
+		PListTestUtil.testIterator(IntTreeList.create());
+		PListTestUtil.testSetAll(IntTreeList.create());
+	}
+}
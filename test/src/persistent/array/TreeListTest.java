@@ -1,5 +1,10 @@
 package persistent.array;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import persistent.PListTestUtil;
@@ -55,4 +60,91 @@ public class TreeListTest {
 	public void testEquals() {
 		PListTestUtil.testEquals(TreeList.create());
 	}
+
+	@Test
+	public void testBuilder() {
+		TreeList.Builder<Integer> builder = TreeList.builder();
+		TreeList<Integer> expected = TreeList.create();
+		for (int i = 0; i < 1000; i++) {
+			Assertions.assertEquals(expected, builder.build());
+			builder.add(i);
+			expected = expected.pushBack(i);
+		}
+
+		TreeList<Integer> a = builder.build();
+		TreeList<Integer> b = a.toBuilder().add(1000).add(1001).build();
+		Assertions.assertEquals(1000, a.size());
+		Assertions.assertEquals(1002, b.size());
+		for (int i = 0; i < b.size(); i++)
+			Assertions.assertEquals(i, b.get(i));
+		Assertions.assertEquals(expected.pushBack(1000).pushBack(1001).popBack(), b.popBack());
+	}
+
+	@Test
+	public void testOfAll() {
+		for (int n = 0; n < 100; n++) {
+			Integer[] values = new Integer[n];
+			List<Integer> list = new ArrayList<>();
+			for (int i = 0; i < n; i++) {
+				values[i] = i;
+				list.add(i);
+			}
+			PListTestUtil.testOfAll(TreeList.ofAll(values), n);
+			PListTestUtil.testOfAll(TreeList.ofAll(list), n);
+			PListTestUtil.testOfAll(TreeList.ofAll(list.iterator(), n), n);
+		}
+	}
+
+	@Test
+	public void testIteratorAll() {
+		PListTestUtil.testIterator(TreeList.create());
+	}
+
+	@Test
+	public void testSetAll() {
+		PListTestUtil.testSetAll(TreeList.create());
+	}
+
+	@Test
+	public void testToArray() {
+		PListTestUtil.testToArray(TreeList.create());
+	}
+
+	@Test
+	public void testHashCode() {
+		PListTestUtil.testHashCode(TreeList.create());
+	}
+
+	@Test
+	public void testDiff() {
+		Random random = new Random(7);
+		TreeList<Integer> a = TreeList.create();
+		for (int n = 0; n < 300; n++) {
+			TreeList<Integer> b = a;
+			int k = random.nextInt(4);
+			for (int i = 0; i < k && !b.isEmpty(); i++)
+				b = b.set(random.nextInt(b.size()), random.nextInt(3));
+			k = random.nextInt(5);
+			for (int i = 0; i < k; i++)
+				b = random.nextBoolean() || b.isEmpty() ? b.pushBack(-i) : b.popBack();
+
+			List<String> expected = new ArrayList<>();
+			for (int i = 0; i < Math.max(a.size(), b.size()); i++) {
+				if (i >= b.size())
+					expected.add("REMOVE(" + i + ", " + a.get(i) + ", null)");
+				else if (i >= a.size())
+					expected.add("INSERT(" + i + ", null, " + b.get(i) + ")");
+				else if (!a.get(i).equals(b.get(i)))
+					expected.add("UPDATE(" + i + ", " + a.get(i) + ", " + b.get(i) + ")");
+			}
+			List<String> actual = new ArrayList<>();
+			a.diff(b).forEachRemaining(c -> actual.add(c.toString()));
+			Assertions.assertEquals(expected, actual);
+
+			a = a.pushBack(random.nextInt(3));
+		}
+
+		Assertions.assertFalse(a.diff(a).hasNext());
+		Assertions.assertFalse(a.diff(TreeList.ofAll(a.copyInto(new Integer[a.size()]))).hasNext());
+	}
 }
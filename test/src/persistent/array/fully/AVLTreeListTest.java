@@ -0,0 +1,167 @@
+package persistent.array.fully;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import persistent.PFullyList;
+import persistent.PListTestUtil;
+import persistent.array.TreeList;
+
+public class AVLTreeListTest {
+	@Test
+	public void testPushBackGet() {
+		PListTestUtil.testPushBackGet(AVLTreeList.create());
+	}
+
+	@Test
+	public void testPopBackGet() {
+		PListTestUtil.testPopBackGet(AVLTreeList.create());
+	}
+
+	@Test
+	public void testPushBackSet() {
+		PListTestUtil.testPushBackSet(AVLTreeList.create());
+	}
+
+	@Test
+	public void testToString() {
+		PListTestUtil.testToString(AVLTreeList.create());
+	}
+
+	@Test
+	public void testDemo() {
+		PListTestUtil.testDemo(AVLTreeList.create());
+	}
+
+	@Test
+	public void testZigZag() {
+		PListTestUtil.testZigZag(AVLTreeList.create());
+	}
+
+	@Test
+	public void testEquals() {
+		PListTestUtil.testEquals(AVLTreeList.create());
+	}
+
+	@Test
+	public void testOfAll() {
+		for (int n = 0; n < 100; n++) {
+			Integer[] values = new Integer[n];
+			List<Integer> list = new ArrayList<>();
+			for (int i = 0; i < n; i++) {
+				values[i] = i;
+				list.add(i);
+			}
+			PListTestUtil.testOfAll(AVLTreeList.ofAll(values), n);
+			PListTestUtil.testOfAll(AVLTreeList.ofAll(list), n);
+			PListTestUtil.testOfAll(AVLTreeList.ofAll(list.iterator(), n), n);
+		}
+	}
+
+	@Test
+	public void testIteratorAll() {
+		PListTestUtil.testIterator(AVLTreeList.create());
+	}
+
+	@Test
+	public void testSetAll() {
+		PListTestUtil.testSetAll(AVLTreeList.create());
+	}
+
+	@Test
+	public void testPushFrontPopFront() {
+		PFullyList<Integer> a = AVLTreeList.create();
+		int n = 100000;
+		for (int i = 0; i < n; i++) {
+			a = a.pushFront(-i).pushBack(i);
+			Assertions.assertEquals(-i, a.front());
+			Assertions.assertEquals(i, a.back());
+		}
+		for (int i = n - 1; i >= 0; i--) {
+			Assertions.assertEquals(-i, a.front());
+			a = a.popFront();
+			Assertions.assertEquals(i, a.back());
+			a = a.popBack();
+		}
+		Assertions.assertTrue(a.isEmpty());
+	}
+
+	@Test
+	public void testConcatSplit() {
+		Random random = new Random(7);
+		for (int n = 0; n < 200; n++) {
+			List<Integer> expected = new ArrayList<>();
+			for (int i = 0; i < n; i++)
+				expected.add(i);
+			AVLTreeList<Integer> a = AVLTreeList.ofAll(expected);
+
+			for (int i = 0; i <= n; i++) {
+				AVLTreeList.Split<Integer> s = a.splitAt(i);
+				Assertions.assertEquals(expected.subList(0, i), toList(s.left));
+				Assertions.assertEquals(expected.subList(i, n), toList(s.right));
+				Assertions.assertEquals(expected, toList(s.left.concat(s.right)));
+			}
+
+			int from = random.nextInt(n + 1);
+			int to = from + random.nextInt(n - from + 1);
+			Assertions.assertEquals(expected.subList(from, to), toList(a.subList(from, to)));
+		}
+
+		AVLTreeList<Integer> a = AVLTreeList.create();
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 20000; i++) {
+			int from = random.nextInt(expected.size() + 1);
+			int to = from + random.nextInt(expected.size() - from + 1);
+			AVLTreeList<Integer> b = AVLTreeList.ofAll(new Integer[] { i, -i });
+			a = a.subList(0, from).concat(b).concat(a.subList(to, a.size()));
+			List<Integer> next = new ArrayList<>(expected.subList(0, from));
+			next.add(i);
+			next.add(-i);
+			next.addAll(expected.subList(to, expected.size()));
+			expected = next;
+			Assertions.assertEquals(expected.size(), a.size());
+		}
+		Assertions.assertEquals(expected, toList(a));
+
+		Assertions.assertEquals(expected, toList(AVLTreeList.<Integer>create().concat(TreeList.ofAll(expected))));
+		AVLTreeList<Integer> b = a;
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> b.splitAt(b.size() + 1));
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> b.subList(1, 0));
+	}
+
+	@Test
+	public void testInsertRemove() {
+		Random random = new Random(7);
+		AVLTreeList<Integer> a = AVLTreeList.create();
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 20000; i++) {
+			if (expected.isEmpty() || random.nextInt(3) > 0) {
+				int index = random.nextInt(expected.size() + 1);
+				a = a.insert(index, i);
+				expected.add(index, i);
+			} else {
+				int index = random.nextInt(expected.size());
+				a = a.remove(index);
+				expected.remove(index);
+			}
+		}
+		Assertions.assertEquals(expected, toList(a));
+		for (int i = 0; i < expected.size(); i++)
+			Assertions.assertEquals(expected.get(i), a.get(i));
+
+		AVLTreeList<Integer> b = a;
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> b.insert(-1, 0));
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> b.remove(b.size()));
+	}
+
+	private static List<Integer> toList(Iterable<Integer> a) {
+		List<Integer> list = new ArrayList<>();
+		for (Integer v : a)
+			list.add(v);
+		return list;
+	}
+}
@@ -1,10 +1,16 @@
 package persistent.array.fully;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import persistent.PFullyList;
 import persistent.PListTestUtil;
+import persistent.array.TreeList;
 
 public class DeTreeListTest {
 	@Test
@@ -140,4 +146,83 @@ public class DeTreeListTest {
 	public void testEquals() {
 		PListTestUtil.testEquals(DeTreeList.create());
 	}
+
+	@Test
+	public void testOfAll() {
+		for (int n = 0; n < 100; n++) {
+			Integer[] values = new Integer[n];
+			List<Integer> list = new ArrayList<>();
+			for (int i = 0; i < n; i++) {
+				values[i] = i;
+				list.add(i);
+			}
+			PListTestUtil.testOfAll(DeTreeList.ofAll(values), n);
+			PListTestUtil.testOfAll(DeTreeList.ofAll(list), n);
+			PListTestUtil.testOfAll(DeTreeList.ofAll(list.iterator(), n), n);
+		}
+	}
+
+	@Test
+	public void testIteratorAll() {
+		PListTestUtil.testIterator(DeTreeList.create());
+	}
+
+	@Test
+	public void testSetAll() {
+		PListTestUtil.testSetAll(DeTreeList.create());
+	}
+
+	@Test
+	public void testHashCode() {
+		PListTestUtil.testHashCode(DeTreeList.create());
+	}
+
+	@Test
+	public void testEqualsShape() {
+		DeTreeList<Integer> a = DeTreeList.create();
+		DeTreeList<Integer> b = DeTreeList.create();
+		for (int i = 0; i < 100; i++) {
+			a = a.pushBack(i);
+			b = b.pushFront(99 - i);
+		}
+		Assertions.assertEquals(a, b);
+		Assertions.assertEquals(a.hashCode(), b.hashCode());
+		Assertions.assertEquals(a, TreeList.ofAll(b.toArray()));
+		Assertions.assertNotEquals(a, b.set(50, -1));
+		Assertions.assertEquals(a, a.set(50, -1).set(50, 50));
+	}
+
+	@Test
+	public void testSlidingWindow() {
+		Random random = new Random(7);
+		DeTreeList<Integer> a = DeTreeList.create();
+		ArrayDeque<Integer> expected = new ArrayDeque<>();
+		for (int i = 0; i < 20000; i++) {
+			a = a.pushBack(i);
+			expected.addLast(i);
+			if (random.nextInt(4) != 0) {
+				a = a.popFront();
+				expected.pollFirst();
+			}
+			if (a.isEmpty())
+				continue;
+
+			Assertions.assertEquals(expected.peekFirst(), a.front());
+			Assertions.assertEquals(expected.peekLast(), a.back());
+			int n = a.size();
+			Assertions.assertEquals(expected.peekFirst(), a.get(0));
+			Assertions.assertEquals(expected.peekLast(), a.get(n - 1));
+			int k = random.nextInt(Math.min((n + 1) / 2, 8));
+			Assertions.assertEquals(expected.peekFirst() + k, a.get(k));
+			Assertions.assertEquals(expected.peekLast() - k, a.get(n - 1 - k));
+			int m = random.nextInt(n);
+			Assertions.assertEquals(expected.peekFirst() + m, a.get(m));
+
+			DeTreeList<Integer> b = a.set(n - 1 - k, -1).set(k, -2);
+			Assertions.assertEquals(-2, b.get(k));
+			Assertions.assertEquals(k == n - 1 - k ? -2 : -1, b.get(n - 1 - k));
+			Assertions.assertEquals(k == 0 ? -2 : expected.peekFirst(), b.front());
+			Assertions.assertEquals(k == 0 ? (n == 1 ? -2 : -1) : expected.peekLast(), b.back());
+		}
+	}
 }
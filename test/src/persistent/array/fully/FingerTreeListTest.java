@@ -0,0 +1,153 @@
+package persistent.array.fully;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import persistent.PFullyList;
+import persistent.PListTestUtil;
+import persistent.array.TreeList;
+
+public class FingerTreeListTest {
+	@Test
+	public void testPushBackGet() {
+		PListTestUtil.testPushBackGet(FingerTreeList.create());
+	}
+
+	@Test
+	public void testPopBackGet() {
+		PListTestUtil.testPopBackGet(FingerTreeList.create());
+	}
+
+	@Test
+	public void testPushBackSet() {
+		PListTestUtil.testPushBackSet(FingerTreeList.create());
+	}
+
+	@Test
+	public void testToString() {
+		PListTestUtil.testToString(FingerTreeList.create());
+	}
+
+	@Test
+	public void testDemo() {
+		PListTestUtil.testDemo(FingerTreeList.create());
+	}
+
+	@Test
+	public void testZigZag() {
+		PListTestUtil.testZigZag(FingerTreeList.create());
+	}
+
+	@Test
+	public void testEquals() {
+		PListTestUtil.testEquals(FingerTreeList.create());
+	}
+
+	@Test
+	public void testOfAll() {
+		for (int n = 0; n < 100; n++) {
+			Integer[] values = new Integer[n];
+			List<Integer> list = new ArrayList<>();
+			for (int i = 0; i < n; i++) {
+				values[i] = i;
+				list.add(i);
+			}
+			PListTestUtil.testOfAll(FingerTreeList.ofAll(values), n);
+			PListTestUtil.testOfAll(FingerTreeList.ofAll(list), n);
+			PListTestUtil.testOfAll(FingerTreeList.ofAll(list.iterator(), n), n);
+		}
+	}
+
+	@Test
+	public void testIteratorAll() {
+		PListTestUtil.testIterator(FingerTreeList.create());
+	}
+
+	@Test
+	public void testSetAll() {
+		PListTestUtil.testSetAll(FingerTreeList.create());
+	}
+
+	@Test
+	public void testHashCode() {
+		PListTestUtil.testHashCode(FingerTreeList.create());
+	}
+
+	@Test
+	public void testPushFrontPopFront() {
+		PFullyList<Integer> a = FingerTreeList.create();
+		int n = 100000;
+		for (int i = 0; i < n; i++) {
+			a = a.pushFront(-i).pushBack(i);
+			Assertions.assertEquals(-i, a.front());
+			Assertions.assertEquals(i, a.back());
+		}
+		for (int i = 0; i < 2 * n; i++)
+			Assertions.assertEquals(i < n ? i - n + 1 : i - n, a.get(i));
+		for (int i = n - 1; i >= 0; i--) {
+			Assertions.assertEquals(-i, a.front());
+			a = a.popFront();
+			Assertions.assertEquals(i, a.back());
+			a = a.popBack();
+		}
+		Assertions.assertTrue(a.isEmpty());
+	}
+
+	@Test
+	public void testConcatSplit() {
+		Random random = new Random(7);
+		for (int n = 0; n < 200; n++) {
+			List<Integer> expected = new ArrayList<>();
+			for (int i = 0; i < n; i++)
+				expected.add(i);
+			FingerTreeList<Integer> a = FingerTreeList.ofAll(expected);
+
+			for (int i = 0; i <= n; i++) {
+				FingerTreeList.Split<Integer> s = a.splitAt(i);
+				Assertions.assertEquals(expected.subList(0, i), toList(s.left));
+				Assertions.assertEquals(expected.subList(i, n), toList(s.right));
+				Assertions.assertEquals(i, s.left.size());
+				Assertions.assertEquals(expected, toList(s.left.concat(s.right)));
+				Assertions.assertEquals(expected, toList(s.right.concat(s.left).splitAt(n - i).right.concat(s.right)));
+			}
+		}
+
+		FingerTreeList<Integer> a = FingerTreeList.create();
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 20000; i++) {
+			int from = random.nextInt(expected.size() + 1);
+			int to = from + random.nextInt(expected.size() - from + 1);
+			FingerTreeList<Integer> b = FingerTreeList.ofAll(new Integer[] { i, -i });
+			a = a.splitAt(from).left.concat(b).concat(a.splitAt(to).right);
+			List<Integer> next = new ArrayList<>(expected.subList(0, from));
+			next.add(i);
+			next.add(-i);
+			next.addAll(expected.subList(to, expected.size()));
+			expected = next;
+			Assertions.assertEquals(expected.size(), a.size());
+
+			int k = random.nextInt(expected.size());
+			Assertions.assertEquals(expected.get(k), a.get(k));
+			Assertions.assertEquals(-1, a.set(k, -1).get(k));
+		}
+		Assertions.assertEquals(expected, toList(a));
+		for (int i = 0; i < expected.size(); i++)
+			Assertions.assertEquals(expected.get(i), a.get(i));
+
+		Assertions.assertEquals(expected, toList(FingerTreeList.<Integer>create().concat(TreeList.ofAll(expected))));
+		FingerTreeList<Integer> b = a;
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> b.splitAt(b.size() + 1));
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> b.splitAt(-1));
+	}
+
+	private static List<Integer> toList(Iterable<Integer> a) {
+		List<Integer> list = new ArrayList<>();
+		for (Integer v : a)
+			list.add(v);
+		return list;
+	}
+}
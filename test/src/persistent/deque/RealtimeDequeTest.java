@@ -1,5 +1,10 @@
 package persistent.deque;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -53,4 +58,38 @@ public class RealtimeDequeTest {
 			Assertions.assertEquals(index, n);
 		}
 	}
+
+	@Test
+	public void testRandomOps() {
+		for (int seed = 0; seed < 200; seed++) {
+			Random random = new Random(seed);
+			PDeque<Integer> a = RealtimeDeque.create();
+			ArrayDeque<Integer> expected = new ArrayDeque<>();
+			for (int i = 0; i < 1000; i++) {
+				int op = random.nextInt(4);
+				if (expected.isEmpty() || op == 0) {
+					a = a.pushFront(i);
+					expected.addFirst(i);
+				} else if (op == 1) {
+					a = a.pushBack(i);
+					expected.addLast(i);
+				} else if (op == 2) {
+					a = a.popFront();
+					expected.pollFirst();
+				} else {
+					a = a.popBack();
+					expected.pollLast();
+				}
+				Assertions.assertEquals(expected.size(), a.size());
+				if (!expected.isEmpty()) {
+					Assertions.assertEquals(expected.peekFirst(), a.front());
+					Assertions.assertEquals(expected.peekLast(), a.back());
+				}
+				List<Integer> values = new ArrayList<>();
+				for (Integer v : a)
+					values.add(v);
+				Assertions.assertEquals(new ArrayList<>(expected), values, "seed " + seed);
+			}
+		}
+	}
 }
@@ -2,41 +2,19 @@ package persistent.priority_queue;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import persistent.PPriorityQueue;
+import persistent.PPriorityQueueTestUtil;
 
 public class BraunPriorityQueueTest {
 	@Test
 	public void testBasic() {
-		PPriorityQueue<Integer> p = BraunPriorityQueue.<Integer>create((a, b) -> Integer.compare(a, b));
-
-		p = p.push(30);
-		Assertions.assertEquals(30, p.top());
-		Assertions.assertEquals(1, p.size());
-		p = p.push(100);
-		Assertions.assertEquals(30, p.top());
-		Assertions.assertEquals(2, p.size());
-		p = p.push(25);
-		Assertions.assertEquals(25, p.top());
-		Assertions.assertEquals(3, p.size());
-		p = p.push(40);
-		Assertions.assertEquals(25, p.top());
-		Assertions.assertEquals(4, p.size());
-
-		p = p.pop();
-		Assertions.assertEquals(30, p.top());
-		Assertions.assertEquals(3, p.size());
-		p = p.pop();
-		Assertions.assertEquals(40, p.top());
-		Assertions.assertEquals(2, p.size());
-		p = p.pop();
-		Assertions.assertEquals(100, p.top());
-		Assertions.assertEquals(1, p.size());
-		p = p.pop();
-		Assertions.assertEquals(true, p.isEmpty());
+		PPriorityQueueTestUtil.testBasic(BraunPriorityQueue.<Integer>create((a, b) -> Integer.compare(a, b)));
 	}
 
 	@Test
@@ -84,4 +62,63 @@ public class BraunPriorityQueueTest {
 			Assertions.assertEquals(n - i - 1, p.size());
 		}
 	}
+
+	@Test
+	public void testRandom() {
+		Random random = new Random(7);
+		PPriorityQueue<Integer> p = BraunPriorityQueue.<Integer>create(Integer::compare);
+		PriorityQueue<Integer> expected = new PriorityQueue<>();
+		for (int i = 0; i < 200000; i++) {
+			if (expected.isEmpty() || random.nextInt(3) > 0) {
+				int v = random.nextInt(1000);
+				p = p.push(v);
+				expected.add(v);
+			} else {
+				p = p.pop();
+				expected.poll();
+			}
+			Assertions.assertEquals(expected.size(), p.size());
+			Assertions.assertEquals(expected.peek(), p.top());
+		}
+	}
+
+	@Test
+	public void testOfAll() {
+		Random random = new Random(7);
+		for (int n = 0; n < 300; n++) {
+			List<Integer> values = new ArrayList<>();
+			for (int i = 0; i < n; i++)
+				values.add(random.nextInt(n + 1));
+			PPriorityQueue<Integer> p = BraunPriorityQueue.ofAll(values, Integer::compare);
+			Assertions.assertEquals(n, p.size());
+
+			values.sort(Integer::compare);
+			for (int i = 0; i < n; i++) {
+				Assertions.assertEquals(values.get(i), p.top());
+				p = p.pop();
+				if (i % 7 == 0) {
+					// the heap shape must keep pushes valid
+					p = p.push(values.get(i));
+					Assertions.assertEquals(values.get(i), p.top());
+					p = p.pop();
+				}
+			}
+			Assertions.assertTrue(p.isEmpty());
+		}
+
+		Integer[] values = new Integer[1000000];
+		for (int i = 0; i < values.length; i++)
+			values[i] = values.length - i;
+		PPriorityQueue<Integer> p = BraunPriorityQueue.ofAll(values, Integer::compare);
+		for (int i = 1; i <= 1000; i++) {
+			Assertions.assertEquals(i, p.top());
+			p = p.pop();
+		}
+		Assertions.assertEquals(1000000, values[0]);
+	}
+
+	@Test
+	public void testIterators() {
+		PPriorityQueueTestUtil.testIterators(BraunPriorityQueue.<Integer>create(Integer::compare));
+	}
 }
@@ -0,0 +1,114 @@
+package persistent.priority_queue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import persistent.PPriorityQueue;
+
+public class ConcurrentPersistentPriorityQueueTest {
+	@Test
+	public void testSingleStripe() {
+		Random random = new Random(7);
+		ConcurrentPersistentPriorityQueue<Integer> p = ConcurrentPersistentPriorityQueue.create(Integer::compare, 1);
+		PriorityQueue<Integer> expected = new PriorityQueue<>();
+		Assertions.assertNull(p.poll());
+		Assertions.assertNull(p.peek());
+		for (int i = 0; i < 100000; i++) {
+			if (expected.isEmpty() || random.nextInt(3) > 0) {
+				int v = random.nextInt(1000);
+				p.offer(v);
+				expected.add(v);
+			} else {
+				Assertions.assertEquals(expected.peek(), p.peek());
+				Assertions.assertEquals(expected.poll(), p.poll());
+			}
+			Assertions.assertEquals(expected.size(), p.size());
+		}
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> ConcurrentPersistentPriorityQueue.create(Integer::compare, 0));
+	}
+
+	@Test
+	public void testSnapshot() {
+		ConcurrentPersistentPriorityQueue<Integer> p = ConcurrentPersistentPriorityQueue.create(Integer::compare, 4);
+		for (int i = 99; i >= 0; i--)
+			p.offer(i);
+		PPriorityQueue<Integer> s = p.snapshot();
+		while (p.poll() != null)
+			;
+		Assertions.assertTrue(p.isEmpty());
+		Assertions.assertEquals(100, s.size());
+		for (int i = 0; i < 100; i++) {
+			Assertions.assertEquals(i, s.top());
+			s = s.pop();
+		}
+	}
+
+	@Test
+	public void testConcurrent() throws InterruptedException {
+		final int threads = 4;
+		final int n = 50000;
+		ConcurrentPersistentPriorityQueue<Integer> p = ConcurrentPersistentPriorityQueue.create(Integer::compare, 3);
+		ConcurrentLinkedQueue<Integer> polled = new ConcurrentLinkedQueue<>();
+		AtomicBoolean failed = new AtomicBoolean();
+		List<Thread> workers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			final int id = t;
+			workers.add(new Thread(() -> {
+				Random random = new Random(id);
+				for (int i = id; i < n; i += threads) {
+					p.offer(i);
+					if (random.nextBoolean()) {
+						Integer v = p.poll();
+						if (v == null)
+							failed.set(true);
+						else
+							polled.add(v);
+					}
+				}
+			}));
+		}
+		// the snapshots are taken while the workers run, each one has distinct
+		// elements
+		AtomicBoolean running = new AtomicBoolean(true);
+		Thread reader = new Thread(() -> {
+			while (running.get()) {
+				BitSet seen = new BitSet(n);
+				for (Integer v : p.snapshot()) {
+					if (seen.get(v))
+						failed.set(true);
+					seen.set(v);
+				}
+			}
+		});
+		reader.start();
+		for (Thread w : workers)
+			w.start();
+		for (Thread w : workers)
+			w.join();
+		running.set(false);
+		reader.join();
+		Assertions.assertFalse(failed.get());
+
+		BitSet seen = new BitSet(n);
+		for (Integer v : polled) {
+			Assertions.assertFalse(seen.get(v));
+			seen.set(v);
+		}
+		PPriorityQueue<Integer> rest = p.snapshot();
+		Assertions.assertEquals(n - polled.size(), rest.size());
+		for (Integer v : rest) {
+			Assertions.assertFalse(seen.get(v));
+			seen.set(v);
+		}
+		Assertions.assertEquals(n, seen.cardinality());
+	}
+}
@@ -0,0 +1,179 @@
+package persistent.priority_queue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class IndexedPriorityQueueTest {
+	@Test
+	public void testBasic() {
+		IndexedPriorityQueue<String, Integer> p = IndexedPriorityQueue.create(Integer::compare);
+		Assertions.assertNull(p.topKey());
+		Assertions.assertNull(p.topPriority());
+
+		p = p.put("a", 30).put("b", 100).put("c", 25);
+		Assertions.assertEquals(3, p.size());
+		Assertions.assertEquals("c", p.topKey());
+		Assertions.assertEquals(25, p.topPriority());
+		Assertions.assertEquals(100, p.get("b"));
+		Assertions.assertNull(p.get("d"));
+
+		IndexedPriorityQueue<String, Integer> q = p.decreaseKey("b", 10);
+		Assertions.assertEquals("b", q.topKey());
+		Assertions.assertEquals(3, q.size());
+		Assertions.assertSame(q, q.decreaseKey("b", 20));
+		q = q.updatePriority("b", 50);
+		Assertions.assertEquals("c", q.topKey());
+		Assertions.assertEquals(50, q.get("b"));
+		q = q.decreaseKey("d", 1);
+		Assertions.assertEquals("d", q.topKey());
+		Assertions.assertEquals(4, q.size());
+
+		q = q.remove("d").remove("x");
+		Assertions.assertEquals(3, q.size());
+		q = q.pop();
+		Assertions.assertEquals("a", q.topKey());
+		q = q.pop();
+		Assertions.assertEquals("b", q.topKey());
+		q = q.pop();
+		Assertions.assertTrue(q.isEmpty());
+		IndexedPriorityQueue<String, Integer> e = q;
+		Assertions.assertThrows(NoSuchElementException.class, () -> e.pop());
+		Assertions.assertThrows(NoSuchElementException.class, () -> e.updatePriority("a", 1));
+
+		// the old version is unchanged
+		Assertions.assertEquals(3, p.size());
+		Assertions.assertEquals(100, p.get("b"));
+		Assertions.assertEquals("c", p.topKey());
+	}
+
+	@Test
+	public void testRandom() {
+		Random random = new Random(7);
+		IndexedPriorityQueue<Integer, Integer> p = IndexedPriorityQueue.create(Integer::compare);
+		Map<Integer, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 100000; i++) {
+			int key = random.nextInt(2000);
+			int op = random.nextInt(4);
+			if (op == 0) {
+				p = p.remove(key);
+				expected.remove(key);
+			} else if (op == 1 && !expected.isEmpty()) {
+				int k = p.topKey();
+				Assertions.assertEquals(expected.get(k), p.topPriority());
+				p = p.pop();
+				expected.remove(k);
+			} else if (op == 2) {
+				int v = random.nextInt(100000);
+				p = p.decreaseKey(key, v);
+				expected.merge(key, v, Math::min);
+			} else {
+				int v = random.nextInt(100000);
+				p = p.put(key, v);
+				expected.put(key, v);
+			}
+			Assertions.assertEquals(expected.size(), p.size());
+			Assertions.assertEquals(expected.get(key), p.get(key));
+			if (!expected.isEmpty()) {
+				int min = expected.values().stream().min(Integer::compare).get();
+				Assertions.assertEquals(min, p.topPriority());
+				Assertions.assertEquals(min, expected.get(p.topKey()));
+			}
+		}
+	}
+
+	/**
+	 * Keys of the same hash are chained after all hash bits are used.
+	 */
+	@Test
+	public void testCollision() {
+		List<Key> keys = new ArrayList<>();
+		for (int i = 0; i < 100; i++)
+			keys.add(new Key(i % 3, i));
+		IndexedPriorityQueue<Key, Integer> p = IndexedPriorityQueue.create(Integer::compare);
+		for (int i = 0; i < 100; i++)
+			p = p.put(keys.get(i), 100 - i);
+		Assertions.assertEquals(100, p.size());
+		for (int i = 0; i < 100; i += 2)
+			p = p.remove(keys.get(i));
+		Assertions.assertEquals(50, p.size());
+		for (int i = 0; i < 100; i++)
+			Assertions.assertEquals(i % 2 == 0 ? null : 100 - i, p.get(keys.get(i)));
+		for (int i = 99; i > 0; i -= 2) {
+			Assertions.assertSame(keys.get(i), p.topKey());
+			p = p.pop();
+		}
+		Assertions.assertTrue(p.isEmpty());
+	}
+
+	@Test
+	public void testDijkstra() {
+		Random random = new Random(7);
+		int n = 2000;
+		List<List<int[]>> g = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			g.add(new ArrayList<>());
+			for (int j = 0; j < 5; j++)
+				g.get(i).add(new int[] { random.nextInt(n), random.nextInt(100) });
+		}
+
+		// Bellman-Ford
+		long[] expected = new long[n];
+		Arrays.fill(expected, Long.MAX_VALUE);
+		expected[0] = 0;
+		for (boolean changed = true; changed;) {
+			changed = false;
+			for (int u = 0; u < n; u++) {
+				if (expected[u] == Long.MAX_VALUE)
+					continue;
+				for (int[] e : g.get(u)) {
+					if (expected[u] + e[1] < expected[e[0]]) {
+						expected[e[0]] = expected[u] + e[1];
+						changed = true;
+					}
+				}
+			}
+		}
+
+		long[] dist = new long[n];
+		Arrays.fill(dist, Long.MAX_VALUE);
+		IndexedPriorityQueue<Integer, Long> q = IndexedPriorityQueue.<Integer, Long>create(Long::compare).put(0, 0L);
+		while (!q.isEmpty()) {
+			int u = q.topKey();
+			dist[u] = q.topPriority();
+			q = q.pop();
+			for (int[] e : g.get(u)) {
+				if (dist[e[0]] == Long.MAX_VALUE)
+					q = q.decreaseKey(e[0], dist[u] + e[1]);
+			}
+		}
+		Assertions.assertArrayEquals(expected, dist);
+	}
+
+	private static class Key {
+		final int hash;
+		final int id;
+
+		Key(int hash, int id) {
+			this.hash = hash;
+			this.id = id;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Key && ((Key) o).id == id;
+		}
+	}
+}
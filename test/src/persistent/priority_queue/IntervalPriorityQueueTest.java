@@ -0,0 +1,145 @@
+package persistent.priority_queue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import persistent.PMinMaxPriorityQueue;
+import persistent.PPriorityQueueTestUtil;
+
+public class IntervalPriorityQueueTest {
+	@Test
+	public void testBasic() {
+		PMinMaxPriorityQueue<Integer> p = IntervalPriorityQueue.<Integer>create((a, b) -> Integer.compare(a, b));
+		Assertions.assertNull(p.min());
+		Assertions.assertNull(p.max());
+
+		p = p.push(30);
+		Assertions.assertEquals(30, p.min());
+		Assertions.assertEquals(30, p.max());
+		p = p.push(100);
+		Assertions.assertEquals(30, p.min());
+		Assertions.assertEquals(100, p.max());
+		p = p.push(25);
+		Assertions.assertEquals(25, p.min());
+		Assertions.assertEquals(100, p.max());
+		p = p.push(40);
+		Assertions.assertEquals(25, p.top());
+		Assertions.assertEquals(100, p.max());
+		Assertions.assertEquals(4, p.size());
+
+		PMinMaxPriorityQueue<Integer> q = p.popMax();
+		Assertions.assertEquals(25, q.min());
+		Assertions.assertEquals(40, q.max());
+		Assertions.assertEquals(3, q.size());
+		q = q.popMin();
+		Assertions.assertEquals(30, q.min());
+		Assertions.assertEquals(40, q.max());
+		q = q.popMax();
+		Assertions.assertEquals(30, q.min());
+		Assertions.assertEquals(30, q.max());
+		q = q.pop();
+		Assertions.assertTrue(q.isEmpty());
+		PMinMaxPriorityQueue<Integer> e = q;
+		Assertions.assertThrows(NoSuchElementException.class, () -> e.popMin());
+		Assertions.assertThrows(NoSuchElementException.class, () -> e.popMax());
+
+		// the old version is unchanged
+		Assertions.assertEquals(4, p.size());
+		Assertions.assertEquals(25, p.min());
+		Assertions.assertEquals(100, p.max());
+	}
+
+	@Test
+	public void testSequential() {
+		PMinMaxPriorityQueue<Integer> p = IntervalPriorityQueue.<Integer>create(Integer::compare);
+		int n = 100000;
+		for (int i = 0; i < n; i++) {
+			p = p.push(i);
+			Assertions.assertEquals(0, p.min());
+			Assertions.assertEquals(i, p.max());
+		}
+		for (int i = 0; i < n / 2; i++) {
+			Assertions.assertEquals(i, p.min());
+			Assertions.assertEquals(n - i - 1, p.max());
+			p = p.popMin().popMax();
+			Assertions.assertEquals(n - i * 2 - 2, p.size());
+		}
+		Assertions.assertTrue(p.isEmpty());
+	}
+
+	@Test
+	public void testRandom() {
+		Random random = new Random(7);
+		PMinMaxPriorityQueue<Integer> p = IntervalPriorityQueue.<Integer>create(Integer::compare);
+		TreeMap<Integer, Integer> expected = new TreeMap<>();
+		int n = 0;
+		for (int i = 0; i < 200000; i++) {
+			int op = random.nextInt(5);
+			if (n == 0 || op >= 2) {
+				int v = random.nextInt(1000);
+				p = p.push(v);
+				expected.merge(v, 1, Integer::sum);
+				n++;
+			} else {
+				int v = op == 0 ? expected.firstKey() : expected.lastKey();
+				p = op == 0 ? p.popMin() : p.popMax();
+				if (expected.merge(v, -1, Integer::sum) == 0)
+					expected.remove(v);
+				n--;
+			}
+			Assertions.assertEquals(n, p.size());
+			if (n > 0) {
+				Assertions.assertEquals(expected.firstKey(), p.min());
+				Assertions.assertEquals(expected.lastKey(), p.max());
+			}
+		}
+	}
+
+	@Test
+	public void testPersistent() {
+		Random random = new Random(7);
+		List<PMinMaxPriorityQueue<Integer>> versions = new ArrayList<>();
+		List<List<Integer>> expected = new ArrayList<>();
+		versions.add(IntervalPriorityQueue.create(Integer::compare));
+		expected.add(new ArrayList<>());
+		for (int i = 0; i < 2000; i++) {
+			int k = random.nextInt(versions.size());
+			PMinMaxPriorityQueue<Integer> p = versions.get(k);
+			List<Integer> e = new ArrayList<>(expected.get(k));
+			int op = random.nextInt(4);
+			if (e.isEmpty() || op >= 2) {
+				int v = random.nextInt(100);
+				p = p.push(v);
+				e.add(v);
+			} else if (op == 0) {
+				p = p.popMin();
+				e.remove(e.stream().min(Integer::compare).get());
+			} else {
+				p = p.popMax();
+				e.remove(e.stream().max(Integer::compare).get());
+			}
+			versions.add(p);
+			expected.add(e);
+		}
+		for (int i = 0; i < versions.size(); i++) {
+			PMinMaxPriorityQueue<Integer> p = versions.get(i);
+			List<Integer> e = expected.get(i);
+			e.sort(Integer::compare);
+			List<Integer> a = new ArrayList<>();
+			for (Integer v : p.drainSorted())
+				a.add(v);
+			Assertions.assertEquals(e, a);
+		}
+	}
+
+	@Test
+	public void testIterators() {
+		PPriorityQueueTestUtil.testIterators(IntervalPriorityQueue.<Integer>create(Integer::compare));
+	}
+}
@@ -0,0 +1,37 @@
+package persistent.priority_queue;
+
+import org.junit.jupiter.api.Test;
+
+import persistent.PPriorityQueueTestUtil;
+
+public class LeftistPriorityQueueTest {
+	@Test
+	public void testBasic() {
+		PPriorityQueueTestUtil.testBasic(LeftistPriorityQueue.<Integer>create((a, b) -> Integer.compare(a, b)));
+	}
+
+	@Test
+	public void testSequential() {
+		PPriorityQueueTestUtil.testSequential(LeftistPriorityQueue.<Integer>create(Integer::compare));
+	}
+
+	@Test
+	public void testRandom() {
+		PPriorityQueueTestUtil.testRandom(LeftistPriorityQueue.<Integer>create(Integer::compare));
+	}
+
+	@Test
+	public void testMeld() {
+		PPriorityQueueTestUtil.testMeld(LeftistPriorityQueue.<Integer>create(Integer::compare));
+	}
+
+	@Test
+	public void testMeldOther() {
+		PPriorityQueueTestUtil.testMeldOther(LeftistPriorityQueue.<Integer>create(Integer::compare));
+	}
+
+	@Test
+	public void testIterators() {
+		PPriorityQueueTestUtil.testIterators(LeftistPriorityQueue.<Integer>create(Integer::compare));
+	}
+}
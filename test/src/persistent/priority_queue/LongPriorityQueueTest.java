@@ -0,0 +1,91 @@
+package persistent.priority_queue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LongPriorityQueueTest {
+	@Test
+	public void testBasic() {
+		LongPriorityQueue<String> p = LongPriorityQueue.create();
+		Assertions.assertNull(p.top());
+		Assertions.assertThrows(NoSuchElementException.class, () -> p.topKey());
+
+		LongPriorityQueue<String> q = p.push(30, "a").push(100, "b").push(25).push(40, "d");
+		Assertions.assertEquals(4, q.size());
+		Assertions.assertEquals(25, q.topKey());
+		Assertions.assertNull(q.top());
+		q = q.pop();
+		Assertions.assertEquals(30, q.topKey());
+		Assertions.assertEquals("a", q.top());
+		q = q.pop();
+		Assertions.assertEquals(40, q.topKey());
+		Assertions.assertEquals("d", q.top());
+		q = q.pop();
+		Assertions.assertEquals(100, q.topKey());
+		Assertions.assertEquals("b", q.top());
+		q = q.pop();
+		Assertions.assertTrue(q.isEmpty());
+		Assertions.assertSame(p, q);
+		LongPriorityQueue<String> e = q;
+		Assertions.assertThrows(NoSuchElementException.class, () -> e.pop());
+	}
+
+	@Test
+	public void testRandom() {
+		Random random = new Random(7);
+		LongPriorityQueue<Integer> p = LongPriorityQueue.create();
+		PriorityQueue<Long> expected = new PriorityQueue<>();
+		for (int i = 0; i < 200000; i++) {
+			if (expected.isEmpty() || random.nextInt(3) > 0) {
+				long v = random.nextLong() >> random.nextInt(64);
+				p = p.push(v, i);
+				expected.add(v);
+			} else {
+				p = p.pop();
+				expected.poll();
+			}
+			Assertions.assertEquals(expected.size(), p.size());
+			if (!expected.isEmpty())
+				Assertions.assertEquals(expected.peek(), p.topKey());
+		}
+	}
+
+	@Test
+	public void testPopUntil() {
+		Random random = new Random(7);
+		LongPriorityQueue<Long> p = LongPriorityQueue.create();
+		PriorityQueue<Long> expected = new PriorityQueue<>();
+		long now = 0;
+		for (int i = 0; i < 20000; i++) {
+			for (int j = random.nextInt(10); j > 0; j--) {
+				long deadline = now + random.nextInt(1000);
+				p = p.push(deadline, deadline);
+				expected.add(deadline);
+			}
+			now += random.nextInt(100);
+
+			List<Long> fired = new ArrayList<>();
+			LongPriorityQueue<Long> q = p.popUntil(now, (v, k) -> {
+				Assertions.assertEquals(v, k);
+				fired.add(k);
+			});
+			List<Long> e = new ArrayList<>();
+			while (!expected.isEmpty() && expected.peek() <= now)
+				e.add(expected.poll());
+			Assertions.assertEquals(e, fired);
+			Assertions.assertEquals(expected.size(), q.size());
+			if (fired.isEmpty())
+				Assertions.assertSame(p, q);
+			p = q;
+		}
+		p = p.popUntil(Long.MAX_VALUE, (v, k) -> {
+		});
+		Assertions.assertTrue(p.isEmpty());
+	}
+}
@@ -0,0 +1,37 @@
+package persistent.priority_queue;
+
+import org.junit.jupiter.api.Test;
+
+import persistent.PPriorityQueueTestUtil;
+
+public class PairingPriorityQueueTest {
+	@Test
+	public void testBasic() {
+		PPriorityQueueTestUtil.testBasic(PairingPriorityQueue.<Integer>create((a, b) -> Integer.compare(a, b)));
+	}
+
+	@Test
+	public void testSequential() {
+		PPriorityQueueTestUtil.testSequential(PairingPriorityQueue.<Integer>create(Integer::compare));
+	}
+
+	@Test
+	public void testRandom() {
+		PPriorityQueueTestUtil.testRandom(PairingPriorityQueue.<Integer>create(Integer::compare));
+	}
+
+	@Test
+	public void testMeld() {
+		PPriorityQueueTestUtil.testMeld(PairingPriorityQueue.<Integer>create(Integer::compare));
+	}
+
+	@Test
+	public void testMeldOther() {
+		PPriorityQueueTestUtil.testMeldOther(PairingPriorityQueue.<Integer>create(Integer::compare));
+	}
+
+	@Test
+	public void testIterators() {
+		PPriorityQueueTestUtil.testIterators(PairingPriorityQueue.<Integer>create(Integer::compare));
+	}
+}
@@ -0,0 +1,76 @@
+package persistent.priority_queue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import persistent.PPriorityQueue;
+import persistent.PPriorityQueueTestUtil;
+
+public class SkewBinomialPriorityQueueTest {
+	@Test
+	public void testBasic() {
+		PPriorityQueueTestUtil.testBasic(SkewBinomialPriorityQueue.<Integer>create((a, b) -> Integer.compare(a, b)));
+	}
+
+	@Test
+	public void testSequential() {
+		PPriorityQueueTestUtil.testSequential(SkewBinomialPriorityQueue.<Integer>create(Integer::compare));
+	}
+
+	@Test
+	public void testRandom() {
+		PPriorityQueueTestUtil.testRandom(SkewBinomialPriorityQueue.<Integer>create(Integer::compare));
+	}
+
+	@Test
+	public void testMeld() {
+		Random random = new Random(7);
+		SkewBinomialPriorityQueue<Integer> empty = SkewBinomialPriorityQueue.create(Integer::compare);
+		List<SkewBinomialPriorityQueue<Integer>> shards = new ArrayList<>();
+		PriorityQueue<Integer> expected = new PriorityQueue<>();
+		for (int i = 0; i < 64; i++) {
+			SkewBinomialPriorityQueue<Integer> p = empty;
+			int n = random.nextInt(2000);
+			for (int j = 0; j < n; j++) {
+				int v = random.nextInt(100000);
+				p = p.push(v);
+				expected.add(v);
+			}
+			shards.add(p);
+		}
+
+		// merges at barriers, the shards are still valid
+		SkewBinomialPriorityQueue<Integer> all = empty;
+		for (SkewBinomialPriorityQueue<Integer> p : shards)
+			all = random.nextBoolean() ? all.meld(p) : p.meld(all);
+		Assertions.assertEquals(expected.size(), all.size());
+		int remelds = 10;
+		while (!expected.isEmpty()) {
+			Assertions.assertEquals(expected.poll(), all.top());
+			all = all.pop();
+			if (remelds > 0 && random.nextInt(1000) == 0) {
+				remelds--;
+				SkewBinomialPriorityQueue<Integer> p = shards.get(random.nextInt(shards.size()));
+				all = all.meld(p);
+				for (PPriorityQueue<Integer> q = p; !q.isEmpty(); q = q.pop())
+					expected.add(q.top());
+			}
+		}
+		Assertions.assertTrue(all.isEmpty());
+	}
+
+	@Test
+	public void testMeldOther() {
+		PPriorityQueueTestUtil.testMeldOther(SkewBinomialPriorityQueue.<Integer>create(Integer::compare));
+	}
+
+	@Test
+	public void testIterators() {
+		PPriorityQueueTestUtil.testIterators(SkewBinomialPriorityQueue.<Integer>create(Integer::compare));
+	}
+}
@@ -0,0 +1,127 @@
+package persistent.stack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import persistent.PStack;
+import persistent.PStackTestUtil;
+
+public class UnrolledStackTest {
+	@Test
+	public void testBasic() {
+		UnrolledStack<Integer> stk = UnrolledStack.create();
+		PStackTestUtil.testStack(stk);
+	}
+
+	@Test
+	public void testToString() {
+		UnrolledStack<Integer> stk = UnrolledStack.create();
+		Assertions.assertEquals("Stack {size = 0, []}", stk.toString());
+		stk = stk.push(1);
+		stk = stk.push(2);
+		Assertions.assertEquals("Stack {size = 2, [2, 1]}", stk.toString());
+		Assertions.assertSame(UnrolledStack.create(), stk.pop().pop());
+		Assertions.assertSame(UnrolledStack.create(), stk.pop().pop().pop());
+	}
+
+	/**
+	 * Pushes and pops on random versions, the versions sharing a chunk keep
+	 * their own elements.
+	 */
+	@Test
+	public void testVersions() {
+		Random random = new Random(7);
+		List<PStack<Integer>> versions = new ArrayList<>();
+		List<List<Integer>> expected = new ArrayList<>();
+		versions.add(UnrolledStack.create());
+		expected.add(new ArrayList<>());
+		for (int i = 0; i < 20000; i++) {
+			int k = random.nextInt(versions.size());
+			if (random.nextInt(4) == 0)
+				k = versions.size() - 1;
+			PStack<Integer> stk = versions.get(k);
+			List<Integer> e = new ArrayList<>(expected.get(k));
+			if (e.isEmpty() || random.nextInt(3) > 0) {
+				stk = stk.push(i);
+				e.add(0, i);
+			} else {
+				stk = stk.pop();
+				e.remove(0);
+			}
+			versions.add(stk);
+			expected.add(e);
+		}
+		for (int i = 0; i < versions.size(); i++) {
+			PStack<Integer> stk = versions.get(i);
+			Assertions.assertEquals(expected.get(i).size(), stk.size());
+			Assertions.assertEquals(expected.get(i), PStack.toArrayList(stk));
+			Assertions.assertEquals(expected.get(i).isEmpty() ? null : expected.get(i).get(0), stk.top());
+		}
+	}
+
+	/**
+	 * Pushes a few repeated elements and null on random versions, the slots
+	 * above a popped version are not mistaken for the pushed element.
+	 */
+	@Test
+	public void testPushSameElement() {
+		Random random = new Random(7);
+		Integer[] pool = { 1, 2, 3, null };
+		List<PStack<Integer>> versions = new ArrayList<>();
+		List<List<Integer>> expected = new ArrayList<>();
+		versions.add(UnrolledStack.create());
+		expected.add(new ArrayList<>());
+		for (int i = 0; i < 20000; i++) {
+			int k = random.nextInt(versions.size());
+			PStack<Integer> stk = versions.get(k);
+			List<Integer> e = new ArrayList<>(expected.get(k));
+			if (e.isEmpty() || random.nextInt(3) > 0) {
+				Integer v = pool[random.nextInt(pool.length)];
+				stk = stk.push(v);
+				e.add(0, v);
+			} else {
+				stk = stk.pop();
+				e.remove(0);
+			}
+			versions.add(stk);
+			expected.add(e);
+		}
+		for (int i = 0; i < versions.size(); i++)
+			Assertions.assertEquals(expected.get(i), PStack.toArrayList(versions.get(i)));
+	}
+
+	/**
+	 * Threads push onto the same versions, one of them appends in place and the
+	 * others start new chunks.
+	 */
+	@Test
+	public void testConcurrentPush() throws InterruptedException {
+		UnrolledStack<Integer> base = UnrolledStack.create();
+		for (int i = 0; i < 5; i++)
+			base = base.push(i);
+		final UnrolledStack<Integer> shared = base;
+		AtomicBoolean failed = new AtomicBoolean();
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			final int id = t;
+			threads.add(new Thread(() -> {
+				for (int i = 0; i < 100000; i++) {
+					UnrolledStack<Integer> stk = shared.push(id).push(i);
+					if (stk.top() != i || stk.pop().top() != id
+							|| stk.pop().pop().top() != 4 || stk.size() != 7)
+						failed.set(true);
+				}
+			}));
+		}
+		for (Thread t : threads)
+			t.start();
+		for (Thread t : threads)
+			t.join();
+		Assertions.assertFalse(failed.get());
+	}
+}